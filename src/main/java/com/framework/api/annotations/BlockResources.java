@@ -0,0 +1,53 @@
+package com.framework.api.annotations;
+
+import com.framework.api.config.ResourceType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Аннотация для отключения загрузки ресурсов, которые не нужны тесту.
+ * <p>
+ * Запросы указанных типов и запросы к указанным URL прерываются до отправки в сеть,
+ * что сокращает трафик и время загрузки страниц. Число прерванных запросов
+ * выводится в журнал после каждого теста.
+ * <p>
+ * Может быть применена как к отдельному методу, так и к целому классу.
+ * Аннотация метода имеет приоритет. Если аннотации нет, используются параметры
+ * network.block.resources и network.block.urls из playwright.properties.
+ * Пустая аннотация отключает блокировку для теста.
+ * <p>
+ * Пример использования:
+ * ```
+ *
+ * @BlockResources({IMAGE, FONT, MEDIA})
+ * public class SearchTests extends PlaywrightBaseTest {
+ * @Test
+ * @BlockResources(value = {IMAGE}, urls = {"**}{@code /analytics/**"})
+ * public void testSearch() {
+ * // Изображения и запросы аналитики не загружаются
+ * }
+ * }
+ * ```
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface BlockResources {
+    /**
+     * Типы ресурсов, загрузка которых прерывается.
+     *
+     * @return типы ресурсов, по умолчанию пустой массив
+     */
+    ResourceType[] value() default {};
+
+    /**
+     * Glob-шаблоны URL, запросы к которым прерываются (например, {@code **}{@code /collect*}).
+     * {@code **} соответствует любой последовательности символов,
+     * {@code *} - любой последовательности символов, кроме {@code /}.
+     *
+     * @return шаблоны URL, по умолчанию пустой массив
+     */
+    String[] urls() default {};
+}
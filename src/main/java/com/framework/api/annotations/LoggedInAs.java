@@ -0,0 +1,55 @@
+package com.framework.api.annotations;
+
+import com.framework.api.auth.LoginRoutine;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Аннотация, указывающая, что тест выполняется под пользователем с заданной ролью.
+ * <p>
+ * Вход через UI выполняется один раз для каждой роли: процедура входа {@link LoginRoutine}
+ * запускается в отдельном контексте, а полученное состояние хранилища (cookies и localStorage)
+ * сохраняется в файл и подставляется во все следующие контексты с этой ролью.
+ * Сохраненное состояние переиспользуется в течение auth.stateTtlSeconds и создается
+ * заново, если перестает работать.
+ * <p>
+ * Аннотация на классе задает роль для контекста всего класса. Аннотация на методе
+ * учитывается при context.scope=method, когда каждый тест получает собственный контекст.
+ * <p>
+ * Пример использования:
+ * ```
+ * @LoggedInAs("admin")
+ * public class AdminTest extends PlaywrightBaseTest {
+ * @Test public void testDashboard(HomePage homePage) {
+ * // контекст уже содержит cookies администратора
+ * }
+ * }
+ * <p>
+ * // Отдельная процедура входа для метода
+ * @Test
+ * @LoggedInAs(value = "manager", routine = SsoLoginRoutine.class)
+ * public void testReports(Page page) {
+ * }
+ * ```
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface LoggedInAs {
+    /**
+     * Роль пользователя, под которым выполняется вход.
+     *
+     * @return имя роли
+     */
+    String value();
+
+    /**
+     * Класс процедуры входа.
+     * По умолчанию используется класс из параметра auth.loginRoutine конфигурации.
+     *
+     * @return класс процедуры входа
+     */
+    Class<? extends LoginRoutine> routine() default LoginRoutine.class;
+}
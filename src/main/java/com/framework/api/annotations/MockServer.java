@@ -0,0 +1,47 @@
+package com.framework.api.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Аннотация для запуска тестов страниц на встроенном mock-сервере вместо реального сайта.
+ * <p>
+ * Объекты страниц, внедряемые в тест, получают адрес сервера через
+ * {@link com.framework.api.pages.PageObject#setBaseUrl(String)}, а относительные URL
+ * в {@link PageParam} (начинающиеся с /) дополняются этим адресом. Сервер запускается
+ * при первом использовании и отдает статические файлы из mock.server.root и заглушки API,
+ * зарегистрированные через {@code MockHttpServer.get().stub(...)}.
+ * <p>
+ * Может быть применена как к отдельному методу, так и к целому классу.
+ * Аннотация метода имеет приоритет.
+ * <p>
+ * Пример использования:
+ * ```
+ *
+ * @MockServer
+ * public class HomePageTest extends PlaywrightBaseTest {
+ * @Test
+ * public void testHomePage(HomePage homePage) {
+ * // Страница откроется на mock-сервере
+ * homePage.navigateToHome();
+ * }
+ * @Test
+ * @MockServer("/google")
+ * public void testSearch(@PageParam(url = "/", navigate = true) GooglePage googlePage) {
+ * // Сайт из поддиректории google в mock.server.root
+ * }
+ * }
+ * ```
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface MockServer {
+    /**
+     * Путь к сайту внутри mock.server.root.
+     *
+     * @return путь к сайту, по умолчанию корень
+     */
+    String value() default "";
+}
@@ -15,7 +15,7 @@ import java.lang.annotation.Target;
  * ```
  *
  * @Test public void testLoginPage(@PageParam(url = "https://example.com/login", navigate = true) LoginPage loginPage) {
- * // Страница уже открыта по указанному URL
+ * // Страница откроется по указанному URL при первом действии
  * loginPage.enterCredentials("user", "password");
  * assertTrue(loginPage.isLoggedIn());
  * }
@@ -33,7 +33,8 @@ public @interface PageParam {
 
     /**
      * Флаг, указывающий, нужно ли выполнять навигацию на указанный URL.
-     * Если true, то перед выполнением теста будет выполнен переход на URL, указанный в параметре url.
+     * Если true, то при первом обращении теста к странице будет выполнен переход на URL,
+     * указанный в параметре url. Если страница уже открыта на этом URL, переход не выполняется.
      *
      * @return true, если нужно выполнить навигацию, false в противном случае
      */
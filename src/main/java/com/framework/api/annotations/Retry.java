@@ -14,7 +14,12 @@ import java.lang.annotation.Target;
  * <p>
  * Может быть применена как к отдельному методу, так и к целому классу.
  * Если аннотация применена к классу, то повторный запуск будет применяться
- * ко всем тестовым методам этого класса.
+ * ко всем тестовым методам этого класса. Аннотация метода имеет приоритет.
+ * <p>
+ * Повторяются только нестабильные ошибки: таймауты Playwright, сетевые ошибки
+ * и закрытие страницы или браузера. Ошибки проверок (AssertionError) не повторяются.
+ * Дополнительные типы ошибок можно указать в {@link #retryOn()}. Общее число
+ * повторов за запуск ограничено параметром retry.budget.
  * <p>
  * Пример использования:
  * ```
@@ -24,7 +29,7 @@ import java.lang.annotation.Target;
  * public void testUnstableFeature() {
  * // Тест будет повторен до 3 раз в случае неудачи
  * }
- * @Retry(maxRetries = 5)
+ * @Retry(maxRetries = 5, retryOn = IllegalStateException.class)
  * public class UnstableTests {
  * // Все тесты в этом классе будут повторяться до 5 раз при неудаче
  * }
@@ -39,4 +44,11 @@ public @interface Retry {
      * @return количество повторных запусков, по умолчанию 2
      */
     int maxRetries() default 2;
+
+    /**
+     * Дополнительные типы ошибок, которые считаются нестабильными и повторяются.
+     *
+     * @return типы ошибок, по умолчанию пустой массив
+     */
+    Class<? extends Throwable>[] retryOn() default {};
 }
\ No newline at end of file
@@ -59,6 +59,9 @@ public @interface TestData {
     /**
      * Путь к файлу с данными для параметризации теста.
      * Каждая строка файла будет использована как отдельный набор данных.
+     * Файл читается потоково; для файлов .csv, .jsonl и .json значения колонок
+     * приводятся к типам параметров метода. Параметр-record получает
+     * весь JSON-объект строки.
      *
      * @return путь к файлу с данными
      */
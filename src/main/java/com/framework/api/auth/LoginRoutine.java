@@ -0,0 +1,57 @@
+package com.framework.api.auth;
+
+import com.microsoft.playwright.Page;
+
+/**
+ * Интерфейс процедуры входа пользователя в тестируемое приложение.
+ * <p>
+ * Реализация выполняет вход через UI на переданной странице. Фреймворк вызывает её
+ * один раз для каждой роли, сохраняет состояние хранилища контекста и подставляет
+ * его в контексты тестов, отмеченных аннотацией {@link com.framework.api.annotations.LoggedInAs}.
+ * <p>
+ * Реализация должна иметь публичный конструктор без параметров.
+ * <p>
+ * Пример реализации:
+ * ```
+ * public class FormLoginRoutine implements LoginRoutine {
+ * @Override
+ * public void login(Page page, String role) {
+ * page.navigate("https://example.com/login");
+ * page.fill("#user", role);
+ * page.fill("#password", System.getenv("PASSWORD_" + role.toUpperCase()));
+ * page.click("button[type=submit]");
+ * page.waitForURL("**&#47;dashboard");
+ * }
+ * <p>
+ * @Override
+ * public boolean isLoggedIn(Page page, String role) {
+ * return page.locator("#logout").isVisible();
+ * }
+ * }
+ * ```
+ */
+public interface LoginRoutine {
+
+    /**
+     * Выполняет вход пользователя с указанной ролью.
+     * После возврата из метода контекст страницы должен содержать состояние
+     * авторизованного пользователя.
+     *
+     * @param page новая страница в чистом контексте
+     * @param role роль пользователя
+     */
+    void login(Page page, String role);
+
+    /**
+     * Проверяет, авторизован ли пользователь на странице.
+     * Вызывается после неудачного теста: если пользователь не авторизован,
+     * сохраненное состояние роли считается недействительным и создается заново.
+     *
+     * @param page страница теста
+     * @param role роль пользователя
+     * @return true, если пользователь авторизован
+     */
+    default boolean isLoggedIn(Page page, String role) {
+        return true;
+    }
+}
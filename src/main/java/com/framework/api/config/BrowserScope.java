@@ -0,0 +1,61 @@
+package com.framework.api.config;
+
+/**
+ * Область жизни экземпляров Playwright и Browser.
+ * <p>
+ * Определяет, как часто фреймворк запускает новый процесс драйвера Playwright
+ * и новый процесс браузера. Задается параметром {@code browser.scope}
+ * в файле playwright.properties.
+ * <p>
+ * Поддерживаемые значения:
+ * - class - Playwright и Browser берутся из пула на время тестового класса и возвращаются
+ * в пул после него; следующий класс получает уже запущенный браузер (по умолчанию)
+ * - worker - один Playwright и Browser на поток TestNG, переиспользуются между классами
+ * - suite - один Playwright и Browser на весь набор тестов (только для последовательного запуска)
+ * <p>
+ * Независимо от выбранной области каждый тестовый класс получает
+ * собственный BrowserContext.
+ * <p>
+ * Пример использования:
+ * ```
+ * browser.scope=worker
+ * ```
+ */
+public enum BrowserScope {
+    /**
+     * Браузер из пула на время тестового класса, после класса возвращается в пул
+     * и переиспользуется следующими классами.
+     */
+    CLASS,
+
+    /**
+     * Один браузер на поток выполнения TestNG.
+     */
+    WORKER,
+
+    /**
+     * Один браузер на весь набор тестов.
+     */
+    SUITE;
+
+    /**
+     * Преобразует строковое значение из конфигурации в область жизни браузера.
+     * Пустое значение трактуется как {@link #CLASS}.
+     *
+     * @param value строковое значение (class, worker, suite)
+     * @return область жизни браузера
+     * @throws IllegalArgumentException если значение не является допустимой областью
+     */
+    public static BrowserScope fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return CLASS;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "class" -> CLASS;
+            case "worker" -> WORKER;
+            case "suite" -> SUITE;
+            default -> throw new IllegalArgumentException("Неизвестное значение browser.scope: '" + value +
+                    "'. Допустимые значения: class, worker, suite");
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package com.framework.api.config;
+
+/**
+ * Область жизни BrowserContext и Page.
+ * <p>
+ * Задается параметром {@code context.scope} в файле playwright.properties.
+ * <p>
+ * Поддерживаемые значения:
+ * - class - один BrowserContext на тестовый класс (прежнее поведение)
+ * - method - новый BrowserContext для каждого тестового метода
+ * <p>
+ * Режим method дает полную изоляцию тестов: cookies, localStorage, IndexedDB,
+ * service workers, кэш и разрешения не переходят из теста в тест. Создание
+ * контекста обходится дешевле, чем очистка состояния через JavaScript.
+ * <p>
+ * Пример использования:
+ * ```
+ * context.scope=method
+ * ```
+ */
+public enum ContextScope {
+    /**
+     * Один контекст на тестовый класс.
+     */
+    CLASS,
+
+    /**
+     * Новый контекст для каждого тестового метода.
+     */
+    METHOD;
+
+    /**
+     * Преобразует строковое значение из конфигурации в область жизни контекста.
+     * Пустое значение трактуется как {@link #CLASS}.
+     *
+     * @param value строковое значение (class, method)
+     * @return область жизни контекста
+     * @throws IllegalArgumentException если значение не является допустимой областью
+     */
+    public static ContextScope fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return CLASS;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "class" -> CLASS;
+            case "method" -> METHOD;
+            default -> throw new IllegalArgumentException("Неизвестное значение context.scope: '" + value +
+                    "'. Допустимые значения: class, method");
+        };
+    }
+}
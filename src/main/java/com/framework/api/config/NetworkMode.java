@@ -0,0 +1,60 @@
+package com.framework.api.config;
+
+/**
+ * Режим работы с сетью.
+ * <p>
+ * Задается параметром {@code network.mode} в файле playwright.properties.
+ * <p>
+ * Поддерживаемые значения:
+ * - live - запросы идут в сеть (прежнее поведение)
+ * - record - запросы идут в сеть и записываются в HAR-файл тестового класса
+ * - replay - ответы берутся из HAR-файла; запросы, которых нет в файле,
+ * отклоняются (network.har.notFound=abort) или идут в сеть (fallback)
+ * <p>
+ * HAR-файлы хранятся в network.har.dir: по одному на класс при context.scope=class
+ * и по одному на тест при context.scope=method.
+ * <p>
+ * Пример использования:
+ * ```
+ * network.mode=replay
+ * network.har.dir=src/test/resources/har
+ * network.har.notFound=abort
+ * ```
+ */
+public enum NetworkMode {
+    /**
+     * Запросы идут в сеть.
+     */
+    LIVE,
+
+    /**
+     * Запросы идут в сеть и записываются в HAR.
+     */
+    RECORD,
+
+    /**
+     * Ответы воспроизводятся из HAR.
+     */
+    REPLAY;
+
+    /**
+     * Преобразует строковое значение из конфигурации в режим работы с сетью.
+     * Пустое значение трактуется как {@link #LIVE}.
+     *
+     * @param value строковое значение (live, record, replay)
+     * @return режим работы с сетью
+     * @throws IllegalArgumentException если значение не является допустимым режимом
+     */
+    public static NetworkMode fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return LIVE;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "live" -> LIVE;
+            case "record" -> RECORD;
+            case "replay" -> REPLAY;
+            default -> throw new IllegalArgumentException("Неизвестное значение network.mode: '" + value +
+                    "'. Допустимые значения: live, record, replay");
+        };
+    }
+}
@@ -19,9 +19,11 @@ import java.util.Properties;
  * <p>
  * Поддерживаемые настройки включают:
  * - Тип браузера (chromium, firefox, webkit)
+ * - Область жизни браузера (class, worker, suite) и контекста (class, method)
  * - Режим запуска (headless, slowMo)
  * - Размеры окна браузера
  * - Пользовательский агент
+ * - Кэширование состояния авторизации по ролям
  * - Локаль и часовой пояс
  * - Запись видео
  * - Геолокация
@@ -79,7 +81,7 @@ public class PlaywrightConfig {
      *
      * @return экземпляр PlaywrightConfig
      */
-    public static PlaywrightConfig getInstance() {
+    public static synchronized PlaywrightConfig getInstance() {
         if (instance == null) {
             instance = new PlaywrightConfig();
         }
@@ -104,6 +106,307 @@ public class PlaywrightConfig {
         return Boolean.parseBoolean(properties.getProperty("headless", "false"));
     }
 
+    /**
+     * Получает область жизни экземпляров Playwright и Browser.
+     * По умолчанию браузер выдается из пула на время тестового класса.
+     *
+     * @return область жизни браузера (class, worker или suite)
+     */
+    public BrowserScope getBrowserScope() {
+        return BrowserScope.fromString(properties.getProperty("browser.scope", "class"));
+    }
+
+    /**
+     * Получает область жизни BrowserContext и Page.
+     *
+     * @return область жизни контекста (class или method)
+     */
+    public ContextScope getContextScope() {
+        return ContextScope.fromString(properties.getProperty("context.scope", "class"));
+    }
+
+    /**
+     * Получает минимальное количество браузеров каждого типа,
+     * которые пул не закрывает при простое.
+     *
+     * @return минимальный размер пула
+     */
+    public int getBrowserPoolMinSize() {
+        return Integer.parseInt(properties.getProperty("browser.pool.minSize", "0"));
+    }
+
+    /**
+     * Получает максимальное количество браузеров каждого типа в пуле.
+     * Значение 0 означает, что размер определяется числом потоков набора тестов.
+     *
+     * @return максимальный размер пула или 0
+     */
+    public int getBrowserPoolMaxSize() {
+        return Integer.parseInt(properties.getProperty("browser.pool.maxSize", "0"));
+    }
+
+    /**
+     * Получает время простоя, после которого браузер закрывается пулом.
+     *
+     * @return время простоя в секундах
+     */
+    public int getBrowserPoolIdleTimeoutSeconds() {
+        return Integer.parseInt(properties.getProperty("browser.pool.idleTimeoutSeconds", "60"));
+    }
+
+    /**
+     * Получает максимальное время ожидания свободного браузера в пуле.
+     *
+     * @return время ожидания в секундах
+     */
+    public int getBrowserPoolBorrowTimeoutSeconds() {
+        return Integer.parseInt(properties.getProperty("browser.pool.borrowTimeoutSeconds", "30"));
+    }
+
+    /**
+     * Получает максимальный общий размер файлов, данные которых хранятся в кэше DataManager.
+     *
+     * @return размер кэша данных в байтах
+     */
+    public long getDataCacheMaxBytes() {
+        return Long.parseLong(properties.getProperty("data.cache.maxBytes", String.valueOf(64L * 1024 * 1024)));
+    }
+
+    /**
+     * Получает минимальный размер JSON файла, начиная с которого DataManager
+     * загружает его через бинарный снимок. Отрицательное значение отключает снимки.
+     *
+     * @return размер файла в байтах
+     */
+    public long getDataSnapshotMinBytes() {
+        return Long.parseLong(properties.getProperty("data.snapshot.minBytes", String.valueOf(1024L * 1024)));
+    }
+
+    /**
+     * Получает путь к директории для бинарных снимков JSON файлов.
+     * Снимки являются производными файлами сборки, поэтому по умолчанию хранятся в target.
+     *
+     * @return объект Path с путем к директории снимков
+     */
+    public Path getDataSnapshotDir() {
+        return Paths.get(properties.getProperty("data.snapshot.dir", "target/data-snapshots"));
+    }
+
+    /**
+     * Получает число повторов по умолчанию для тестов без аннотации @Retry,
+     * например при явном указании retryAnalyzer в @Test.
+     *
+     * @return максимальное число повторных запусков
+     */
+    public int getRetryMaxRetries() {
+        return Integer.parseInt(properties.getProperty("retry.maxRetries", "2"));
+    }
+
+    /**
+     * Получает общее число повторных запусков, доступное всем тестам за один запуск.
+     * Отрицательное значение снимает ограничение.
+     *
+     * @return бюджет повторных запусков
+     */
+    public int getRetryBudget() {
+        return Integer.parseInt(properties.getProperty("retry.budget", "10"));
+    }
+
+    /**
+     * Получает путь к файлу истории результатов тестов.
+     *
+     * @return путь к файлу или null, если история отключена пустым значением history.file
+     */
+    public Path getHistoryFile() {
+        String file = properties.getProperty("history.file", "target/test-history.jsonl");
+        return file.isBlank() ? null : Paths.get(file);
+    }
+
+    /**
+     * Получает число повторов без единого прохождения, после которого тест считается
+     * детерминированно падающим и больше не повторяется. 0 отключает проверку.
+     *
+     * @return минимальное число безуспешных повторов в истории
+     */
+    public int getHistoryDeterministicAfter() {
+        return Integer.parseInt(properties.getProperty("history.deterministicAfter", "3"));
+    }
+
+    /**
+     * Получает номер части набора тестов, выполняемой на этой машине.
+     * Системное свойство shard.index имеет приоритет над файлом настроек.
+     *
+     * @return номер части, начиная с 0
+     */
+    public int getShardIndex() {
+        return Integer.parseInt(System.getProperty("shard.index", properties.getProperty("shard.index", "0")));
+    }
+
+    /**
+     * Получает число частей, на которые делится набор тестов.
+     * Системное свойство shard.total имеет приоритет над файлом настроек.
+     *
+     * @return число частей; 1 - без разбиения
+     */
+    public int getShardTotal() {
+        return Integer.parseInt(System.getProperty("shard.total", properties.getProperty("shard.total", "1")));
+    }
+
+    /**
+     * Получает путь к общему для всех машин файлу истории, по которому набор
+     * делится на части с учетом длительности тестов.
+     * Системное свойство shard.historyFile имеет приоритет над файлом настроек.
+     *
+     * @return путь к файлу или null, если части выбираются по хэшу имени класса
+     */
+    public Path getShardHistoryFile() {
+        String file = System.getProperty("shard.historyFile", properties.getProperty("shard.historyFile", ""));
+        return file.isBlank() ? null : Paths.get(file);
+    }
+
+    /**
+     * Проверяет, выполнять ли тесты TestNG в виртуальных потоках
+     * (см. VirtualThreadExecutorFactory).
+     * Системное свойство executor.virtualThreads имеет приоритет над файлом настроек.
+     *
+     * @return true, если тесты выполняются в виртуальных потоках
+     */
+    public boolean isVirtualThreads() {
+        return Boolean.parseBoolean(System.getProperty("executor.virtualThreads",
+                properties.getProperty("executor.virtualThreads", "false")));
+    }
+
+    /**
+     * Проверяет, включено ли кэширование статических ответов для всех контекстов.
+     *
+     * @return true если network.cache.enabled=true
+     */
+    public boolean isNetworkCacheEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("network.cache.enabled", "false"));
+    }
+
+    /**
+     * Получает максимальный общий размер ответов, хранимых в памяти сетевого кэша.
+     *
+     * @return размер в байтах
+     */
+    public long getNetworkCacheMaxBytes() {
+        return Long.parseLong(properties.getProperty("network.cache.maxBytes", String.valueOf(128L * 1024 * 1024)));
+    }
+
+    /**
+     * Получает директорию для хранения сетевого кэша на диске.
+     *
+     * @return путь к директории или null, если кэш хранится только в памяти
+     */
+    public Path getNetworkCacheDir() {
+        String dir = properties.getProperty("network.cache.dir", "");
+        return dir.isBlank() ? null : Paths.get(dir);
+    }
+
+    /**
+     * Получает срок годности ответов сетевого кэша на диске.
+     *
+     * @return срок в секундах
+     */
+    public long getNetworkCacheTtlSeconds() {
+        return Long.parseLong(properties.getProperty("network.cache.ttlSeconds", "3600"));
+    }
+
+    /**
+     * Получает типы ресурсов, ответы на которые кэшируются.
+     *
+     * @return список типов ресурсов Playwright (script, stylesheet, font, image, ...)
+     */
+    public List<String> getNetworkCacheResourceTypes() {
+        return splitList(properties.getProperty("network.cache.resourceTypes", "script,stylesheet,font,image"));
+    }
+
+    /**
+     * Получает заголовки запроса, входящие в ключ сетевого кэша вместе с URL.
+     *
+     * @return список имен заголовков в нижнем регистре
+     */
+    public List<String> getNetworkCacheKeyHeaders() {
+        return splitList(properties.getProperty("network.cache.keyHeaders", "accept,accept-language"));
+    }
+
+    /**
+     * Получает типы ресурсов, загрузка которых прерывается в тестах без аннотации BlockResources.
+     *
+     * @return имена типов ресурсов в нижнем регистре (image, font, media и т.д.)
+     */
+    public List<String> getBlockedResourceTypes() {
+        return splitList(properties.getProperty("network.block.resources", ""));
+    }
+
+    /**
+     * Получает glob-шаблоны URL, запросы к которым прерываются в тестах без аннотации BlockResources.
+     *
+     * @return список шаблонов URL
+     */
+    public List<String> getBlockedUrls() {
+        return Arrays.stream(properties.getProperty("network.block.urls", "").split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Получает порт встроенного mock-сервера.
+     *
+     * @return номер порта или 0 для любого свободного порта
+     */
+    public int getMockServerPort() {
+        return Integer.parseInt(properties.getProperty("mock.server.port", "0"));
+    }
+
+    /**
+     * Получает корень статических файлов встроенного mock-сервера:
+     * путь в classpath или директорию файловой системы.
+     *
+     * @return корень статических файлов
+     */
+    public String getMockServerRoot() {
+        return properties.getProperty("mock.server.root", "mock-site");
+    }
+
+    /**
+     * Получает режим работы с сетью.
+     *
+     * @return режим работы с сетью (live, record, replay)
+     */
+    public NetworkMode getNetworkMode() {
+        return NetworkMode.fromString(properties.getProperty("network.mode", "live"));
+    }
+
+    /**
+     * Получает директорию HAR-файлов для режимов record и replay.
+     *
+     * @return путь к директории HAR-файлов
+     */
+    public Path getHarDir() {
+        return Paths.get(properties.getProperty("network.har.dir", "src/test/resources/har"));
+    }
+
+    /**
+     * Проверяет, отклонять ли в режиме replay запросы, которых нет в HAR-файле.
+     *
+     * @return true при network.har.notFound=abort, false при fallback (запрос идет в сеть)
+     */
+    public boolean isHarStrict() {
+        return !"fallback".equalsIgnoreCase(properties.getProperty("network.har.notFound", "abort").trim());
+    }
+
+    /**
+     * Получает glob-шаблон URL, запросы к которым записываются и воспроизводятся из HAR.
+     *
+     * @return шаблон URL или пустая строка для всех запросов
+     */
+    public String getHarUrlPattern() {
+        return properties.getProperty("network.har.url", "");
+    }
+
     /**
      * Получает значение задержки между действиями (в миллисекундах).
      * Полезно для замедления тестов для отладки или демонстрации.
@@ -132,9 +435,43 @@ public class PlaywrightConfig {
         return Boolean.parseBoolean(properties.getProperty("trace.onFailure", "true"));
     }
 
+    /**
+     * Получает режим записи трассировки.
+     * Если trace.mode не задан, используется trace.onFailure.
+     *
+     * @return режим трассировки
+     */
+    public TraceMode getTraceMode() {
+        String mode = properties.getProperty("trace.mode");
+        if (mode == null || mode.isBlank()) {
+            return captureTraceOnFailure() ? TraceMode.RETAIN_ON_FAILURE : TraceMode.OFF;
+        }
+        return TraceMode.fromString(mode);
+    }
+
+    /**
+     * Получает число фоновых потоков, записывающих артефакты упавших тестов.
+     *
+     * @return число потоков записи
+     */
+    public int getArtifactWriterThreads() {
+        return Integer.parseInt(properties.getProperty("artifacts.writerThreads", "2"));
+    }
+
+    /**
+     * Получает размер очереди артефактов, ожидающих записи.
+     * При заполнении очереди артефакт записывается в потоке теста.
+     *
+     * @return размер очереди
+     */
+    public int getArtifactQueueSize() {
+        return Integer.parseInt(properties.getProperty("artifacts.queueSize", "32"));
+    }
+
     /**
      * Проверяет, нужно ли очищать контекст браузера после каждого теста.
      * Очистка включает cookies, localStorage, sessionStorage.
+     * Не требуется при context.scope=method, где каждый тест получает новый контекст.
      *
      * @return true если clearContext.afterTest=true, иначе false
      */
@@ -226,10 +563,24 @@ public class PlaywrightConfig {
     /**
      * Проверяет, включена ли запись видео в конфигурации.
      *
-     * @return true если recordVideo=true, иначе false
+     * @return true если video.mode не off (или recordVideo=true, если video.mode не задан)
      */
     public boolean isRecordVideo() {
-        return Boolean.parseBoolean(properties.getProperty("recordVideo", "false"));
+        return getVideoMode() != VideoMode.OFF;
+    }
+
+    /**
+     * Получает режим записи видео.
+     * Если video.mode не задан, используется recordVideo.
+     *
+     * @return режим записи видео
+     */
+    public VideoMode getVideoMode() {
+        String mode = properties.getProperty("video.mode");
+        if (mode == null || mode.isBlank()) {
+            return Boolean.parseBoolean(properties.getProperty("recordVideo", "false")) ? VideoMode.ON : VideoMode.OFF;
+        }
+        return VideoMode.fromString(mode);
     }
 
     /**
@@ -350,6 +701,45 @@ public class PlaywrightConfig {
         return properties.getProperty("storageState.path", "");
     }
 
+    /**
+     * Проверяет, задана ли процедура входа по умолчанию для аннотации @LoggedInAs.
+     *
+     * @return true если задан параметр auth.loginRoutine
+     */
+    public boolean hasLoginRoutine() {
+        return properties.containsKey("auth.loginRoutine");
+    }
+
+    /**
+     * Получает имя класса процедуры входа по умолчанию.
+     *
+     * @return полное имя класса, реализующего LoginRoutine
+     */
+    public String getLoginRoutine() {
+        return properties.getProperty("auth.loginRoutine", "");
+    }
+
+    /**
+     * Получает путь к директории для сохраненных состояний авторизации.
+     * Состояния содержат cookies сессий, поэтому по умолчанию хранятся в target
+     * и не попадают в репозиторий.
+     *
+     * @return объект Path с путем к директории состояний
+     */
+    public Path getAuthStateDir() {
+        return Paths.get(properties.getProperty("auth.stateDir", "target/auth-states"));
+    }
+
+    /**
+     * Получает время, в течение которого сохраненное состояние авторизации
+     * используется без повторного входа.
+     *
+     * @return время жизни состояния в секундах
+     */
+    public long getAuthStateTtlSeconds() {
+        return Long.parseLong(properties.getProperty("auth.stateTtlSeconds", "1800"));
+    }
+
     /**
      * Проверяет, задана ли цветовая схема в конфигурации.
      *
@@ -418,4 +808,17 @@ public class PlaywrightConfig {
     public void setProperty(String key, String value) {
         properties.setProperty(key, value);
     }
-}
\ No newline at end of file
+
+    /**
+     * Разбивает список значений, перечисленных через запятую.
+     *
+     * @param value строка со значениями
+     * @return значения без пробелов в нижнем регистре
+     */
+    private static List<String> splitList(String value) {
+        return Arrays.stream(value.split(","))
+                .map(item -> item.trim().toLowerCase())
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+}
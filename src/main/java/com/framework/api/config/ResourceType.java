@@ -0,0 +1,34 @@
+package com.framework.api.config;
+
+import java.util.Locale;
+
+/**
+ * Тип ресурса страницы в терминах Playwright ({@code Request.resourceType()}).
+ * <p>
+ * Используется в {@link com.framework.api.annotations.BlockResources} и параметре
+ * network.block.resources для отключения загрузки ресурсов, не нужных тесту.
+ */
+public enum ResourceType {
+    DOCUMENT,
+    STYLESHEET,
+    IMAGE,
+    MEDIA,
+    FONT,
+    SCRIPT,
+    TEXTTRACK,
+    XHR,
+    FETCH,
+    EVENTSOURCE,
+    WEBSOCKET,
+    MANIFEST,
+    OTHER;
+
+    /**
+     * Получает имя типа ресурса, которое возвращает {@code Request.resourceType()}.
+     *
+     * @return имя типа в нижнем регистре
+     */
+    public String playwrightName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
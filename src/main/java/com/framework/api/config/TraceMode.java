@@ -0,0 +1,70 @@
+package com.framework.api.config;
+
+/**
+ * Режим записи трассировки Playwright.
+ * <p>
+ * Задается параметром {@code trace.mode} в файле playwright.properties.
+ * Если параметр не задан, режим определяется прежним параметром trace.onFailure:
+ * true соответствует retain-on-failure, false - off.
+ * <p>
+ * Поддерживаемые значения:
+ * - off - трассировка не записывается
+ * - on - трассировка каждого теста сохраняется на диск
+ * - retain-on-failure - сохраняется только трассировка упавшего теста
+ * <p>
+ * Трассировка пишется отдельным фрагментом (chunk) для каждого теста, поэтому
+ * файл содержит только действия одного теста, а фрагменты прошедших тестов
+ * в режиме retain-on-failure отбрасываются без записи на диск.
+ * <p>
+ * Пример использования:
+ * ```
+ * trace.mode=retain-on-failure
+ * ```
+ */
+public enum TraceMode {
+    /**
+     * Трассировка не записывается.
+     */
+    OFF,
+
+    /**
+     * Трассировка сохраняется для каждого теста.
+     */
+    ON,
+
+    /**
+     * Трассировка сохраняется только для упавших тестов.
+     */
+    RETAIN_ON_FAILURE;
+
+    /**
+     * Преобразует строковое значение из конфигурации в режим трассировки.
+     * Пустое значение трактуется как {@link #RETAIN_ON_FAILURE}.
+     *
+     * @param value строковое значение (off, on, retain-on-failure)
+     * @return режим трассировки
+     * @throws IllegalArgumentException если значение не является допустимым режимом
+     */
+    public static TraceMode fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return RETAIN_ON_FAILURE;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "off" -> OFF;
+            case "on" -> ON;
+            case "retain-on-failure" -> RETAIN_ON_FAILURE;
+            default -> throw new IllegalArgumentException("Неизвестное значение trace.mode: '" + value +
+                    "'. Допустимые значения: off, on, retain-on-failure");
+        };
+    }
+
+    /**
+     * Проверяет, нужно ли сохранить трассировку теста.
+     *
+     * @param failed true, если тест не прошел
+     * @return true, если фрагмент трассировки нужно записать на диск
+     */
+    public boolean shouldRetain(boolean failed) {
+        return this == ON || (this == RETAIN_ON_FAILURE && failed);
+    }
+}
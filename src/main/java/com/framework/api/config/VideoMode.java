@@ -0,0 +1,73 @@
+package com.framework.api.config;
+
+/**
+ * Режим записи видео.
+ * <p>
+ * Задается параметром {@code video.mode} в файле playwright.properties.
+ * Если параметр не задан, режим определяется прежним параметром recordVideo:
+ * true соответствует on, false - off.
+ * <p>
+ * Поддерживаемые значения:
+ * - off - видео не записывается
+ * - on - видео всех тестов сохраняется в video.dir
+ * - retain-on-failure - видео сохраняется, только если тест не прошел;
+ * остальные файлы удаляются сразу после закрытия контекста
+ * <p>
+ * Видео пишется на весь BrowserContext, поэтому при context.scope=method каждый тест
+ * получает собственное видео, а при context.scope=class видео класса сохраняется,
+ * если не прошел хотя бы один его тест. Контекст, созданный для теста реестром потока
+ * (parallel="methods"), закрывается после теста, и его видео обрабатывается так же.
+ * <p>
+ * Пример использования:
+ * ```
+ * context.scope=method
+ * video.mode=retain-on-failure
+ * ```
+ */
+public enum VideoMode {
+    /**
+     * Видео не записывается.
+     */
+    OFF,
+
+    /**
+     * Видео сохраняется для всех тестов.
+     */
+    ON,
+
+    /**
+     * Видео сохраняется только для упавших тестов.
+     */
+    RETAIN_ON_FAILURE;
+
+    /**
+     * Преобразует строковое значение из конфигурации в режим записи видео.
+     * Пустое значение трактуется как {@link #OFF}.
+     *
+     * @param value строковое значение (off, on, retain-on-failure)
+     * @return режим записи видео
+     * @throws IllegalArgumentException если значение не является допустимым режимом
+     */
+    public static VideoMode fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return OFF;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "off" -> OFF;
+            case "on" -> ON;
+            case "retain-on-failure" -> RETAIN_ON_FAILURE;
+            default -> throw new IllegalArgumentException("Неизвестное значение video.mode: '" + value +
+                    "'. Допустимые значения: off, on, retain-on-failure");
+        };
+    }
+
+    /**
+     * Проверяет, нужно ли сохранить записанное видео.
+     *
+     * @param failed true, если не прошел хотя бы один тест, попавший в видео
+     * @return true, если файл видео нужно оставить
+     */
+    public boolean shouldRetain(boolean failed) {
+        return this == ON || (this == RETAIN_ON_FAILURE && failed);
+    }
+}
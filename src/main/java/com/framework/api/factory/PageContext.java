@@ -0,0 +1,134 @@
+package com.framework.api.factory;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+
+/**
+ * Объекты, доступные фабрике страниц при создании объекта страницы для одного параметра теста.
+ * <p>
+ * Передается в {@link PageFactory#createPage(Class, PageContext)} вместе с типом
+ * создаваемой страницы, поэтому фабрике не нужно заново разбирать параметры метода,
+ * чтобы понять, какой объект от неё ожидают.
+ * <p>
+ * Пример использования в пользовательской фабрике:
+ * ```
+ * @Override
+ * public Object createPage(Class<?> type, PageContext ctx) {
+ * if (type == LoginPage.class) {
+ * ctx.getPage().navigate("https://example.com/login");
+ * }
+ * return defaultFactory.createPage(type, ctx);
+ * }
+ * ```
+ */
+public final class PageContext {
+    private final Playwright playwright;
+    private final Browser browser;
+    private final BrowserContext browserContext;
+    private final Page page;
+    private final Class<?> testClass;
+    private final Method testMethod;
+    private final Parameter parameter;
+    private final String baseUrl;
+
+    /**
+     * Создает контекст создания страницы.
+     *
+     * @param playwright     экземпляр Playwright
+     * @param browser        экземпляр Browser
+     * @param browserContext экземпляр BrowserContext
+     * @param page           экземпляр Page
+     * @param testClass      класс теста
+     * @param testMethod     метод теста
+     * @param parameter      параметр метода, для которого создается страница, или null
+     */
+    public PageContext(Playwright playwright, Browser browser, BrowserContext browserContext, Page page,
+                       Class<?> testClass, Method testMethod, Parameter parameter) {
+        this(playwright, browser, browserContext, page, testClass, testMethod, parameter, null);
+    }
+
+    /**
+     * Создает контекст создания страницы с адресом сайта, который передается объекту страницы.
+     *
+     * @param playwright     экземпляр Playwright
+     * @param browser        экземпляр Browser
+     * @param browserContext экземпляр BrowserContext
+     * @param page           экземпляр Page
+     * @param testClass      класс теста
+     * @param testMethod     метод теста
+     * @param parameter      параметр метода, для которого создается страница, или null
+     * @param baseUrl        адрес сайта (например, mock-сервера из @MockServer) или null
+     */
+    public PageContext(Playwright playwright, Browser browser, BrowserContext browserContext, Page page,
+                       Class<?> testClass, Method testMethod, Parameter parameter, String baseUrl) {
+        this.playwright = playwright;
+        this.browser = browser;
+        this.browserContext = browserContext;
+        this.page = page;
+        this.testClass = testClass;
+        this.testMethod = testMethod;
+        this.parameter = parameter;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * @return экземпляр Playwright
+     */
+    public Playwright getPlaywright() {
+        return playwright;
+    }
+
+    /**
+     * @return экземпляр Browser
+     */
+    public Browser getBrowser() {
+        return browser;
+    }
+
+    /**
+     * @return экземпляр BrowserContext
+     */
+    public BrowserContext getBrowserContext() {
+        return browserContext;
+    }
+
+    /**
+     * @return экземпляр Page
+     */
+    public Page getPage() {
+        return page;
+    }
+
+    /**
+     * @return класс теста
+     */
+    public Class<?> getTestClass() {
+        return testClass;
+    }
+
+    /**
+     * @return метод теста
+     */
+    public Method getTestMethod() {
+        return testMethod;
+    }
+
+    /**
+     * @return параметр метода, для которого создается страница, или null
+     */
+    public Parameter getParameter() {
+        return parameter;
+    }
+
+    /**
+     * @return адрес сайта для объекта страницы или null, если используется адрес страницы по умолчанию
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+}
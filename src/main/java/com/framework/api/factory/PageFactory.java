@@ -13,6 +13,8 @@ import java.lang.reflect.Method;
  * <p>
  * Каждая реализация PageFactory определяет свою логику создания страниц,
  * что позволяет настраивать процесс создания под конкретные нужды.
+ * Новым фабрикам достаточно переопределить {@link #createPage(Class, PageContext)}
+ * и {@link #canCreate(Class)}.
  * <p>
  * Пример использования:
  * ```
@@ -39,6 +41,24 @@ public interface PageFactory {
     Object createPage(Playwright playwright, Browser browser, BrowserContext context,
                       Page page, Class<?> testClass, Method testMethod);
 
+    /**
+     * Создает экземпляр страницы указанного типа для одного параметра теста.
+     * <p>
+     * Фреймворк вызывает этот метод для каждого параметра, который фабрика может создать,
+     * поэтому метод с параметрами (HomePage, GooglePage) получает объекты обоих типов.
+     * Реализация по умолчанию вызывает {@link #createPage(Playwright, Browser, BrowserContext, Page, Class, Method)}
+     * для совместимости с существующими фабриками и проверяет тип результата.
+     *
+     * @param type тип создаваемой страницы
+     * @param ctx  объекты Playwright и сведения о тесте
+     * @return Объект страницы или null, если не может быть создан
+     */
+    default Object createPage(Class<?> type, PageContext ctx) {
+        Object pageObject = createPage(ctx.getPlaywright(), ctx.getBrowser(), ctx.getBrowserContext(),
+                ctx.getPage(), ctx.getTestClass(), ctx.getTestMethod());
+        return type.isInstance(pageObject) ? pageObject : null;
+    }
+
     /**
      * Определяет, может ли фабрика создать страницу указанного типа.
      *
@@ -1,11 +1,10 @@
 package com.framework.api.listeners;
 
+import com.framework.internal.reporting.ArtifactPipeline;
 import io.qameta.allure.Allure;
 import io.qameta.allure.Attachment;
 import io.qameta.allure.Step;
 
-import java.io.ByteArrayInputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
@@ -13,7 +12,8 @@ import java.nio.file.Path;
  * <p>
  * Предоставляет методы для добавления скриншотов, трассировок и HTML-контента
  * в отчеты Allure. Это позволяет улучшить визуализацию результатов тестов и
- * упростить анализ ошибок.
+ * упростить анализ ошибок. Файлы читаются и записываются в отчет в фоне
+ * через {@link ArtifactPipeline}, не задерживая поток теста.
  * <p>
  * Allure - это популярный фреймворк для генерации наглядных отчетов о тестировании,
  * который поддерживает добавление различных вложений (скриншоты, логи, HTML и т.д.).
@@ -44,12 +44,7 @@ public class AllureAttachmentHelper {
      */
     @Step("Прикрепление скриншота: {name}")
     public static void attachScreenshot(Path path, String name) {
-        try {
-            byte[] bytes = Files.readAllBytes(path);
-            Allure.addAttachment(name, "image/png", new ByteArrayInputStream(bytes), ".png");
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        ArtifactPipeline.attachFile(name, "image/png", "png", path);
     }
 
     /**
@@ -60,12 +55,7 @@ public class AllureAttachmentHelper {
      */
     @Step("Прикрепление трассировки: {name}")
     public static void attachTrace(Path path, String name) {
-        try {
-            byte[] bytes = Files.readAllBytes(path);
-            Allure.addAttachment(name, "application/zip", new ByteArrayInputStream(bytes), ".zip");
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        ArtifactPipeline.attachFile(name, "application/zip", "zip", path);
     }
 
     /**
@@ -101,12 +91,7 @@ public class AllureAttachmentHelper {
      */
     @Step("Прикрепление CSV: {name}")
     public static void attachCsv(Path path, String name) {
-        try {
-            byte[] bytes = Files.readAllBytes(path);
-            Allure.addAttachment(name, "text/csv", new ByteArrayInputStream(bytes), ".csv");
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        ArtifactPipeline.attachFile(name, "text/csv", "csv", path);
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.framework.api.listeners;
 
 import com.framework.internal.logging.TestLogger;
+import com.framework.internal.reporting.ArtifactPipeline;
 import com.microsoft.playwright.Page;
 import io.qameta.allure.Allure;
 import io.qameta.allure.Attachment;
@@ -8,7 +9,6 @@ import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
-import java.io.ByteArrayInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -18,7 +18,7 @@ import java.nio.file.Paths;
  * <p>
  * Отвечает за добавление в отчет Allure информации о:
  * - Выполнении тестов (старт/успех/неудача/пропуск)
- * - Прикрепление скриншотов при неудаче
+ * - Прикрепление скриншотов при неудаче, если их не прикрепил PlaywrightBaseTest
  * - Прикрепление трассировок и логов
  * - Добавление дополнительных меток и параметров
  * <p>
@@ -92,11 +92,11 @@ public class AllureTestListener implements ITestListener {
         TestLogger.LOGGER.info("Тест не пройден: {}", result.getName());
         TestLogger.LOGGER.info("Причина: {}", result.getThrowable().getMessage());
 
-        // Прикрепляем скриншот, если он был сделан
-        attachScreenshotFromResult(result);
-
-        // Прикрепляем трассировку, если она была создана
-        attachTraceFromResult(result);
+        // Скриншот и трассировку прикрепляем, только если их еще не прикрепил PlaywrightBaseTest
+        if (result.getAttribute(ArtifactPipeline.ATTACHED_ATTRIBUTE) == null) {
+            attachScreenshotFromResult(result);
+            attachTraceFromResult(result);
+        }
 
         // Прикрепляем стек-трейс ошибки
         Allure.addAttachment("stack-trace.txt", "text/plain", result.getThrowable().toString());
@@ -129,9 +129,7 @@ public class AllureTestListener implements ITestListener {
             try {
                 Path screenshotPath = Paths.get(screenshotAttribute);
                 if (Files.exists(screenshotPath)) {
-                    byte[] screenshotBytes = Files.readAllBytes(screenshotPath);
-                    Allure.addAttachment("screenshot.png", "image/png",
-                            new ByteArrayInputStream(screenshotBytes), "png");
+                    ArtifactPipeline.attachFile("screenshot.png", "image/png", "png", screenshotPath);
                     TestLogger.LOGGER.info("Скриншот прикреплен к отчету Allure: {}", screenshotPath);
                 }
             } catch (Exception e) {
@@ -152,9 +150,7 @@ public class AllureTestListener implements ITestListener {
             try {
                 Path tracePath = Paths.get(traceAttribute);
                 if (Files.exists(tracePath)) {
-                    byte[] traceBytes = Files.readAllBytes(tracePath);
-                    Allure.addAttachment("trace.zip", "application/zip",
-                            new ByteArrayInputStream(traceBytes), "zip");
+                    ArtifactPipeline.attachFile("trace.zip", "application/zip", "zip", tracePath);
                     TestLogger.LOGGER.info("Трассировка прикреплена к отчету Allure: {}", tracePath);
                 }
             } catch (Exception e) {
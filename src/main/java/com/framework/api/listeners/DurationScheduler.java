@@ -0,0 +1,371 @@
+package com.framework.api.listeners;
+
+import com.framework.api.config.PlaywrightConfig;
+import com.framework.extentions.history.TestHistory;
+import com.framework.internal.logging.TestLogger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Перехватчик TestNG, упорядочивающий тесты по длительности из истории запусков
+ * и разбивающий набор на части для запуска на нескольких машинах.
+ * <p>
+ * При параллельном запуске самый длинный класс, оказавшийся в конце очереди,
+ * растягивает весь прогон. Перехватчик ставит вперед самые длинные блоки
+ * (правило LPT - longest processing time first), поэтому свободные потоки
+ * в конце прогона заполняются короткими тестами.
+ * <p>
+ * Особенности:
+ * - Длительности берутся из {@link TestHistory}; для тестов без истории
+ * используется средняя длительность известных тестов
+ * - При parallel="methods" блоком является метод, в остальных режимах - класс
+ * - Блоки, связанные через dependsOnMethods или dependsOnGroups, объединяются
+ * и остаются рядом; порядок методов внутри блока не меняется
+ * - В журнал выводится оценка времени прогона по числу потоков
+ * <p>
+ * Разбиение на части включается параметрами shard.index (с 0) и shard.total,
+ * например {@code -Dshard.index=1 -Dshard.total=4}; класс целиком попадает в одну часть.
+ * Единицей разбиения выбран класс: BrowserContext и Page живут не дольше тестового
+ * класса, поэтому состояние браузера разделяют только тесты одного класса (и блоки,
+ * связанные зависимостями). Между классами общим остается лишь состояние авторизации
+ * по роли (@LoggedInAs), которое каждая машина кэширует сама; объединение классов
+ * по ролям или по @UsePage не сокращает работу, но нарушило бы баланс частей.
+ * Каждая машина выбирает свою часть сама, поэтому разбиение зависит только от общих
+ * для всех машин данных:
+ * - Если задан shard.historyFile (одна и та же копия истории на всех машинах,
+ * например из кэша CI), части выравниваются по суммарной длительности
+ * - Иначе часть класса определяется хэшем его имени; локальная история
+ * (history.file) для разбиения не используется
+ * <p>
+ * В журнал выводится контрольная сумма всего разбиения: на всех машинах
+ * одного прогона она должна совпадать.
+ * <p>
+ * Перехватчик подключается в pom.xml: в параметрах maven-surefire-plugin и в профиле virtual-threads.
+ * Повторная регистрация не приводит к повторному разбиению: набор обрабатывается
+ * только первым вызовом для каждого теста из testng.xml.
+ */
+public class DurationScheduler implements IMethodInterceptor {
+
+    /**
+     * Длительность теста, если в истории нет ни одного теста.
+     */
+    private static final long DEFAULT_DURATION = 1000;
+
+    /**
+     * Атрибут контекста, отмечающий уже обработанный тест из testng.xml.
+     */
+    private static final String INTERCEPTED = DurationScheduler.class.getName() + ".intercepted";
+
+    /**
+     * Блок методов, которые выполняются вместе.
+     */
+    private static final class Unit {
+        private final List<IMethodInstance> methods = new ArrayList<>();
+        private final int order;
+        private long duration;
+        private Unit parent = this;
+
+        private Unit(int order) {
+            this.order = order;
+        }
+
+        private Unit root() {
+            Unit unit = this;
+            while (unit.parent != unit) {
+                unit.parent = unit.parent.parent;
+                unit = unit.parent;
+            }
+            return unit;
+        }
+    }
+
+    /**
+     * Выбирает методы текущей части набора и упорядочивает их так,
+     * чтобы самые длинные блоки запускались первыми.
+     *
+     * @param methods методы в порядке объявления
+     * @param context контекст выполнения тестов
+     * @return методы в новом порядке
+     */
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        // TestNG не убирает повторно зарегистрированные перехватчики и вызывает каждый из них
+        if (context.getAttribute(INTERCEPTED) != null) {
+            return methods;
+        }
+        context.setAttribute(INTERCEPTED, Boolean.TRUE);
+
+        PlaywrightConfig config = PlaywrightConfig.getInstance();
+        int shardTotal = config.getShardTotal();
+        int shardIndex = config.getShardIndex();
+        if (shardTotal > 1) {
+            if (shardIndex < 0 || shardIndex >= shardTotal) {
+                throw new IllegalArgumentException("shard.index должен быть от 0 до " + (shardTotal - 1)
+                        + ", получено: " + shardIndex);
+            }
+            // Локальная история на каждой машине своя, поэтому для разбиения берется только общая
+            Path sharedFile = config.getShardHistoryFile();
+            Map<String, TestHistory.Stats> shared = sharedFile != null ? TestHistory.read(sharedFile) : Map.of();
+            if (sharedFile != null && shared.isEmpty()) {
+                TestLogger.LOGGER.warn("Общая история {} пуста или не найдена, части выбираются по хэшу имени класса",
+                        sharedFile);
+            }
+            methods = selectShard(context.getName(), methods, shared, fallbackDuration(shared),
+                    shardIndex, shardTotal);
+        }
+
+        Map<String, TestHistory.Stats> history = TestHistory.getAllStats();
+        if (methods.size() < 2 || history.isEmpty()) {
+            return methods;
+        }
+        XmlTest xmlTest = context.getCurrentXmlTest();
+        boolean perMethod = xmlTest.getParallel() == XmlSuite.ParallelMode.METHODS;
+        int threads = xmlTest.getParallel().isParallel() ? Math.max(1, xmlTest.getThreadCount()) : 1;
+        return orderByDuration(context.getName(), methods, history, fallbackDuration(history), perMethod, threads);
+    }
+
+    /**
+     * Вычисляет длительность для тестов без истории: среднюю длительность известных тестов.
+     *
+     * @param history сводки истории
+     * @return длительность в миллисекундах
+     */
+    static long fallbackDuration(Map<String, TestHistory.Stats> history) {
+        return (long) history.values().stream()
+                .mapToLong(TestHistory.Stats::averageDuration)
+                .filter(duration -> duration > 0)
+                .average()
+                .orElse(DEFAULT_DURATION);
+    }
+
+    /**
+     * Упорядочивает блоки методов по убыванию длительности (правило LPT).
+     * Блоки одинаковой длительности остаются в порядке объявления.
+     *
+     * @param testName  имя теста из testng.xml для журнала
+     * @param methods   методы в порядке объявления
+     * @param history   сводки истории
+     * @param fallback  длительность для методов без истории
+     * @param perMethod true - блок на каждый метод, false - на каждый класс
+     * @param threads   число потоков для оценки времени прогона
+     * @return методы в порядке запуска
+     */
+    static List<IMethodInstance> orderByDuration(String testName, List<IMethodInstance> methods,
+                                                 Map<String, TestHistory.Stats> history, long fallback,
+                                                 boolean perMethod, int threads) {
+        List<List<Unit>> blocks = longestFirst(buildBlocks(methods, history, fallback, perMethod));
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        long[] durations = new long[blocks.size()];
+        for (int i = 0; i < blocks.size(); i++) {
+            for (Unit unit : blocks.get(i)) {
+                ordered.addAll(unit.methods);
+            }
+            durations[i] = durationOf(blocks.get(i));
+        }
+
+        TestLogger.LOGGER.info("Тесты {} упорядочены по длительности: блоков {}, потоков {}, оценка времени {} мс",
+                testName, blocks.size(), threads, estimateMakespan(durations, threads));
+        return ordered;
+    }
+
+    /**
+     * Выбирает методы одной части набора.
+     * <p>
+     * С историей блоки (класс вместе со связанными зависимостями) распределяются
+     * по частям правилом LPT: самый длинный блок достается наименее загруженной части.
+     * Без истории часть блока определяется хэшем имени его первого класса.
+     * В обоих случаях распределение зависит только от порядка объявления и переданной
+     * истории, поэтому на всех машинах с одинаковыми входными данными получается
+     * одно и то же разбиение. Класс целиком попадает в одну часть, поэтому его тесты
+     * используют общий браузер и контекст; классы не группируются по общему состоянию
+     * браузера, так как контекст не переживает класс (см. описание класса).
+     *
+     * @param testName   имя теста из testng.xml для журнала
+     * @param methods    методы в порядке объявления
+     * @param history    общая для всех частей история; пустая - разбиение по хэшу
+     * @param fallback   длительность для методов без истории
+     * @param shardIndex номер текущей части, начиная с 0
+     * @param shardTotal число частей
+     * @return методы текущей части в порядке объявления
+     */
+    static List<IMethodInstance> selectShard(String testName, List<IMethodInstance> methods,
+                                             Map<String, TestHistory.Stats> history, long fallback,
+                                             int shardIndex, int shardTotal) {
+        boolean byDuration = !history.isEmpty();
+        List<List<Unit>> blocks = buildBlocks(methods, history, fallback, false);
+        if (byDuration) {
+            longestFirst(blocks);
+        }
+
+        long[] loads = new long[shardTotal];
+        CRC32 digest = new CRC32();
+        List<Unit> selected = new ArrayList<>();
+        for (List<Unit> block : blocks) {
+            String name = block.get(0).methods.get(0).getMethod().getRealClass().getName();
+            int target = 0;
+            if (byDuration) {
+                for (int i = 1; i < shardTotal; i++) {
+                    if (loads[i] < loads[target]) {
+                        target = i;
+                    }
+                }
+            } else {
+                target = Math.floorMod(name.hashCode(), shardTotal);
+            }
+            loads[target] += durationOf(block);
+            digest.update((name + "=" + target + "\n").getBytes(StandardCharsets.UTF_8));
+            if (target == shardIndex) {
+                selected.addAll(block);
+            }
+        }
+        selected.sort(Comparator.comparingInt(unit -> unit.order));
+
+        List<IMethodInstance> result = new ArrayList<>();
+        for (Unit unit : selected) {
+            result.addAll(unit.methods);
+        }
+        TestLogger.LOGGER.info("Тесты {}: часть {} из {} ({}), методов {}, контрольная сумма разбиения {}",
+                testName, shardIndex + 1, shardTotal, byDuration ? "по длительности" : "по хэшу имени класса",
+                result.size(), Long.toHexString(digest.getValue()));
+        return result;
+    }
+
+    /**
+     * Разбивает методы на блоки и объединяет блоки, связанные зависимостями.
+     *
+     * @param methods   методы в порядке объявления
+     * @param history   сводки истории
+     * @param fallback  длительность для методов без истории
+     * @param perMethod true - блок на каждый метод, false - на каждый класс
+     * @return объединенные блоки в порядке объявления
+     */
+    private static List<List<Unit>> buildBlocks(List<IMethodInstance> methods, Map<String, TestHistory.Stats> history,
+                                                long fallback, boolean perMethod) {
+        // Разбиваем методы на блоки: по методу или по классу
+        Map<Object, Unit> units = new LinkedHashMap<>();
+        Map<String, Unit> byMethodName = new HashMap<>();
+        Map<String, List<Unit>> byGroup = new HashMap<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            Object key = perMethod ? instance : method.getRealClass();
+            Unit unit = units.computeIfAbsent(key, k -> new Unit(units.size()));
+            unit.methods.add(instance);
+            unit.duration += expectedDuration(method, history, fallback);
+            byMethodName.put(method.getQualifiedName(), unit);
+            for (String group : method.getGroups()) {
+                byGroup.computeIfAbsent(group, g -> new ArrayList<>()).add(unit);
+            }
+        }
+
+        // Объединяем блоки, связанные зависимостями
+        for (Unit unit : units.values()) {
+            for (IMethodInstance instance : unit.methods) {
+                ITestNGMethod method = instance.getMethod();
+                for (String dependency : method.getMethodsDependedUpon()) {
+                    union(unit, byMethodName.get(dependency));
+                }
+                for (String group : method.getGroupsDependedUpon()) {
+                    for (Unit dependency : byGroup.getOrDefault(group, List.of())) {
+                        union(unit, dependency);
+                    }
+                }
+            }
+        }
+        Map<Unit, List<Unit>> merged = new LinkedHashMap<>();
+        for (Unit unit : units.values()) {
+            merged.computeIfAbsent(unit.root(), root -> new ArrayList<>()).add(unit);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Оценивает ожидаемую длительность метода по истории.
+     *
+     * @param method   метод TestNG
+     * @param history  сводки истории
+     * @param fallback длительность для методов без истории
+     * @return ожидаемая длительность в миллисекундах
+     */
+    private static long expectedDuration(ITestNGMethod method, Map<String, TestHistory.Stats> history,
+                                         long fallback) {
+        TestHistory.Stats stats = history.get(TestHistory.idOf(method));
+        long duration = stats != null && stats.averageDuration() > 0 ? stats.averageDuration() : fallback;
+        return duration * Math.max(1, method.getInvocationCount());
+    }
+
+    /**
+     * Объединяет два блока в один.
+     *
+     * @param first  первый блок
+     * @param second второй блок или null
+     */
+    private static void union(Unit first, Unit second) {
+        if (second == null) {
+            return;
+        }
+        Unit firstRoot = first.root();
+        Unit secondRoot = second.root();
+        if (firstRoot != secondRoot) {
+            // Корнем остается блок, объявленный раньше
+            if (firstRoot.order < secondRoot.order) {
+                secondRoot.parent = firstRoot;
+            } else {
+                firstRoot.parent = secondRoot;
+            }
+        }
+    }
+
+    /**
+     * Сортирует блоки по убыванию длительности, при равенстве - по порядку объявления.
+     *
+     * @param blocks объединенные блоки
+     * @return те же блоки после сортировки
+     */
+    private static List<List<Unit>> longestFirst(List<List<Unit>> blocks) {
+        blocks.sort(Comparator.comparingLong(DurationScheduler::durationOf).reversed()
+                .thenComparingInt(block -> block.get(0).order));
+        return blocks;
+    }
+
+    /**
+     * @param block объединенные блоки
+     * @return суммарная длительность блоков
+     */
+    private static long durationOf(List<Unit> block) {
+        return block.stream().mapToLong(unit -> unit.duration).sum();
+    }
+
+    /**
+     * Оценивает время прогона: каждый следующий блок достается наименее загруженному потоку.
+     *
+     * @param durations длительности блоков в порядке запуска
+     * @param threads   число потоков
+     * @return оценка времени прогона в миллисекундах
+     */
+    static long estimateMakespan(long[] durations, int threads) {
+        PriorityQueue<Long> loads = new PriorityQueue<>();
+        for (int i = 0; i < threads; i++) {
+            loads.add(0L);
+        }
+        for (long duration : durations) {
+            loads.add(loads.poll() + duration);
+        }
+        return loads.stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+}
@@ -0,0 +1,160 @@
+package com.framework.api.listeners;
+
+import com.framework.api.config.PlaywrightConfig;
+import com.framework.extentions.data.DataCache;
+import com.framework.extentions.data.DataManager;
+import com.framework.extentions.history.TestHistory;
+import com.framework.extentions.mock.MockHttpServer;
+import com.framework.extentions.retry.RetryBudget;
+import com.framework.internal.browser.BrowserSessionManager;
+import com.framework.internal.logging.TestLogger;
+import com.framework.internal.network.NetworkRouter;
+import com.framework.internal.network.RouteCache;
+import com.framework.internal.reporting.ArtifactPipeline;
+import com.framework.tools.pooling.PlaywrightBrowserPool;
+import com.framework.tools.pooling.VirtualThreadExecutorFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.time.Duration;
+
+/**
+ * Слушатель TestNG, управляющий ресурсами Playwright на уровне набора тестов.
+ * <p>
+ * Браузеры в режимах {@code browser.scope=worker} и {@code browser.scope=suite}
+ * живут дольше одного тестового класса, поэтому закрываются здесь,
+ * после завершения всего набора тестов. Перед запуском набора слушатель
+ * ограничивает размер пула браузеров числом потоков TestNG, если
+ * browser.pool.maxSize не задан явно.
+ * <p>
+ * Также слушатель записывает итог каждой попытки теста в {@link TestHistory}.
+ * <p>
+ * Пример регистрации в testng.xml:
+ * ```xml
+ * <listeners>
+ * <listener class-name="com.framework.api.listeners.PlaywrightLifecycleListener"/>
+ * </listeners>
+ * ```
+ */
+public class PlaywrightLifecycleListener implements ISuiteListener, ITestListener {
+
+    /**
+     * Вызывается перед запуском набора тестов.
+     * Устанавливает размер пула браузеров по умолчанию равным числу потоков
+     * (в виртуальных потоках - не больше числа процессоров).
+     * Предупреждает, если виртуальные потоки включены, но тесты будут выполняться в обычных.
+     *
+     * @param suite набор тестов
+     */
+    @Override
+    public void onStart(ISuite suite) {
+        int threads = getMaxThreadCount(suite.getXmlSuite());
+        TestLogger.LOGGER.debug("Старт набора тестов {}, потоков: {}", suite.getName(), threads);
+        if (PlaywrightConfig.getInstance().isVirtualThreads()) {
+            if (!VirtualThreadExecutorFactory.isInstalled()) {
+                TestLogger.LOGGER.warn("executor.virtualThreads=true, но VirtualThreadExecutorFactory не подключена: "
+                        + "тесты выполняются в обычных потоках. Запускайте TestNG с -threadpoolfactoryclass "
+                        + "(mvn test -Pvirtual-threads)");
+            } else if (threads == 1) {
+                TestLogger.LOGGER.warn("executor.virtualThreads=true, но набор {} не параллельный: "
+                        + "тесты выполняются в основном потоке", suite.getName());
+            }
+        }
+        // В виртуальных потоках thread-count может быть больше числа браузеров, которое выдержит машина
+        PlaywrightBrowserPool.setDefaultMaxSize(PlaywrightConfig.getInstance().isVirtualThreads()
+                ? Math.min(threads, Runtime.getRuntime().availableProcessors()) : threads);
+        TestLogger.LOGGER.debug("Тестов в истории запусков: {}", TestHistory.getAllStats().size());
+    }
+
+    /**
+     * Записывает в историю успешное выполнение теста.
+     *
+     * @param result результат выполнения теста
+     */
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        TestHistory.record(result, TestHistory.Status.PASS);
+    }
+
+    /**
+     * Записывает в историю неудачное выполнение теста.
+     *
+     * @param result результат выполнения теста
+     */
+    @Override
+    public void onTestFailure(ITestResult result) {
+        TestHistory.record(result, TestHistory.Status.FAIL);
+    }
+
+    /**
+     * Записывает в историю пропуск теста или попытку, после которой тест будет повторен.
+     *
+     * @param result результат выполнения теста
+     */
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        TestHistory.record(result, result.wasRetried() ? TestHistory.Status.RETRY : TestHistory.Status.SKIP);
+    }
+
+    /**
+     * Вызывается после завершения набора тестов.
+     * Закрывает все браузеры, переиспользуемые между тестовыми классами,
+     * и ждет записи артефактов упавших тестов.
+     *
+     * @param suite набор тестов
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        TestLogger.LOGGER.info("Освобождение ресурсов Playwright набора тестов {}", suite.getName());
+        BrowserSessionManager.closeAll();
+
+        // Браузеры закрыты, mock-сервер больше не нужен
+        MockHttpServer.stop();
+
+        // Дожидаемся записи артефактов упавших тестов до формирования отчета
+        ArtifactPipeline.flush(Duration.ofMinutes(1));
+
+        if (RetryBudget.used() + RetryBudget.rejected() > 0) {
+            TestLogger.LOGGER.info("Повторных запусков: {}, отклонено из-за бюджета: {}",
+                    RetryBudget.used(), RetryBudget.rejected());
+        }
+
+        RouteCache.Stats routeStats = NetworkRouter.getCacheStats();
+        if (routeStats != null) {
+            TestLogger.LOGGER.info("Сетевой кэш: из кэша {}, из сети {} ({}%), ответов {}, {} КБ",
+                    routeStats.hits(), routeStats.misses(), Math.round(routeStats.hitRate() * 100),
+                    routeStats.size(), routeStats.bytes() / 1024);
+        }
+
+        if (NetworkRouter.getBlockedTotal() > 0) {
+            TestLogger.LOGGER.info("Блокировки ресурсов: прервано запросов {}", NetworkRouter.getBlockedTotal());
+        }
+
+        DataCache.Stats stats = DataManager.getCacheStats();
+        if (stats.hits() + stats.misses() > 0) {
+            TestLogger.LOGGER.info("Кэш тестовых данных: попаданий {}, промахов {} ({}%), вытеснено {}, устарело {}",
+                    stats.hits(), stats.misses(), Math.round(stats.hitRate() * 100),
+                    stats.evictions(), stats.invalidations());
+        }
+    }
+
+    /**
+     * Определяет максимальное число потоков, в которых будут выполняться тесты набора.
+     *
+     * @param xmlSuite описание набора тестов
+     * @return число потоков (1 для последовательного запуска)
+     */
+    private int getMaxThreadCount(XmlSuite xmlSuite) {
+        int threads = xmlSuite.getParallel().isParallel() ? xmlSuite.getThreadCount() : 1;
+        for (XmlTest xmlTest : xmlSuite.getTests()) {
+            if (xmlTest.getParallel().isParallel()) {
+                threads = Math.max(threads, xmlTest.getThreadCount());
+            }
+        }
+        return Math.max(1, threads);
+    }
+}
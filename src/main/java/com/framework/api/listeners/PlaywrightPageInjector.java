@@ -1,17 +1,18 @@
 package com.framework.api.listeners;
 
 import com.framework.api.annotations.UsePage;
-import com.framework.internal.browser.BrowserManager;
+import com.framework.api.pages.PageObject;
+import com.framework.api.testing.PlaywrightBaseTest;
+import com.framework.internal.browser.ThreadResourceRegistry;
 import com.framework.internal.factory.DefaultPageFactory;
+import com.framework.internal.factory.InjectionPlan;
 import com.framework.api.factory.PageFactory;
 import com.framework.internal.logging.TestLogger;
-import com.microsoft.playwright.Browser;
-import com.microsoft.playwright.BrowserContext;
 import com.microsoft.playwright.Page;
-import com.microsoft.playwright.Playwright;
 import org.testng.IHookCallBack;
 import org.testng.IHookable;
-import org.testng.ITestContext;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestResult;
 
 import java.lang.reflect.Method;
@@ -30,16 +31,28 @@ import java.util.concurrent.ConcurrentHashMap;
  * Для работы этого слушателя тестовый класс должен быть аннотирован
  * {@link UsePage} или отдельные методы должны иметь эту аннотацию.
  * <p>
+ * Объекты Playwright не потокобезопасны. Слушатель выполняется в том же потоке,
+ * что и тестовый метод, и заменяет объекты, созданные в другом потоке
+ * (например, в @BeforeClass при parallel="methods"), на объекты текущего потока
+ * из {@link ThreadResourceRegistry}. Значения, уже подходящие текущему потоку,
+ * и параметры данных (например, из @TestData) не изменяются.
+ * <p>
+ * Контекст, созданный реестром для теста класса без {@link PlaywrightBaseTest},
+ * закрывается сразу после теста в том же потоке; тесты PlaywrightBaseTest
+ * освобождают его в afterMethod. Как {@link ISuiteListener} слушатель закрывает
+ * оставшиеся сессии потоков в конце набора тестов, поэтому повторное использование
+ * потоков TestNG не приводит к утечке процессов браузера.
+ * <p>
  * Преимущества использования этого слушателя:
  * - Автоматическое внедрение зависимостей в тесты
  * - Уменьшение количества шаблонного кода
  * - Унификация доступа к объектам Playwright
- * - Поддержка многопоточного выполнения тестов
+ * - Безопасное параллельное выполнение на уровне классов и методов
  * <p>
  * Пример регистрации слушателя в testng.xml:
  * ```xml
  * <listeners>
- * <listener class-name="exp.listeners.PlaywrightPageInjector"/>
+ * <listener class-name="com.framework.api.listeners.PlaywrightPageInjector"/>
  * </listeners>
  * ```
  * <p>
@@ -53,14 +66,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * }
  * ```
  */
-public class PlaywrightPageInjector implements IHookable {
-    /**
-     * Ключи для хранения объектов Playwright в контексте теста.
-     */
-    private static final String PLAYWRIGHT_KEY = "playwright";
-    private static final String BROWSER_KEY = "browser";
-    private static final String CONTEXT_KEY = "browserContext";
-    private static final String PAGE_KEY = "page";
+public class PlaywrightPageInjector implements IHookable, ISuiteListener {
 
     /**
      * Потокобезопасный кэш для фабрик страниц.
@@ -68,18 +74,9 @@ public class PlaywrightPageInjector implements IHookable {
     private static final Map<Class<?>, PageFactory> pageFactories = new ConcurrentHashMap<>();
 
     /**
-     * Объекты Playwright, привязанные к текущему потоку выполнения.
-     * Используется ThreadLocal для обеспечения изоляции между потоками
-     * при параллельном выполнении тестов.
-     */
-    private final ThreadLocal<Playwright> playwrightThreadLocal = new ThreadLocal<>();
-    private final ThreadLocal<Browser> browserThreadLocal = new ThreadLocal<>();
-    private final ThreadLocal<BrowserContext> contextThreadLocal = new ThreadLocal<>();
-    private final ThreadLocal<Page> pageThreadLocal = new ThreadLocal<>();
-
-    /**
-     * Метод, вызываемый TestNG перед выполнением тестового метода.
-     * Внедряет объекты Playwright и Page Objects в тестовый метод.
+     * Метод, вызываемый TestNG вместо прямого вызова тестового метода.
+     * Внедряет объекты Playwright и Page Objects текущего потока в параметры
+     * тестового метода.
      *
      * @param callBack   обратный вызов для выполнения тестового метода
      * @param testResult результат выполнения теста
@@ -96,176 +93,181 @@ public class PlaywrightPageInjector implements IHookable {
             usePage = testClass.getAnnotation(UsePage.class);
         }
 
-        // Если аннотации нет, выполняем метод без изменений
-        if (usePage == null) {
-            TestLogger.LOGGER.debug("Аннотация UsePage не найдена для метода {}, выполняем без внедрения зависимостей",
+        // Без аннотации внедряются только объекты Playwright, Page Objects не создаются
+        PageFactory factory = null;
+        if (usePage != null) {
+            TestLogger.LOGGER.debug("Обнаружена аннотация UsePage для метода {}, подготавливаем внедрение зависимостей",
                     method.getName());
-            callBack.runTestMethod(testResult);
-            return;
+            factory = getPageFactory(usePage.value());
         }
 
-        TestLogger.LOGGER.debug("Обнаружена аннотация UsePage для метода {}, подготавливаем внедрение зависимостей",
-                method.getName());
-
-        // Получаем или создаем объекты Playwright
-        ITestContext context = testResult.getTestContext();
-        initPlaywrightObjects(context);
-
-        // Получаем фабрику страниц
-        Class<? extends PageFactory> factoryClass = usePage.value();
-        PageFactory factory = getPageFactory(factoryClass);
-
-        // Подготавливаем параметры для внедрения
-        Object[] paramValues = preparePageObjects(method, testResult, factory);
+        // Параметры, с которыми TestNG вызовет метод: изменения массива
+        // применяются к фактическому вызову
+        Object[] paramValues = callBack.getParameters();
+        preparePageObjects(method, testResult, factory, paramValues);
+        testResult.setParameters(paramValues);
 
-        // Устанавливаем параметры через рефлексию
+        TestLogger.LOGGER.debug("Запуск тестового метода с внедренными зависимостями");
         try {
-            // Сначала пробуем получить метод setParameters у ITestResult
-            try {
-                java.lang.reflect.Method setParamsMethod = ITestResult.class.getDeclaredMethod("setParameters", Object[].class);
-                setParamsMethod.setAccessible(true);
-                setParamsMethod.invoke(testResult, new Object[]{paramValues});
-                TestLogger.LOGGER.debug("Параметры успешно установлены через setParameters");
-            } catch (NoSuchMethodException e) {
-                // Если этот метод не найден, попробуем другой подход
-                TestLogger.LOGGER.debug("Метод setParameters не найден, пробуем альтернативный подход");
-                Object testNGInvocationInfo = testResult.getClass().getMethod("getTestNGInvocationInfo").invoke(testResult);
-                Method setParamsMethod = testNGInvocationInfo.getClass().getMethod("setParameterValues", Object[].class);
-                setParamsMethod.invoke(testNGInvocationInfo, new Object[]{paramValues});
-                TestLogger.LOGGER.debug("Параметры успешно установлены через TestNGInvocationInfo");
-            }
-
-            // Запускаем тестовый метод (теперь с правильными параметрами)
-            TestLogger.LOGGER.debug("Запуск тестового метода с внедренными зависимостями");
-            callBack.runTestMethod(testResult);
-        } catch (Exception e) {
-            TestLogger.LOGGER.error("Не удалось установить параметры для теста: {}", e.getMessage());
-            e.printStackTrace();
-            TestLogger.LOGGER.debug("Запускаем тестовый метод без внедрения зависимостей");
             callBack.runTestMethod(testResult);
+        } finally {
+            // Объекты Playwright закрываются только в потоке-владельце; PlaywrightBaseTest
+            // освобождает их в afterMethod, после скриншота при ошибке.
+            // Статус теста здесь еще не выставлен, ошибка теста доступна как throwable
+            if (!(testResult.getInstance() instanceof PlaywrightBaseTest)) {
+                ThreadResourceRegistry.current().releaseOwned(testResult.getThrowable() != null);
+            }
         }
     }
 
     /**
-     * Инициализирует объекты Playwright для текущего потока.
-     * Если объекты уже созданы, использует их повторно.
+     * Вызывается перед запуском набора тестов.
      *
-     * @param context контекст тестирования TestNG
+     * @param suite набор тестов
      */
-    private void initPlaywrightObjects(ITestContext context) {
-        // Используем ThreadLocal для изоляции объектов между потоками
-        Playwright playwright = playwrightThreadLocal.get();
-        if (playwright == null) {
-            TestLogger.LOGGER.debug("Инициализация объектов Playwright для текущего потока");
-
-            playwright = Playwright.create();
-            playwrightThreadLocal.set(playwright);
-
-            // Используем BrowserManager для создания браузера
-            Browser browser = BrowserManager.createBrowser(playwright);
-            browserThreadLocal.set(browser);
-
-            // Создаем контекст с настройками из конфигурации
-            BrowserContext browserContext = browser.newContext(BrowserManager.createContextOptions());
-            contextThreadLocal.set(browserContext);
-
-            Page page = browserContext.newPage();
-            pageThreadLocal.set(page);
+    @Override
+    public void onStart(ISuite suite) {
+        // Ресурсы создаются лениво при первом внедрении
+    }
 
-            TestLogger.LOGGER.debug("Объекты Playwright успешно инициализированы для текущего потока");
-        }
+    /**
+     * Вызывается после завершения набора тестов.
+     * Закрывает сессии браузера, оставшиеся за потоками.
+     *
+     * @param suite набор тестов
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        ThreadResourceRegistry.closeAll();
     }
 
     /**
-     * Подготавливает параметры для внедрения в тестовый метод.
-     * Создает объекты Page Objects с помощью указанной фабрики.
+     * Заполняет параметры тестового метода объектами текущего потока.
+     * <p>
+     * Параметр заменяется, если он не задан или содержит объект Playwright
+     * (либо Page Object), принадлежащий другому потоку или уже закрытый,
+     * например, страницу предыдущего теста при context.scope=method.
+     * Остальные значения сохраняются.
      *
-     * @param method     метод теста
-     * @param testResult результат выполнения теста
-     * @param factory    фабрика страниц
-     * @return массив параметров для внедрения
+     * @param method      метод теста
+     * @param testResult  результат выполнения теста
+     * @param factory     фабрика страниц или null, если Page Objects не внедряются
+     * @param paramValues параметры вызова, изменяемые на месте
      */
-    private Object[] preparePageObjects(Method method, ITestResult testResult, PageFactory factory) {
+    private void preparePageObjects(Method method, ITestResult testResult, PageFactory factory, Object[] paramValues) {
         TestLogger.LOGGER.debug("Подготовка параметров для внедрения в метод {}", method.getName());
 
+        // Page Object, подготовленный поставщиком данных до начала теста,
+        // пересоздается на объектах текущего потока даже без @UsePage
+        PageFactory pageFactory = factory != null ? factory : getPageFactory(DefaultPageFactory.class);
+        InjectionPlan plan = InjectionPlan.of(method, pageFactory);
         Object instance = testResult.getInstance();
-        Parameter[] parameters = method.getParameters();
-        Object[] paramValues = new Object[parameters.length];
+        InjectionPlan.Slot[] slots = plan.getSlots();
+        int count = Math.min(slots.length, paramValues.length);
 
-        // Получаем объекты Playwright из ThreadLocal
-        Playwright playwright = playwrightThreadLocal.get();
-        Browser browser = browserThreadLocal.get();
-        BrowserContext browserContext = contextThreadLocal.get();
-        Page page = pageThreadLocal.get();
+        for (int i = 0; i < count; i++) {
+            InjectionPlan.Slot slot = slots[i];
+            Parameter param = slot.parameter();
+            Object current = paramValues[i];
 
-        // Заполняем массив параметров соответствующими значениями
-        for (int i = 0; i < parameters.length; i++) {
-            Parameter param = parameters[i];
-            Class<?> paramType = param.getType();
-
-            if (paramType.equals(Playwright.class)) {
-                paramValues[i] = playwright;
-                TestLogger.LOGGER.debug("Внедряем Playwright в параметр {}", param.getName());
-            } else if (paramType.equals(Browser.class)) {
-                paramValues[i] = browser;
-                TestLogger.LOGGER.debug("Внедряем Browser в параметр {}", param.getName());
-            } else if (paramType.equals(BrowserContext.class)) {
-                paramValues[i] = browserContext;
-                TestLogger.LOGGER.debug("Внедряем BrowserContext в параметр {}", param.getName());
-            } else if (paramType.equals(Page.class)) {
-                paramValues[i] = page;
-                TestLogger.LOGGER.debug("Внедряем Page в параметр {}", param.getName());
-            } else if (factory.canCreate(paramType)) {
-                // Создаем объект страницы с помощью фабрики
-                Object pageObject = factory.createPage(
-                        playwright, browser, browserContext, page,
-                        instance.getClass(), method
-                );
+            switch (slot.kind()) {
+                case PLAYWRIGHT, BROWSER, BROWSER_CONTEXT, PAGE -> {
+                    if (!isUsableInCurrentThread(current)) {
+                        paramValues[i] = resolvePlaywrightObject(slot.kind());
+                        TestLogger.LOGGER.debug("Внедряем {} текущего потока в параметр {}",
+                                slot.type().getSimpleName(), param.getName());
+                    }
+                }
+                case PAGE_OBJECT -> {
+                    if (current != null ? isPageObjectUsable(current) : factory == null) {
+                        continue;
+                    }
+                    ThreadResourceRegistry.ThreadResources resources = ThreadResourceRegistry.current();
+                    // Создаем объект страницы с помощью фабрики
+                    Object pageObject = plan.createPage(slot, pageFactory,
+                            resources.getPlaywright(), resources.getBrowser(),
+                            resources.getContext(), resources.getPage(),
+                            instance.getClass());
 
-                if (pageObject != null) {
-                    paramValues[i] = pageObject;
-                    TestLogger.LOGGER.debug("Внедряем объект {} в параметр {}",
-                            pageObject.getClass().getSimpleName(), param.getName());
-                } else {
-                    TestLogger.LOGGER.warn("Не удалось создать объект для параметра {}", param.getName());
+                    if (pageObject != null) {
+                        paramValues[i] = pageObject;
+                        TestLogger.LOGGER.debug("Внедряем объект {} в параметр {}",
+                                pageObject.getClass().getSimpleName(), param.getName());
+                    } else {
+                        TestLogger.LOGGER.warn("Не удалось создать объект для параметра {}", param.getName());
+                    }
+                }
+                case VALUE -> {
+                    if (current == null) {
+                        TestLogger.LOGGER.warn("Не удалось найти подходящий объект для параметра {} типа {}",
+                                param.getName(), slot.type().getSimpleName());
+                    }
                 }
-            } else {
-                TestLogger.LOGGER.warn("Не удалось найти подходящий объект для параметра {} типа {}",
-                        param.getName(), paramType.getSimpleName());
             }
         }
+    }
+
+    /**
+     * Получает объект Playwright нужного вида для текущего потока.
+     *
+     * @param kind вид параметра
+     * @return объект текущего потока
+     */
+    private Object resolvePlaywrightObject(InjectionPlan.Kind kind) {
+        ThreadResourceRegistry.ThreadResources resources = ThreadResourceRegistry.current();
+        return switch (kind) {
+            case PLAYWRIGHT -> resources.getPlaywright();
+            case BROWSER -> resources.getBrowser();
+            case BROWSER_CONTEXT -> resources.getContext();
+            default -> resources.getPage();
+        };
+    }
+
+    /**
+     * Проверяет, можно ли использовать объект Playwright в текущем потоке.
+     *
+     * @param value объект Playwright или null
+     * @return true, если объект задан, не закрыт и не принадлежит другому потоку
+     */
+    private boolean isUsableInCurrentThread(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Page page && page.isClosed()) {
+            return false;
+        }
+        return !ThreadResourceRegistry.isOwnedByOtherThread(value);
+    }
 
-        return paramValues;
+    /**
+     * Проверяет, можно ли использовать уже подготовленный Page Object в текущем потоке.
+     *
+     * @param pageObject объект страницы или null
+     * @return true, если объект создан и его страница пригодна для текущего потока
+     */
+    private boolean isPageObjectUsable(Object pageObject) {
+        if (pageObject instanceof PageObject po) {
+            return isUsableInCurrentThread(po.getPage());
+        }
+        return pageObject != null;
     }
 
     /**
      * Получает фабрику страниц из кэша или создает новую.
-     * Использует паттерн Double-Checked Locking для оптимизации
-     * многопоточного доступа.
      *
      * @param factoryClass класс фабрики страниц
      * @return экземпляр фабрики страниц
      */
     private PageFactory getPageFactory(Class<? extends PageFactory> factoryClass) {
-        PageFactory factory = pageFactories.get(factoryClass);
-        if (factory == null) {
-            synchronized (pageFactories) {
-                // Повторная проверка внутри синхронизированного блока (паттерн Double-Checked Locking)
-                factory = pageFactories.get(factoryClass);
-                if (factory == null) {
-                    try {
-                        factory = factoryClass.getDeclaredConstructor().newInstance();
-                        TestLogger.LOGGER.debug("Создана новая фабрика страниц типа {}",
-                                factoryClass.getSimpleName());
-                    } catch (Exception e) {
-                        TestLogger.LOGGER.error("Ошибка при создании фабрики страниц {}: {}",
-                                factoryClass.getSimpleName(), e.getMessage());
-                        factory = new DefaultPageFactory();
-                    }
-                    pageFactories.put(factoryClass, factory);
-                }
+        return pageFactories.computeIfAbsent(factoryClass, type -> {
+            try {
+                TestLogger.LOGGER.debug("Создана новая фабрика страниц типа {}", type.getSimpleName());
+                return factoryClass.getDeclaredConstructor().newInstance();
+            } catch (Exception e) {
+                TestLogger.LOGGER.error("Ошибка при создании фабрики страниц {}: {}",
+                        type.getSimpleName(), e.getMessage());
+                return new DefaultPageFactory();
             }
-        }
-        return factory;
+        });
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,10 @@
 package com.framework.api.listeners;
 
+import com.framework.api.annotations.Retry;
 import com.framework.api.annotations.UsePage;
+import com.framework.extentions.retry.RetryAnnotationAnalyzer;
+import org.testng.IAnnotationTransformer;
 import org.testng.annotations.ITestAnnotation;
-import org.testng.internal.annotations.IAnnotationTransformer;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
@@ -13,7 +15,8 @@ import java.lang.reflect.Method;
  * Этот класс реализует интерфейс IAnnotationTransformer, который позволяет
  * программно модифицировать аннотации тестов перед их выполнением. В частности,
  * он устанавливает dataProvider для методов с аннотацией {@link UsePage},
- * если dataProvider не указан.
+ * если dataProvider не указан, и регистрирует {@link RetryAnnotationAnalyzer}
+ * для тестов без явного retryAnalyzer (повторяются только тесты с аннотацией {@link Retry}).
  * <p>
  * Основная задача этого класса - обеспечить автоматическую конфигурацию тестов,
  * использующих Page Objects, без необходимости вручную указывать dataProvider
@@ -50,7 +53,11 @@ public class PlaywrightTestFactory implements IAnnotationTransformer {
      * <p>
      * Если метод или его класс имеет аннотацию {@link UsePage}, но не указан dataProvider,
      * устанавливает dataProvider равным "pageObjects", который должен быть определен
-     * в базовом классе тестов.
+     * в базовом классе тестов. Если retryAnalyzer не указан, устанавливает
+     * {@link RetryAnnotationAnalyzer} как для аннотации метода, так и для аннотации
+     * {@code @Test} на классе. Для аннотации метода testClass равен null, а метод может быть
+     * унаследован классами с разными аннотациями, поэтому наличие {@link Retry}
+     * проверяется анализатором во время выполнения по фактическому классу теста.
      *
      * @param annotation      аннотация @Test для трансформации
      * @param testClass       класс, содержащий тест (может быть null)
@@ -67,5 +74,22 @@ public class PlaywrightTestFactory implements IAnnotationTransformer {
             // Установка dataProvider программно
             annotation.setDataProvider("pageObjects");
         }
+
+        // Если анализатор повторов не указан; решение по @Retry принимает анализатор
+        if ((testMethod != null || testClass != null)
+                && isDefaultRetryAnalyzer(annotation.getRetryAnalyzerClass())) {
+            annotation.setRetryAnalyzer(RetryAnnotationAnalyzer.class);
+        }
+    }
+
+    /**
+     * Проверяет, что анализатор повторов не задан в аннотации @Test.
+     * По умолчанию TestNG подставляет собственный отключенный анализатор.
+     *
+     * @param analyzerClass класс анализатора из аннотации
+     * @return true, если анализатор не задан пользователем
+     */
+    private boolean isDefaultRetryAnalyzer(Class<?> analyzerClass) {
+        return analyzerClass == null || analyzerClass.getName().startsWith("org.testng.");
     }
 }
\ No newline at end of file
@@ -33,6 +33,11 @@ public class GooglePage implements PageObject {
      */
     private Page page;
 
+    /**
+     * Адрес сайта; заменяется адресом mock-сервера в тестах с @MockServer.
+     */
+    private String baseUrl = "https://www.google.com.ua";
+
     /**
      * Конструктор с параметром Page.
      *
@@ -65,12 +70,20 @@ public class GooglePage implements PageObject {
         return page;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
     /**
      * Переходит на главную страницу Google.
-     * Использует украинскую версию, но можно настроить под нужную локаль.
+     * По умолчанию использует украинскую версию, в тестах с @MockServer - mock-сервер.
      */
     public void navigateToHome() {
-        page.navigate("https://www.google.com.ua");
+        page.navigate(baseUrl);
     }
 
     /**
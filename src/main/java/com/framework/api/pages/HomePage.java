@@ -34,6 +34,11 @@ public class HomePage implements PageObject {
      */
     private Page page;
 
+    /**
+     * Адрес сайта; заменяется адресом mock-сервера в тестах с @MockServer.
+     */
+    private String baseUrl = "https://example.com";
+
     /**
      * Конструктор с параметром Page.
      *
@@ -66,12 +71,29 @@ public class HomePage implements PageObject {
         return page;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Получает адрес сайта, на который ведет {@link #navigateToHome()}.
+     *
+     * @return адрес сайта
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
     /**
      * Переходит на домашнюю страницу.
-     * В данном примере используется example.com.
+     * По умолчанию используется example.com, в тестах с @MockServer - mock-сервер.
      */
     public void navigateToHome() {
-        page.navigate("https://example.com");
+        page.navigate(baseUrl);
     }
 
     /**
@@ -84,4 +84,16 @@ public interface PageObject {
      * @return объект Playwright Page, связанный с этой страницей
      */
     Page getPage();
+
+    /**
+     * Устанавливает адрес сайта, на котором работает страница.
+     * <p>
+     * Вызывается фреймворком, если тест запускается на встроенном mock-сервере
+     * (аннотация {@link com.framework.api.annotations.MockServer}). Страницы с фиксированным
+     * адресом могут не переопределять этот метод.
+     *
+     * @param baseUrl адрес сайта без завершающего /
+     */
+    default void setBaseUrl(String baseUrl) {
+    }
 }
\ No newline at end of file
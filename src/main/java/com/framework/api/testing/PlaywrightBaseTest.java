@@ -1,26 +1,49 @@
 package com.framework.api.testing;
 
+import com.framework.api.annotations.BlockResources;
+import com.framework.api.annotations.LoggedInAs;
 import com.framework.api.annotations.TestData;
 import com.framework.api.annotations.UsePage;
+import com.framework.api.config.ContextScope;
 import com.framework.api.config.PlaywrightConfig;
+import com.framework.api.config.ResourceType;
+import com.framework.api.config.TraceMode;
 import com.framework.api.factory.PageFactory;
-import com.framework.api.listeners.AllureAttachmentHelper;
 import com.framework.internal.browser.BrowserManager;
+import com.framework.internal.browser.BrowserSession;
+import com.framework.internal.browser.BrowserSessionManager;
+import com.framework.internal.browser.StorageStateCache;
+import com.framework.internal.browser.ThreadResourceRegistry;
+import com.framework.api.pages.PageObject;
+import com.framework.extentions.data.DataFileIterator;
 import com.framework.internal.factory.DefaultPageFactory;
+import com.framework.internal.factory.InjectionPlan;
+import com.framework.internal.factory.LazyNavigation;
 import com.framework.internal.logging.TestLogger;
+import com.framework.internal.network.NetworkRouter;
+import com.framework.internal.reporting.ArtifactPipeline;
 import com.microsoft.playwright.*;
 import io.qameta.allure.*;
 import org.testng.ITestContext;
 import org.testng.ITestResult;
+import org.testng.Reporter;
 import org.testng.annotations.*;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -32,6 +55,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Автоматическое создание и управление объектами Playwright, Browser, BrowserContext и Page
  * - Автоматическое внедрение Page Objects в тесты через аннотацию @UsePage
  * - Поддержка параметризации тестов через аннотацию @TestData
+ * - Авторизация по ролям через аннотацию @LoggedInAs без повторного входа в каждом классе
  * - Автоматическое создание скриншотов и трассировок при ошибках
  * - Поддержка пользовательских фабрик страниц
  * - Интеграция с Allure для создания подробных отчетов
@@ -57,18 +81,35 @@ public abstract class PlaywrightBaseTest {
     protected BrowserContext browserContext;
     protected Page page;
 
+    // Сессия, из которой получены playwright и browser (см. browser.scope)
+    private BrowserSession browserSession;
+
     // Потокобезопасная карта для фабрик страниц
     private static final Map<Class<?>, PageFactory> pageFactories = new ConcurrentHashMap<>();
 
-    // Путь для сохранения трассировок
-    private Path tracePath;
+    // Контекст, в котором запущена трассировка
+    private BrowserContext tracedContext;
+
+    // Название текущего фрагмента трассировки или null, если фрагмент не записывается
+    private String traceChunkTitle;
+
+    // Части трассировки теста, сохраненные перед заменой контекста в updateContextOptions
+    private final List<Path> traceParts = new ArrayList<>();
+
+    // Запрос нового контекста перед повтором теста
+    private volatile boolean freshContextRequested;
+
+    // Вложения с видео упавших тестов, ожидающие закрытия контекста
+    private final List<CompletableFuture<Path>> pendingVideos = new ArrayList<>();
 
     // Путь для сохранения скриншотов
     private Path screenshotPath;
 
     /**
      * Инициализация ресурсов Playwright перед запуском тестового класса.
-     * Создает экземпляры Playwright, Browser, BrowserContext и Page.
+     * Получает Playwright и Browser в соответствии с параметром browser.scope.
+     * При context.scope=class создает BrowserContext и Page для всего класса,
+     * при context.scope=method контексты создаются для каждого теста в beforeMethod.
      *
      * @param context контекст тестирования TestNG
      */
@@ -76,40 +117,31 @@ public abstract class PlaywrightBaseTest {
     @Step("Инициализация ресурсов Playwright")
     public void setUp(ITestContext context) {
         TestLogger.LOGGER.info("Инициализация ресурсов Playwright для класса {}", getClass().getSimpleName());
+        PlaywrightConfig config = PlaywrightConfig.getInstance();
 
-        // Создаем экземпляр Playwright
-        playwright = Playwright.create();
+        // Получаем Playwright и Browser: новые или переиспользуемые в зависимости от browser.scope
+        browserSession = BrowserSessionManager.acquire();
+        playwright = browserSession.getPlaywright();
+        browser = browserSession.getBrowser();
 
-        // Используем BrowserManager для создания браузера
-        browser = BrowserManager.createBrowser(playwright);
+        // Сохраняем объекты в контексте для доступа из других классов
+        context.setAttribute("playwright", playwright);
+        context.setAttribute("browser", browser);
 
-        // Создаем контекст с настройками из конфигурации
-        browserContext = browser.newContext(BrowserManager.createContextOptions());
+        if (isContextPerMethod()) {
+            // Каждый тест получит собственный контекст в beforeMethod
+            TestLogger.LOGGER.info("Ресурсы Playwright инициализированы, контексты создаются для каждого теста");
+            return;
+        }
+
+        // Создаем контекст с настройками из конфигурации и ролью пользователя из @LoggedInAs
+        browserContext = BrowserManager.newContext(browser, getClassLoggedInAs());
+        NetworkRouter.installHar(browserContext, getClass(), null);
 
         // Создаем страницу
         page = browserContext.newPage();
+        ThreadResourceRegistry.current().bind(browserSession, browserContext, page);
 
-        // Если в конфигурации включена трассировка, начинаем её запись
-        if (PlaywrightConfig.getInstance().captureTraceOnFailure()) {
-            // Создаем директорию для трассировок, если её нет
-            try {
-                Path tracesDir = Paths.get("traces");
-                if (!tracesDir.toFile().exists()) {
-                    tracesDir.toFile().mkdirs();
-                }
-            } catch (Exception e) {
-                TestLogger.LOGGER.error("Не удалось создать директорию для трассировок: {}", e.getMessage());
-            }
-
-            browserContext.tracing().start(new Tracing.StartOptions()
-                    .setScreenshots(true)
-                    .setSnapshots(true)
-                    .setSources(true));
-        }
-
-        // Сохраняем объекты в контексте для доступа из других классов
-        context.setAttribute("playwright", playwright);
-        context.setAttribute("browser", browser);
         context.setAttribute("browserContext", browserContext);
         context.setAttribute("page", page);
 
@@ -152,65 +184,63 @@ public abstract class PlaywrightBaseTest {
         // Добавляем информацию о браузере
         Allure.parameter("Browser", PlaywrightConfig.getInstance().getBrowser());
         Allure.parameter("Headless Mode", String.valueOf(PlaywrightConfig.getInstance().isHeadless()));
+
+        // При context.scope=method тест получает новый контекст
+        if (isContextPerMethod()) {
+            if (browserSession == null || browserSession.getOwner() != Thread.currentThread()) {
+                // parallel="methods": сессия класса принадлежит другому потоку,
+                // объекты текущего потока внедрит PlaywrightPageInjector
+                return;
+            }
+            ThreadResourceRegistry.ThreadResources resources = ThreadResourceRegistry.current();
+            browserContext = resources.takeContext(browser, getLoggedInAs(method));
+            NetworkRouter.installHar(browserContext, getClass(), method.getName());
+            page = browserContext.newPage();
+            resources.bind(browserSession, browserContext, page);
+        }
+
+        // Повтор после нестабильной ошибки выполняется в новом контексте;
+        // при context.scope=method новый контекст создается для каждого теста и так
+        if (freshContextRequested && !isContextPerMethod() && browserContext != null
+                && browserSession != null && browserSession.getOwner() == Thread.currentThread()) {
+            freshContextRequested = false;
+            closeContext();
+            browserContext = BrowserManager.newContext(browser, getClassLoggedInAs());
+            NetworkRouter.installHar(browserContext, getClass(), null);
+            page = browserContext.newPage();
+            ThreadResourceRegistry.current().bind(browserSession, browserContext, page);
+            TestLogger.LOGGER.info("Для повтора теста {} создан новый контекст", method.getName());
+        }
+
+        if (browserContext != null && browserSession != null && browserSession.getOwner() == Thread.currentThread()) {
+            // Блокировки ресурсов из @BlockResources или конфигурации
+            applyBlockResources(method);
+
+            // Трассировка пишется отдельным фрагментом для каждого теста
+            startTraceChunk(method.getName());
+        }
     }
 
     /**
      * Освобождение ресурсов Playwright после завершения всех тестов в классе.
-     * Закрывает Page, BrowserContext, Browser и Playwright.
+     * Закрывает Page и BrowserContext, затем освобождает сессию браузера:
+     * в режиме browser.scope=class браузер сразу возвращается в пул,
+     * в остальных режимах - в конце набора тестов.
      */
     @AfterClass
     @Step("Освобождение ресурсов Playwright")
     public void tearDown() {
         TestLogger.LOGGER.info("Освобождение ресурсов Playwright для класса {}", getClass().getSimpleName());
 
-        // Останавливаем трассировку, если она была запущена
-        if (PlaywrightConfig.getInstance().captureTraceOnFailure() && browserContext != null) {
-            try {
-                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-                tracePath = Paths.get("traces", getClass().getSimpleName() + "_" + timestamp + ".zip");
-                browserContext.tracing().stop(new Tracing.StopOptions().setPath(tracePath));
-                TestLogger.LOGGER.info("Трассировка сохранена в {}", tracePath);
-            } catch (Exception e) {
-                TestLogger.LOGGER.error("Не удалось сохранить трассировку: {}", e.getMessage());
-            }
-        }
-
         // Закрываем ресурсы в обратном порядке
-        if (page != null) {
-            try {
-                page.close();
-                TestLogger.LOGGER.debug("Page закрыт");
-            } catch (Exception e) {
-                TestLogger.LOGGER.error("Ошибка при закрытии Page: {}", e.getMessage());
-            }
-        }
-
-        if (browserContext != null) {
-            try {
-                browserContext.close();
-                TestLogger.LOGGER.debug("BrowserContext закрыт");
-            } catch (Exception e) {
-                TestLogger.LOGGER.error("Ошибка при закрытии BrowserContext: {}", e.getMessage());
-            }
-        }
-
-        if (browser != null) {
-            try {
-                browser.close();
-                TestLogger.LOGGER.debug("Browser закрыт");
-            } catch (Exception e) {
-                TestLogger.LOGGER.error("Ошибка при закрытии Browser: {}", e.getMessage());
-            }
-        }
+        closeContext();
 
-        if (playwright != null) {
-            try {
-                playwright.close();
-                TestLogger.LOGGER.debug("Playwright закрыт");
-            } catch (Exception e) {
-                TestLogger.LOGGER.error("Ошибка при закрытии Playwright: {}", e.getMessage());
-            }
+        // Отвязываем объекты класса от потока
+        if (browserSession != null && browserSession.getOwner() == Thread.currentThread()) {
+            ThreadResourceRegistry.current().unbindSession();
         }
+        BrowserSessionManager.release(browserSession);
+        browserSession = null;
 
         TestLogger.LOGGER.info("Ресурсы Playwright освобождены успешно");
     }
@@ -224,54 +254,144 @@ public abstract class PlaywrightBaseTest {
     @AfterMethod
     @Step("Завершение теста")
     public void afterMethod(ITestResult result) {
+        // Страница, которую использовал тест в текущем потоке
+        Page testPage = resolveTestPage(result);
+
         // Делаем скриншот в случае ошибки, если это настроено в конфигурации
-        if (PlaywrightConfig.getInstance().takeScreenshotOnFailure() && result.getStatus() == ITestResult.FAILURE) {
+        if (PlaywrightConfig.getInstance().takeScreenshotOnFailure() && result.getStatus() == ITestResult.FAILURE
+                && testPage != null) {
             try {
                 String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
                 String testMethodName = result.getMethod().getMethodName();
                 screenshotPath = Paths.get("screenshots", testMethodName + "_" + timestamp + ".png");
 
-                // Создаем директорию, если её нет
-                Path screenshotDir = Paths.get("screenshots");
-                if (!screenshotDir.toFile().exists()) {
-                    screenshotDir.toFile().mkdirs();
-                }
-
-                // Делаем скриншот
-                page.screenshot(new Page.ScreenshotOptions().setPath(screenshotPath));
-                TestLogger.LOGGER.info("Скриншот сохранен в {}", screenshotPath);
+                // Снимаем скриншот и HTML в память; запись на диск и в отчет выполняется в фоне
+                byte[] screenshot = testPage.screenshot();
+                String html = testPage.content();
+                ArtifactPipeline.attach("Скриншот при ошибке", "image/png", "png", screenshot, screenshotPath);
+                ArtifactPipeline.attach("Page HTML", "text/html", "html",
+                        html.getBytes(StandardCharsets.UTF_8), null);
+                TestLogger.LOGGER.info("Скриншот будет сохранен в {}", screenshotPath);
 
-                // Сохраняем путь к скриншоту в атрибутах результата для доступа в AllureTestListener
+                // Сохраняем путь к скриншоту в атрибутах результата; AllureTestListener
+                // не прикрепляет его повторно
                 result.setAttribute("screenshot", screenshotPath.toString());
-
-                // Прикрепляем скриншот к отчету Allure напрямую
-                AllureAttachmentHelper.attachScreenshot(screenshotPath, "Скриншот при ошибке");
-
-                // Также прикрепляем HTML страницы
-                AllureAttachmentHelper.attachPageSource(page.content());
+                result.setAttribute(ArtifactPipeline.ATTACHED_ATTRIBUTE, Boolean.TRUE);
             } catch (Exception e) {
                 TestLogger.LOGGER.error("Не удалось сделать скриншот: {}", e.getMessage());
             }
         }
 
-        // Если тест не прошел, и трассировка уже остановлена (в tearDown),
-        // добавляем информацию о трассировке в отчет
+        // Число запросов, прерванных блокировками ресурсов
+        if (browserContext != null && browserSession != null && browserSession.getOwner() == Thread.currentThread()) {
+            int blocked = NetworkRouter.getBlockedCount(browserContext);
+            if (blocked > 0) {
+                result.setAttribute("blockedRequests", blocked);
+                TestLogger.LOGGER.info("В тесте {} прервано запросов: {}", result.getMethod().getMethodName(), blocked);
+            }
+        }
+
+        // Тест мог упасть из-за того, что сохраненное состояние авторизации перестало работать
+        LoggedInAs loggedInAs = getLoggedInAs(result.getMethod().getConstructorOrMethod().getMethod());
+        if (result.getStatus() == ITestResult.FAILURE && loggedInAs != null && testPage != null
+                && !testPage.isClosed()) {
+            StorageStateCache.verify(testPage, loggedInAs);
+        }
+
+        // Завершаем фрагмент трассировки теста; в режиме retain-on-failure
+        // фрагменты прошедших тестов отбрасываются без записи на диск
+        Path tracePath = null;
+        if (traceChunkTitle != null && browserSession != null
+                && browserSession.getOwner() == Thread.currentThread()) {
+            boolean failed = result.getStatus() == ITestResult.FAILURE;
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS"));
+            tracePath = stopTraceChunk(PlaywrightConfig.getInstance().getTraceMode().shouldRetain(failed)
+                    ? Paths.get("traces", result.getMethod().getMethodName() + "_" + timestamp + ".zip")
+                    : null);
+        }
+
+        // Части трассировки, записанные до замены контекста, сохраняются или удаляются
+        // по тому же правилу, что и последний фрагмент
+        if (!traceParts.isEmpty()) {
+            boolean failed = result.getStatus() == ITestResult.FAILURE;
+            boolean retain = PlaywrightConfig.getInstance().getTraceMode().shouldRetain(failed);
+            for (int i = 0; i < traceParts.size(); i++) {
+                Path part = traceParts.get(i);
+                if (!retain) {
+                    try {
+                        Files.deleteIfExists(part);
+                    } catch (Exception e) {
+                        TestLogger.LOGGER.error("Не удалось удалить трассировку {}: {}", part, e.getMessage());
+                    }
+                } else if (failed) {
+                    ArtifactPipeline.attachFile("Трассировка при ошибке (часть " + (i + 1) + ")",
+                            "application/zip", "zip", part);
+                    result.setAttribute(ArtifactPipeline.ATTACHED_ATTRIBUTE, Boolean.TRUE);
+                }
+            }
+            traceParts.clear();
+        }
+
+        // Если тест не прошел, добавляем информацию о трассировке в отчет
         if (result.getStatus() == ITestResult.FAILURE && tracePath != null) {
             result.setAttribute("trace", tracePath.toString());
             TestLogger.LOGGER.info("Для теста {} сохранена трассировка: {}",
                     result.getMethod().getMethodName(), tracePath);
 
-            // Прикрепляем трассировку к отчету Allure
-            AllureAttachmentHelper.attachTrace(tracePath, "Трассировка при ошибке");
+            // Прикрепляем трассировку к отчету Allure; файл читается в фоне
+            ArtifactPipeline.attachFile("Трассировка при ошибке", "application/zip", "zip", tracePath);
+            result.setAttribute(ArtifactPipeline.ATTACHED_ATTRIBUTE, Boolean.TRUE);
+        }
+
+        // Видео дописывается до закрытия контекста, поэтому здесь только регистрируем вложение
+        if (result.getStatus() == ITestResult.FAILURE && testPage != null && testPage.video() != null) {
+            CompletableFuture<Path> attachment = ArtifactPipeline.attachLater("Видео при ошибке", "video/webm", "webm");
+            if (testPage == page) {
+                // Страница класса: файл будет прикреплен в closeContext
+                pendingVideos.add(attachment);
+            } else {
+                // Страница создана реестром потока (parallel="methods"): закрываем её контекст,
+                // чтобы видео было дописано, и сразу прикрепляем файл
+                Video video = testPage.video();
+                ThreadResourceRegistry.current().releaseOwned(true);
+                try {
+                    if (testPage.isClosed()) {
+                        attachment.complete(video.path());
+                    } else {
+                        attachment.cancel(false);
+                    }
+                } catch (Exception e) {
+                    attachment.cancel(false);
+                    TestLogger.LOGGER.error("Не удалось получить видео теста: {}", e.getMessage());
+                }
+            }
+        }
+
+        // parallel="methods": тест выполнялся в потоке, которому не принадлежит сессия класса,
+        // и реестр потока создал для него собственный контекст. Закрываем его здесь, в потоке-владельце:
+        // из потока завершения набора объекты Playwright трогать нельзя. При browser.scope=class
+        // браузер потока сразу возвращается в пул, иначе следующие классы ждали бы браузер
+        if (browserSession == null || browserSession.getOwner() != Thread.currentThread()) {
+            ThreadResourceRegistry.current().releaseOwned(result.getStatus() == ITestResult.FAILURE);
+            return;
+        }
+
+        if (isContextPerMethod()) {
+            // Контекст теста больше не нужен; следующий тест создаст свой в beforeMethod
+            if (browserContext != null) {
+                closeContext();
+                ThreadResourceRegistry.current().unbind();
+            }
+            return;
         }
 
         // Очищаем контекст страницы после каждого теста, если это включено в конфигурации
-        if (PlaywrightConfig.getInstance().isClearContextAfterTest() && browserContext != null) {
+        if (PlaywrightConfig.getInstance().isClearContextAfterTest() && testPage != null) {
             try {
                 // Очищаем cookies и localStorage
-                browserContext.clearCookies();
-                page.evaluate("localStorage.clear();");
-                page.evaluate("sessionStorage.clear();");
+                testPage.context().clearCookies();
+                testPage.evaluate("localStorage.clear();");
+                testPage.evaluate("sessionStorage.clear();");
                 TestLogger.LOGGER.debug("Контекст страницы очищен после теста {}",
                         result.getMethod().getMethodName());
             } catch (Exception e) {
@@ -280,21 +400,253 @@ public abstract class PlaywrightBaseTest {
         }
     }
 
+    /**
+     * Запрашивает новый BrowserContext для следующего теста класса.
+     * Вызывается анализатором повторов перед повторным запуском теста,
+     * чтобы состояние упавшей попытки не повлияло на повтор.
+     */
+    public void requestFreshContext() {
+        freshContextRequested = true;
+    }
+
+    /**
+     * Получает роль пользователя для контекста всего класса.
+     *
+     * @return аннотация @LoggedInAs класса или null
+     */
+    private LoggedInAs getClassLoggedInAs() {
+        return getClass().getAnnotation(LoggedInAs.class);
+    }
+
+    /**
+     * Получает роль пользователя для теста.
+     * Аннотация метода учитывается только при context.scope=method,
+     * иначе тест использует контекст класса.
+     *
+     * @param method тестовый метод
+     * @return аннотация @LoggedInAs или null
+     */
+    private LoggedInAs getLoggedInAs(Method method) {
+        LoggedInAs loggedInAs = isContextPerMethod() ? method.getAnnotation(LoggedInAs.class) : null;
+        return loggedInAs != null ? loggedInAs : getClassLoggedInAs();
+    }
+
+    /**
+     * Проверяет, получает ли каждый тест собственный BrowserContext.
+     *
+     * @return true при context.scope=method
+     */
+    private boolean isContextPerMethod() {
+        return PlaywrightConfig.getInstance().getContextScope() == ContextScope.METHOD;
+    }
+
+    /**
+     * Начинает фрагмент трассировки для теста, если трассировка включена в конфигурации.
+     * В новом контексте запись трассировки запускается целиком, в уже трассируемом
+     * начинается только новый фрагмент, поэтому буфер не растет на весь класс.
+     *
+     * @param title название фрагмента (имя теста)
+     */
+    private void startTraceChunk(String title) {
+        if (PlaywrightConfig.getInstance().getTraceMode() == TraceMode.OFF) {
+            return;
+        }
+        try {
+            if (tracedContext == browserContext) {
+                browserContext.tracing().startChunk(new Tracing.StartChunkOptions().setTitle(title));
+            } else {
+                // start() сразу открывает первый фрагмент
+                browserContext.tracing().start(new Tracing.StartOptions()
+                        .setTitle(title)
+                        .setScreenshots(true)
+                        .setSnapshots(true)
+                        .setSources(true));
+                tracedContext = browserContext;
+            }
+            traceChunkTitle = title;
+        } catch (Exception e) {
+            TestLogger.LOGGER.error("Не удалось начать трассировку теста {}: {}", title, e.getMessage());
+        }
+    }
+
+    /**
+     * Завершает текущий фрагмент трассировки.
+     *
+     * @param path путь для сохранения фрагмента или null, если он не нужен
+     * @return путь к сохраненной трассировке или null
+     */
+    private Path stopTraceChunk(Path path) {
+        traceChunkTitle = null;
+        if (tracedContext != browserContext) {
+            // Контекст был заменен во время теста, фрагмент закрыт вместе со старым контекстом
+            return null;
+        }
+        try {
+            Tracing.StopChunkOptions options = new Tracing.StopChunkOptions();
+            if (path != null) {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+                options.setPath(path);
+            }
+            browserContext.tracing().stopChunk(options);
+            if (path != null) {
+                TestLogger.LOGGER.info("Трассировка сохранена в {}", path);
+            }
+            return path;
+        } catch (Exception e) {
+            TestLogger.LOGGER.error("Не удалось сохранить трассировку: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Закрывает текущие Page и BrowserContext.
+     * Видео контекста после закрытия сохраняются или удаляются в соответствии с video.mode.
+     */
+    private void closeContext() {
+        List<Video> videos = new ArrayList<>();
+        Video mainVideo = null;
+        if (browserContext != null && PlaywrightConfig.getInstance().isRecordVideo()) {
+            try {
+                for (Page contextPage : browserContext.pages()) {
+                    if (contextPage.video() != null) {
+                        videos.add(contextPage.video());
+                    }
+                }
+                mainVideo = page != null ? page.video() : null;
+            } catch (Exception e) {
+                TestLogger.LOGGER.error("Не удалось получить видео контекста: {}", e.getMessage());
+            }
+        }
+
+        if (page != null) {
+            try {
+                page.close();
+                TestLogger.LOGGER.debug("Page закрыт");
+            } catch (Exception e) {
+                TestLogger.LOGGER.error("Ошибка при закрытии Page: {}", e.getMessage());
+            }
+        }
+
+        if (browserContext != null) {
+            try {
+                browserContext.close();
+                TestLogger.LOGGER.debug("BrowserContext закрыт");
+            } catch (Exception e) {
+                TestLogger.LOGGER.error("Ошибка при закрытии BrowserContext: {}", e.getMessage());
+            }
+        }
+        page = null;
+        browserContext = null;
+        tracedContext = null;
+
+        finishVideos(videos, mainVideo);
+    }
+
+    /**
+     * Сохраняет или удаляет видео закрытого контекста и прикрепляет видео упавших тестов.
+     * Файлы не копируются: сохраненное видео остается в video.dir и добавляется в отчет ссылкой.
+     *
+     * @param videos    видео всех страниц контекста
+     * @param mainVideo видео основной страницы теста или null
+     */
+    private void finishVideos(List<Video> videos, Video mainVideo) {
+        boolean retain = PlaywrightConfig.getInstance().getVideoMode().shouldRetain(!pendingVideos.isEmpty());
+        Path mainPath = null;
+        for (Video video : videos) {
+            try {
+                if (!retain) {
+                    video.delete();
+                } else if (video == mainVideo) {
+                    mainPath = video.path();
+                    TestLogger.LOGGER.info("Видео сохранено в {}", mainPath);
+                }
+            } catch (Exception e) {
+                TestLogger.LOGGER.error("Ошибка при обработке видео: {}", e.getMessage());
+            }
+        }
+        for (CompletableFuture<Path> attachment : pendingVideos) {
+            if (mainPath != null) {
+                attachment.complete(mainPath);
+            } else {
+                attachment.cancel(false);
+            }
+        }
+        pendingVideos.clear();
+    }
+
+    /**
+     * Определяет страницу, которую использовал тест в текущем потоке.
+     * <p>
+     * При parallel="methods" тестовые методы выполняются не в том потоке,
+     * где был вызван setUp, поэтому страница класса может принадлежать
+     * другому потоку. В этом случае используется страница из параметров теста,
+     * внедренная PlaywrightPageInjector.
+     *
+     * @param result результат выполнения теста
+     * @return страница текущего потока или null, если её нет
+     */
+    private Page resolveTestPage(ITestResult result) {
+        if (page != null && ThreadResourceRegistry.isOwnedByCurrentThread(page)) {
+            return page;
+        }
+        Object[] parameters = result.getParameters();
+        if (parameters != null) {
+            for (Object parameter : parameters) {
+                // Отложенная навигация не должна запускаться ради скриншота
+                Page candidate = LazyNavigation.unwrap(parameter instanceof PageObject po ? po.getPage()
+                        : parameter instanceof Page p ? p : null);
+                if (candidate != null && ThreadResourceRegistry.isOwnedByCurrentThread(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Поставщик данных для тестовых методов.
      * Обеспечивает внедрение объектов Playwright и Page Objects в тестовые методы.
-     * Также поддерживает параметризацию тестов с помощью аннотации TestData.
+     * Также поддерживает параметризацию тестов с помощью аннотации TestData:
+     * данные из файла (TestData.dataFile) читаются потоково, поэтому наборы
+     * параметров создаются по одному непосредственно перед каждым вызовом теста.
      *
      * @param method тестовый метод
-     * @return массив параметров для тестового метода
+     * @return итератор наборов параметров для тестового метода
      */
     @DataProvider(name = "pageObjects")
-    public Object[][] pageObjectsProvider(Method method) {
+    public Iterator<Object[]> pageObjectsProvider(Method method) {
         TestLogger.LOGGER.debug("Подготовка параметров для метода {}", method.getName());
 
+        // Параметры метода разбираются один раз, дальше используется готовый план
+        PageFactory factory = getPageFactory(getPageFactoryClass(method));
+        InjectionPlan plan = InjectionPlan.of(method, factory);
+
         // Проверяем, есть ли аннотация TestData
         TestData testData = method.getAnnotation(TestData.class);
 
+        if (testData != null && !testData.dataFile().isEmpty()) {
+            // Строки файла заполняют параметры, которые не создаются фреймворком
+            Parameter[] columns = Arrays.stream(plan.getSlots())
+                    .filter(slot -> slot.kind() == InjectionPlan.Kind.VALUE)
+                    .map(InjectionPlan.Slot::parameter)
+                    .toArray(Parameter[]::new);
+            Iterator<Object[]> rows = DataFileIterator.open(testData.dataFile(), columns);
+
+            TestLogger.LOGGER.debug("Потоковое чтение данных из файла {}", testData.dataFile());
+
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public Object[] next() {
+                    return buildParameters(plan, factory, rows.next());
+                }
+            };
+        }
+
         if (testData != null && testData.data().length > 0) {
             // Данные из аннотации TestData
             String[] dataValues = testData.data();
@@ -307,107 +659,91 @@ public abstract class PlaywrightBaseTest {
 
             // Для каждого набора данных создаем параметры
             for (int i = 0; i < dataCount; i++) {
-                // Получаем параметры метода
-                Parameter[] parameters = method.getParameters();
-                // Создаем массив значений параметров
-                Object[] params = new Object[parameters.length];
-
-                // Заполняем массив значений параметров
-                boolean dataParameterSet = false;
-                for (int j = 0; j < parameters.length; j++) {
-                    Parameter param = parameters[j];
-                    Class<?> paramType = param.getType();
-
-                    // Если тип параметра String и мы еще не установили значение данных,
-                    // устанавливаем значение из TestData
-                    if (!dataParameterSet && paramType.equals(String.class)) {
-                        params[j] = dataValues[i];
-                        dataParameterSet = true;
-                        TestLogger.LOGGER.debug("Установлено значение '{}' для параметра {}",
-                                dataValues[i], param.getName());
-                    }
-                    // Иначе обрабатываем параметр как обычно
-                    else if (paramType.equals(Playwright.class)) {
-                        params[j] = playwright;
-                    } else if (paramType.equals(Browser.class)) {
-                        params[j] = browser;
-                    } else if (paramType.equals(BrowserContext.class)) {
-                        params[j] = browserContext;
-                    } else if (paramType.equals(Page.class)) {
-                        params[j] = page;
-                    } else {
-                        // Получаем фабрику страниц
-                        PageFactory factory = getPageFactory(getPageFactoryClass(method));
-
-                        if (factory.canCreate(paramType)) {
-                            Object pageObject = factory.createPage(
-                                    playwright, browser, browserContext, page,
-                                    getClass(), method
-                            );
-
-                            if (pageObject != null) {
-                                params[j] = pageObject;
-                                TestLogger.LOGGER.debug("Создан объект типа {} для параметра {}",
-                                        pageObject.getClass().getSimpleName(), param.getName());
-                            } else {
-                                TestLogger.LOGGER.warn("Не удалось создать объект для параметра {}",
-                                        param.getName());
-                            }
-                        } else {
-                            TestLogger.LOGGER.warn("Фабрика не может создать объект типа {} для параметра {}",
-                                    paramType.getSimpleName(), param.getName());
-                        }
-                    }
-                }
-
-                result[i] = params;
+                result[i] = buildParameters(plan, factory, toDataRow(plan, dataValues[i]));
             }
 
-            return result;
+            return Arrays.asList(result).iterator();
         }
 
         // Стандартная логика для обычных тестов без TestData
-        Parameter[] parameters = method.getParameters();
-        Object[] params = new Object[parameters.length];
-
-        for (int i = 0; i < parameters.length; i++) {
-            Parameter param = parameters[i];
-            Class<?> paramType = param.getType();
-
-            if (paramType.equals(Playwright.class)) {
-                params[i] = playwright;
-            } else if (paramType.equals(Browser.class)) {
-                params[i] = browser;
-            } else if (paramType.equals(BrowserContext.class)) {
-                params[i] = browserContext;
-            } else if (paramType.equals(Page.class)) {
-                params[i] = page;
+        return Collections.singletonList(buildParameters(plan, factory, new Object[0])).iterator();
+    }
+
+    /**
+     * Размещает значение из TestData.data в первом строковом параметре,
+     * который не создается фреймворком.
+     *
+     * @param plan      план внедрения для метода
+     * @param dataValue значение из TestData
+     * @return значения параметров, не создаваемых фреймворком, в порядке объявления
+     */
+    private Object[] toDataRow(InjectionPlan plan, String dataValue) {
+        List<Object> row = new ArrayList<>();
+        boolean dataParameterSet = false;
+        for (InjectionPlan.Slot slot : plan.getSlots()) {
+            if (slot.kind() != InjectionPlan.Kind.VALUE) {
+                continue;
+            }
+            if (!dataParameterSet && slot.type().equals(String.class)) {
+                row.add(dataValue);
+                dataParameterSet = true;
             } else {
-                // Получаем фабрику страниц
-                PageFactory factory = getPageFactory(getPageFactoryClass(method));
+                row.add(null);
+            }
+        }
+        return row.toArray();
+    }
 
-                if (factory.canCreate(paramType)) {
-                    Object pageObject = factory.createPage(
-                            playwright, browser, browserContext, page,
-                            getClass(), method
-                    );
+    /**
+     * Заполняет параметры одного вызова тестового метода по плану внедрения.
+     *
+     * @param plan    план внедрения для метода
+     * @param factory фабрика страниц
+     * @param dataRow значения параметров, не создаваемых фреймворком, в порядке объявления
+     * @return массив значений параметров
+     */
+    private Object[] buildParameters(InjectionPlan plan, PageFactory factory, Object[] dataRow) {
+        InjectionPlan.Slot[] slots = plan.getSlots();
+        Object[] params = new Object[slots.length];
+
+        // Заполняем массив значений параметров
+        int dataIndex = 0;
+        for (InjectionPlan.Slot slot : slots) {
+            Parameter param = slot.parameter();
+
+            switch (slot.kind()) {
+                case PLAYWRIGHT -> params[slot.index()] = playwright;
+                case BROWSER -> params[slot.index()] = browser;
+                case BROWSER_CONTEXT -> params[slot.index()] = browserContext;
+                case PAGE -> params[slot.index()] = page;
+                case PAGE_OBJECT -> {
+                    Object pageObject = plan.createPage(slot, factory,
+                            playwright, browser, browserContext, page, getClass());
 
                     if (pageObject != null) {
-                        params[i] = pageObject;
+                        params[slot.index()] = pageObject;
                         TestLogger.LOGGER.debug("Создан объект типа {} для параметра {}",
                                 pageObject.getClass().getSimpleName(), param.getName());
                     } else {
                         TestLogger.LOGGER.warn("Не удалось создать объект для параметра {}",
                                 param.getName());
                     }
-                } else {
-                    TestLogger.LOGGER.warn("Фабрика не может создать объект типа {} для параметра {}",
-                            paramType.getSimpleName(), param.getName());
+                }
+                case VALUE -> {
+                    // Значение из данных теста
+                    Object value = dataIndex < dataRow.length ? dataRow[dataIndex] : null;
+                    dataIndex++;
+                    if (value != null) {
+                        params[slot.index()] = value;
+                        TestLogger.LOGGER.debug("Установлено значение '{}' для параметра {}", value, param.getName());
+                    } else {
+                        TestLogger.LOGGER.warn("Фабрика не может создать объект типа {} для параметра {}",
+                                slot.type().getSimpleName(), param.getName());
+                    }
                 }
             }
         }
-
-        return new Object[][]{params};
+        return params;
     }
 
     /**
@@ -454,6 +790,28 @@ public abstract class PlaywrightBaseTest {
         return usePage != null ? usePage.value() : DefaultPageFactory.class;
     }
 
+    /**
+     * Задает блокировки ресурсов теста: аннотация метода имеет приоритет над аннотацией
+     * класса, без аннотаций используются параметры network.block.* из конфигурации.
+     *
+     * @param method тестовый метод
+     */
+    private void applyBlockResources(Method method) {
+        BlockResources blockResources = method.getAnnotation(BlockResources.class);
+        for (Class<?> type = getClass(); blockResources == null && type != null; type = type.getSuperclass()) {
+            blockResources = type.getAnnotation(BlockResources.class);
+        }
+
+        if (blockResources == null) {
+            PlaywrightConfig config = PlaywrightConfig.getInstance();
+            NetworkRouter.block(browserContext, config.getBlockedResourceTypes(), config.getBlockedUrls());
+            return;
+        }
+        NetworkRouter.block(browserContext,
+                Arrays.stream(blockResources.value()).map(ResourceType::playwrightName).toList(),
+                Arrays.asList(blockResources.urls()));
+    }
+
     /**
      * Обновляет настройки текущего контекста браузера.
      * Полезно для изменения настроек во время выполнения теста.
@@ -465,15 +823,38 @@ public abstract class PlaywrightBaseTest {
         if (browserContext != null) {
             TestLogger.LOGGER.info("Обновление настроек контекста браузера");
 
-            // Закрываем текущий контекст и страницу
-            if (page != null) {
-                page.close();
+            // Трассировка контекста закрывается вместе с ним, поэтому сохраняем записанную часть;
+            // в afterMethod она будет оставлена или удалена по результату теста
+            String title = traceChunkTitle;
+            if (title != null) {
+                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS"));
+                Path part = stopTraceChunk(Paths.get("traces",
+                        title + "_part" + (traceParts.size() + 1) + "_" + timestamp + ".zip"));
+                if (part != null) {
+                    traceParts.add(part);
+                }
             }
-            browserContext.close();
+
+            // Закрываем текущий контекст и страницу
+            closeContext();
 
             // Создаем новый контекст с обновленными настройками
             browserContext = browser.newContext(options);
+            NetworkRouter.install(browserContext);
+            ITestResult current = Reporter.getCurrentTestResult();
+            NetworkRouter.installHar(browserContext, getClass(),
+                    isContextPerMethod() && current != null ? current.getMethod().getMethodName() : null);
             page = browserContext.newPage();
+            ThreadResourceRegistry.current().bind(browserSession, browserContext, page);
+
+            if (current != null) {
+                applyBlockResources(current.getMethod().getConstructorOrMethod().getMethod());
+            }
+
+            // Следующая часть трассировки теста записывается в новом контексте
+            if (title != null) {
+                startTraceChunk(title);
+            }
 
             TestLogger.LOGGER.info("Настройки контекста обновлены, создана новая страница");
         } else {
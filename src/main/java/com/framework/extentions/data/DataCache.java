@@ -0,0 +1,253 @@
+package com.framework.extentions.data;
+
+import com.framework.internal.logging.TestLogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Потокобезопасный кэш данных, загруженных из файлов.
+ * <p>
+ * Особенности:
+ * - Файл загружается одним потоком: параллельные запросы того же ключа ждут
+ * результата первой загрузки, а не читают файл повторно
+ * - Запись устаревает, если у файла изменились время изменения или размер
+ * - Общий вес записей (размер исходных файлов в байтах) ограничен; при превышении
+ * вытесняются записи, к которым дольше всего не обращались
+ * - Статистика попаданий и промахов доступна через {@link #stats()}
+ * <p>
+ * Кэш хранит значения как есть, поэтому загрузчик должен возвращать
+ * неизменяемые объекты, которые безопасно отдавать разным потокам.
+ * <p>
+ * Пример использования:
+ * ```
+ * DataCache cache = new DataCache(64 * 1024 * 1024);
+ * String text = cache.get("text", Path.of("data.txt"), Files::readString);
+ * TestLogger.LOGGER.info("Кэш данных: {}", cache.stats());
+ * ```
+ */
+public class DataCache {
+
+    /**
+     * Загрузчик значения из файла.
+     *
+     * @param <T> тип значения
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        /**
+         * Загружает значение из файла.
+         *
+         * @param path путь к файлу
+         * @return загруженное значение
+         * @throws IOException если файл не удалось прочитать
+         */
+        T load(Path path) throws IOException;
+    }
+
+    /**
+     * Статистика кэша.
+     *
+     * @param hits          число обращений, обслуженных из кэша
+     * @param misses        число обращений, потребовавших загрузки, в том числе ожидавших
+     *                      загрузки того же файла другим потоком
+     * @param evictions     число записей, вытесненных из-за ограничения веса
+     * @param invalidations число записей, устаревших из-за изменения файла
+     * @param size          число записей в кэше
+     * @param weight        общий вес записей в байтах
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size, long weight) {
+        /**
+         * @return доля обращений, обслуженных из кэша, от 0 до 1
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    /**
+     * Запись кэша.
+     *
+     * @param value    загруженное значение
+     * @param modified время изменения файла на момент загрузки
+     * @param weight   размер файла на момент загрузки
+     * @param lastUsed номер последнего обращения для вытеснения давно не используемых записей
+     */
+    private record Entry(Object value, FileTime modified, long weight, AtomicLong lastUsed) {
+        boolean matches(BasicFileAttributes attributes) {
+            return modified.equals(attributes.lastModifiedTime()) && weight == attributes.size();
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    private final long maxWeight;
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong totalWeight = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Создает кэш с ограничением общего веса.
+     *
+     * @param maxWeight максимальный общий размер закэшированных файлов в байтах
+     */
+    public DataCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Получает значение из кэша или загружает его.
+     *
+     * @param kind   вид данных; один файл может храниться в нескольких видах
+     * @param path   путь к файлу
+     * @param loader загрузчик значения
+     * @param <T>    тип значения
+     * @return значение, соответствующее текущему содержимому файла
+     * @throws UncheckedIOException если файл не удалось прочитать
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String kind, Path path, Loader<T> loader) {
+        String key = kind + ":" + path.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = readAttributes(path);
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.matches(attributes)) {
+            hits.incrementAndGet();
+            entry.lastUsed().set(clock.incrementAndGet());
+            return (T) entry.value();
+        }
+
+        CompletableFuture<Entry> future = new CompletableFuture<>();
+        CompletableFuture<Entry> inFlight = loading.putIfAbsent(key, future);
+        if (inFlight != null) {
+            // Файл уже загружается другим потоком: обращение ждет загрузки, поэтому это промах
+            misses.incrementAndGet();
+            return (T) join(inFlight).value();
+        }
+
+        try {
+            // Загрузка другого потока могла завершиться между проверкой записи и putIfAbsent
+            Entry done = entries.get(key);
+            if (done != null && done.matches(attributes)) {
+                hits.incrementAndGet();
+                done.lastUsed().set(clock.incrementAndGet());
+                future.complete(done);
+                return (T) done.value();
+            }
+            misses.incrementAndGet();
+            Entry loaded = new Entry(loader.load(path), attributes.lastModifiedTime(), attributes.size(),
+                    new AtomicLong(clock.incrementAndGet()));
+            put(key, loaded);
+            future.complete(loaded);
+            return (T) loaded.value();
+        } catch (IOException e) {
+            UncheckedIOException error = new UncheckedIOException(e);
+            future.completeExceptionally(error);
+            throw error;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    /**
+     * Удаляет все записи кэша.
+     * Записи и их общий вес меняются под одной блокировкой с {@link #put},
+     * поэтому параллельная загрузка не искажает вес.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        totalWeight.set(0);
+    }
+
+    /**
+     * Получает текущую статистику кэша.
+     *
+     * @return статистика кэша
+     */
+    public Stats stats() {
+        return new Stats(hits.get(), misses.get(), evictions.get(), invalidations.get(),
+                entries.size(), totalWeight.get());
+    }
+
+    /**
+     * Сохраняет запись и вытесняет давно не используемые записи при превышении веса.
+     * Вызывается только при промахе, поэтому блокировка не замедляет чтение из кэша.
+     *
+     * @param key   ключ записи
+     * @param entry новая запись
+     */
+    private synchronized void put(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            invalidations.incrementAndGet();
+            totalWeight.addAndGet(-previous.weight());
+        }
+        if (totalWeight.addAndGet(entry.weight()) <= maxWeight) {
+            return;
+        }
+        List<Map.Entry<String, Entry>> candidates = new ArrayList<>(entries.entrySet());
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.getValue().lastUsed().get()));
+        for (Map.Entry<String, Entry> candidate : candidates) {
+            // Только что загруженную запись оставляем, даже если она одна превышает лимит
+            if (totalWeight.get() <= maxWeight || candidate.getValue() == entry) {
+                continue;
+            }
+            if (entries.remove(candidate.getKey(), candidate.getValue())) {
+                totalWeight.addAndGet(-candidate.getValue().weight());
+                evictions.incrementAndGet();
+                TestLogger.LOGGER.debug("Из кэша данных вытеснен {}", candidate.getKey());
+            }
+        }
+    }
+
+    /**
+     * Ожидает загрузку, выполняемую другим потоком.
+     *
+     * @param future результат загрузки
+     * @return загруженная запись
+     */
+    private static Entry join(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Читает время изменения и размер файла.
+     *
+     * @param path путь к файлу
+     * @return атрибуты файла
+     * @throws UncheckedIOException если файл недоступен
+     */
+    private static BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
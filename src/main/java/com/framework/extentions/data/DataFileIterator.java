@@ -0,0 +1,431 @@
+package com.framework.extentions.data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Потоковое чтение файла тестовых данных построчно.
+ * <p>
+ * Файл не загружается в память целиком: каждая строка читается и преобразуется
+ * в набор параметров только тогда, когда TestNG запрашивает следующий вызов теста.
+ * Поэтому первый тест запускается сразу, а расход памяти не зависит от размера файла.
+ * Файл закрывается после чтения последней строки.
+ * <p>
+ * Формат определяется по расширению файла:
+ * - .csv - первая строка содержит имена колонок, значения разделены запятыми,
+ * поддерживаются значения в двойных кавычках
+ * - .jsonl - каждая строка является JSON-объектом (поля по именам параметров)
+ * или JSON-массивом (значения по порядку)
+ * - .json - JSON массив таких же элементов, читается потоково по одному элементу
+ * - остальные - каждая строка целиком передается в первый параметр
+ * <p>
+ * Колонки CSV и поля JSONL сопоставляются с параметрами метода по имени
+ * (при компиляции с флагом -parameters); если колонки или поля с именем параметра нет,
+ * чтение завершается ошибкой с этим именем. По порядку значения сопоставляются, только
+ * если имена параметров недоступны или строка JSONL является массивом. Значения приводятся
+ * к типам параметров: строки, числа, boolean, перечисления, BigDecimal,
+ * а для JSONL и JSON - любые типы, поддерживаемые Gson, включая record:
+ * параметр-record, имени которого нет среди полей, получает весь объект.
+ * <p>
+ * Пример использования:
+ * ```
+ * // users.csv:
+ * // username,age,active
+ * // alice,30,true
+ * @Test(dataProvider = "testData", dataProviderClass = TestDataProvider.class)
+ * @TestData(dataFile = "src/test/resources/testdata/users.csv")
+ * public void testUser(String username, int age, boolean active) {
+ * }
+ * <p>
+ * // users.json: [{"username": "alice", "age": 30}, ...]
+ * record User(String username, int age) {}
+ * @Test(dataProvider = "testData", dataProviderClass = TestDataProvider.class)
+ * @TestData(dataFile = "src/test/resources/testdata/users.json")
+ * public void testUser(User user) {
+ * }
+ * ```
+ */
+public final class DataFileIterator implements Iterator<Object[]>, AutoCloseable {
+
+    /**
+     * Формат файла данных.
+     */
+    private enum Format {
+        LINES,
+        CSV,
+        JSONL,
+        JSON
+    }
+
+    /**
+     * Экземпляр Gson для преобразования значений параметризованных типов.
+     */
+    private static final Gson gson = new Gson();
+
+    private final String fileName;
+    private final BufferedReader reader;
+    private final Format format;
+    private final Parameter[] columns;
+
+    /**
+     * Индекс колонки файла для каждого параметра (для CSV) или -1 для сопоставления по порядку.
+     */
+    private final int[] columnIndexes;
+
+    /**
+     * Потоковый разборщик для файлов .json.
+     */
+    private final JsonReader jsonReader;
+
+    /**
+     * Следующая прочитанная строка или null, если файл закончился.
+     */
+    private String nextLine;
+
+    /**
+     * Следующий элемент JSON массива или null, если массив закончился.
+     */
+    private JsonElement nextElement;
+
+    /**
+     * Номер последней прочитанной строки файла для сообщений об ошибках.
+     */
+    private long lineNumber;
+
+    private DataFileIterator(String fileName, BufferedReader reader, Format format, Parameter[] columns) {
+        this.fileName = fileName;
+        this.reader = reader;
+        this.format = format;
+        this.columns = columns;
+        this.columnIndexes = new int[columns.length];
+        Arrays.fill(columnIndexes, -1);
+        this.jsonReader = format == Format.JSON ? new JsonReader(reader) : null;
+        if (jsonReader != null) {
+            try {
+                jsonReader.beginArray();
+            } catch (IOException | IllegalStateException e) {
+                close();
+                throw new IllegalArgumentException("Файл " + fileName + " должен содержать JSON массив", e);
+            }
+        }
+        if (format == Format.CSV) {
+            String header = readLine();
+            if (header != null) {
+                mapHeader(splitCsv(header));
+            }
+        }
+        advance();
+    }
+
+    /**
+     * Открывает файл данных для потокового чтения.
+     *
+     * @param dataFile путь к файлу с данными
+     * @param columns  параметры метода, которые заполняются данными из файла
+     * @return итератор наборов параметров
+     * @throws RuntimeException если файл не удалось открыть
+     */
+    public static DataFileIterator open(String dataFile, Parameter[] columns) {
+        try {
+            return new DataFileIterator(dataFile, Files.newBufferedReader(Path.of(dataFile)),
+                    detectFormat(dataFile), columns);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка чтения файла с тестовыми данными: " + dataFile, e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextLine != null || nextElement != null;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Файл с тестовыми данными прочитан полностью: " + fileName);
+        }
+        String line = nextLine;
+        JsonElement element = nextElement;
+        long number = lineNumber;
+        advance();
+        try {
+            return switch (format) {
+                case LINES -> columns.length == 0 ? new Object[]{line}
+                        : new Object[]{convert(line, columns[0].getType())};
+                case CSV -> mapCsv(splitCsv(line));
+                case JSONL -> mapJson(JsonParser.parseString(line));
+                case JSON -> mapJson(element);
+            };
+        } catch (RuntimeException e) {
+            String position = format == Format.JSON ? "элементе " : "строке ";
+            throw new IllegalArgumentException("Ошибка в " + position + number + " файла " + fileName +
+                    ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Закрывает файл, если он еще не прочитан до конца.
+     */
+    @Override
+    public void close() {
+        nextLine = null;
+        nextElement = null;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Читает следующую строку с данными, пропуская пустые строки CSV и JSONL.
+     * Закрывает файл по достижении конца.
+     */
+    private void advance() {
+        if (jsonReader != null) {
+            advanceElement();
+            return;
+        }
+        String line;
+        do {
+            line = readLine();
+        } while (line != null && format != Format.LINES && line.isBlank());
+        nextLine = line != null && format == Format.LINES ? line.trim() : line;
+        if (nextLine == null) {
+            close();
+        }
+    }
+
+    /**
+     * Читает следующий элемент JSON массива. Закрывает файл по достижении конца массива.
+     */
+    private void advanceElement() {
+        try {
+            if (jsonReader.hasNext()) {
+                nextElement = JsonParser.parseReader(jsonReader);
+                lineNumber++;
+            } else {
+                close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения файла с тестовыми данными: " + fileName, e);
+        }
+    }
+
+    /**
+     * Читает строку файла.
+     *
+     * @return строка или null в конце файла
+     */
+    private String readLine() {
+        try {
+            String line = reader.readLine();
+            if (line != null) {
+                lineNumber++;
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения файла с тестовыми данными: " + fileName, e);
+        }
+    }
+
+    /**
+     * Сопоставляет колонки заголовка CSV с параметрами по имени.
+     * Без имен параметров (компиляция без -parameters) колонки сопоставляются по порядку.
+     *
+     * @param header имена колонок
+     * @throws IllegalArgumentException если колонки с именем параметра нет в заголовке
+     */
+    private void mapHeader(List<String> header) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].isNamePresent()) {
+                columnIndexes[i] = header.indexOf(columns[i].getName());
+                if (columnIndexes[i] < 0) {
+                    close();
+                    throw new IllegalArgumentException("В файле " + fileName + " нет колонки '" +
+                            columns[i].getName() + "' для параметра теста, колонки: " + header);
+                }
+            }
+        }
+    }
+
+    /**
+     * Преобразует значения строки CSV в параметры метода.
+     *
+     * @param values значения колонок
+     * @return набор параметров
+     */
+    private Object[] mapCsv(List<String> values) {
+        Object[] row = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            int index = columnIndexes[i] >= 0 ? columnIndexes[i] : i;
+            String value = index < values.size() ? values.get(index) : null;
+            row[i] = convert(value, columns[i].getType());
+        }
+        return row;
+    }
+
+    /**
+     * Преобразует строку JSONL или элемент JSON массива в параметры метода.
+     * Параметр-record, имени которого нет среди полей объекта, получает весь объект.
+     *
+     * @param element JSON-объект или JSON-массив
+     * @return набор параметров
+     * @throws IllegalArgumentException если в объекте нет поля с именем параметра
+     */
+    private Object[] mapJson(JsonElement element) {
+        Object[] row = new Object[columns.length];
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            for (int i = 0; i < columns.length && i < array.size(); i++) {
+                row[i] = fromJson(array.get(i), columns[i]);
+            }
+            return row;
+        }
+        JsonObject object = element.getAsJsonObject();
+        List<JsonElement> ordered = new ArrayList<>(object.asMap().values());
+        for (int i = 0; i < columns.length; i++) {
+            JsonElement value;
+            if (columns[i].isNamePresent() && object.has(columns[i].getName())) {
+                value = object.get(columns[i].getName());
+            } else if (columns[i].getType().isRecord()) {
+                value = object;
+            } else if (columns[i].isNamePresent()) {
+                throw new IllegalArgumentException("Нет поля '" + columns[i].getName() +
+                        "' для параметра теста, поля: " + object.keySet());
+            } else {
+                value = i < ordered.size() ? ordered.get(i) : null;
+            }
+            row[i] = value != null ? fromJson(value, columns[i]) : null;
+        }
+        return row;
+    }
+
+    /**
+     * Преобразует JSON значение к типу параметра.
+     * Для обычных классов используется адаптер Gson, закэшированный DataManager.
+     *
+     * @param value     JSON значение
+     * @param parameter параметр метода
+     * @return значение нужного типа
+     */
+    private static Object fromJson(JsonElement value, Parameter parameter) {
+        if (parameter.getParameterizedType() instanceof Class<?> type) {
+            return DataManager.getAdapter(type).fromJsonTree(value);
+        }
+        return gson.fromJson(value, parameter.getParameterizedType());
+    }
+
+    /**
+     * Разбивает строку CSV на значения.
+     * Значение в двойных кавычках может содержать запятые, кавычка внутри него
+     * записывается двумя кавычками.
+     *
+     * @param line строка CSV
+     * @return значения колонок
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    /**
+     * Приводит строковое значение к типу параметра.
+     *
+     * @param value строковое значение или null
+     * @param type  тип параметра
+     * @return значение нужного типа
+     * @throws IllegalArgumentException если тип не поддерживается или значение некорректно
+     */
+    private static Object convert(String value, Class<?> type) {
+        if (type == String.class || type == Object.class) {
+            return value;
+        }
+        if (value == null || value.isEmpty()) {
+            if (type.isPrimitive()) {
+                throw new IllegalArgumentException("Нет значения для параметра типа " + type.getSimpleName());
+            }
+            return null;
+        }
+        if (type == int.class || type == Integer.class) {
+            return Integer.parseInt(value);
+        } else if (type == long.class || type == Long.class) {
+            return Long.parseLong(value);
+        } else if (type == double.class || type == Double.class) {
+            return Double.parseDouble(value);
+        } else if (type == float.class || type == Float.class) {
+            return Float.parseFloat(value);
+        } else if (type == boolean.class || type == Boolean.class) {
+            return Boolean.parseBoolean(value);
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        } else if (type.isEnum()) {
+            for (Object constant : type.getEnumConstants()) {
+                if (((Enum<?>) constant).name().equalsIgnoreCase(value)) {
+                    return constant;
+                }
+            }
+            throw new IllegalArgumentException("Неизвестное значение " + value + " для " + type.getSimpleName());
+        }
+        throw new IllegalArgumentException("Неподдерживаемый тип параметра: " + type.getSimpleName());
+    }
+
+    /**
+     * Определяет формат файла по расширению.
+     *
+     * @param dataFile путь к файлу
+     * @return формат файла
+     */
+    private static Format detectFormat(String dataFile) {
+        String name = dataFile.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return Format.CSV;
+        } else if (name.endsWith(".jsonl")) {
+            return Format.JSONL;
+        } else if (name.endsWith(".json")) {
+            return Format.JSON;
+        }
+        return Format.LINES;
+    }
+}
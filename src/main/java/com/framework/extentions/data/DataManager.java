@@ -1,16 +1,28 @@
 package com.framework.extentions.data;
 
+import com.framework.api.config.PlaywrightConfig;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import java.io.FileReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Менеджер для работы с тестовыми данными.
@@ -19,8 +31,14 @@ import java.util.Map;
  * - JSON файлы (отдельные объекты или массивы)
  * - Текстовые файлы
  * <p>
- * Реализует кэширование данных для повышения производительности
- * при повторных обращениях к одним и тем же файлам.
+ * Реализует потокобезопасное кэширование данных для повышения производительности
+ * при повторных обращениях к одним и тем же файлам (см. {@link DataCache}).
+ * Изменение файла сбрасывает его запись в кэше, а общий объем кэша ограничен
+ * параметром data.cache.maxBytes. Возвращаемые коллекции неизменяемы.
+ * <p>
+ * JSON файлы размером от data.snapshot.minBytes загружаются через бинарный снимок
+ * (см. {@link JsonSnapshot}): файл разбирается один раз, а записи массива
+ * декодируются из отображенного в память снимка только при обращении к ним.
  * <p>
  * Пример использования:
  * ```
@@ -35,6 +53,10 @@ import java.util.Map;
  * // Использование данных
  * }
  * <p>
+ * // Загрузка массива сразу в record без Map и приведения типов
+ * record User(String email, int age) {}
+ * List<User> users = DataManager.loadArray("src/test/resources/data/users.json", User.class);
+ * <p>
  * // Загрузка текстового файла
  * String template = DataManager.loadTextData("src/test/resources/templates/email.txt");
  * ```
@@ -42,35 +64,43 @@ import java.util.Map;
 public class DataManager {
     /**
      * Кэш для хранения загруженных данных.
-     * Ключ - путь к файлу, значение - загруженные данные.
+     * Ключ - вид данных и путь к файлу, значение - неизменяемые загруженные данные.
      */
-    private static final Map<String, Object> dataCache = new HashMap<>();
+    private static final DataCache dataCache =
+            new DataCache(PlaywrightConfig.getInstance().getDataCacheMaxBytes());
 
     /**
      * Экземпляр Gson для преобразования JSON.
      */
     private static final Gson gson = new Gson();
 
+    /**
+     * Адаптеры Gson по типам данных.
+     */
+    private static final Map<Class<?>, TypeAdapter<?>> adapters = new ConcurrentHashMap<>();
+
     /**
      * Загружает объект из JSON файла.
      *
      * @param filePath путь к JSON файлу
-     * @return карта с данными из файла
+     * @return неизменяемая карта с данными из файла
      * @throws RuntimeException если файл не найден или произошла ошибка при чтении
      */
     public static Map<String, Object> loadJsonData(String filePath) {
-        if (dataCache.containsKey(filePath)) {
-            return (Map<String, Object>) dataCache.get(filePath);
-        }
-
-        try (FileReader reader = new FileReader(filePath)) {
-            Type type = new TypeToken<Map<String, Object>>() {
-            }.getType();
-            Map<String, Object> data = gson.fromJson(reader, type);
-            dataCache.put(filePath, data);
-            return data;
-        } catch (IOException e) {
-            throw new RuntimeException("Не удалось загрузить JSON данные из " + filePath, e);
+        try {
+            return dataCache.get("json", Path.of(filePath), path -> {
+                if (useSnapshot(path)) {
+                    return JsonSnapshot.loadObject(path, PlaywrightConfig.getInstance().getDataSnapshotDir());
+                }
+                try (Reader reader = Files.newBufferedReader(path)) {
+                    Type type = new TypeToken<Map<String, Object>>() {
+                    }.getType();
+                    Map<String, Object> data = gson.fromJson(reader, type);
+                    return freeze(data);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw new RuntimeException("Не удалось загрузить JSON данные из " + filePath, e.getCause());
         }
     }
 
@@ -78,25 +108,105 @@ public class DataManager {
      * Загружает массив объектов из JSON файла.
      *
      * @param filePath путь к JSON файлу
-     * @return список карт с данными из файла
+     * @return неизменяемый список карт с данными из файла
      * @throws RuntimeException если файл не найден или произошла ошибка при чтении
      */
     public static List<Map<String, Object>> loadJsonArray(String filePath) {
-        if (dataCache.containsKey(filePath)) {
-            return (List<Map<String, Object>>) dataCache.get(filePath);
+        try {
+            return dataCache.get("jsonArray", Path.of(filePath), path -> {
+                if (useSnapshot(path)) {
+                    return JsonSnapshot.loadArray(path, PlaywrightConfig.getInstance().getDataSnapshotDir());
+                }
+                try (Reader reader = Files.newBufferedReader(path)) {
+                    Type type = new TypeToken<List<Map<String, Object>>>() {
+                    }.getType();
+                    List<Map<String, Object>> data = gson.fromJson(reader, type);
+                    return freeze(data);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw new RuntimeException("Не удалось загрузить JSON массив из " + filePath, e.getCause());
+        }
+    }
+
+    /**
+     * Загружает JSON объект из файла и преобразует его в объект указанного типа,
+     * например в record. Объект читается потоково через JsonReader, без промежуточных
+     * Map и дерева JSON; числа читаются сразу в типы полей.
+     * <p>
+     * В кэше хранится содержимое файла, а объект создается из него при каждом
+     * вызове, поэтому изменяемые классы данных не разделяются между тестами.
+     *
+     * @param filePath путь к JSON файлу
+     * @param type     класс, в который преобразуются данные
+     * @param <T>      тип данных
+     * @return новый объект с данными из файла
+     * @throws RuntimeException если файл не найден или произошла ошибка при чтении
+     */
+    public static <T> T load(String filePath, Class<T> type) {
+        TypeAdapter<T> adapter = getAdapter(type);
+        try (JsonReader reader = openReader(Path.of(filePath))) {
+            return adapter.read(reader);
+        } catch (IOException | UncheckedIOException | JsonParseException e) {
+            throw new RuntimeException("Не удалось загрузить JSON данные из " + filePath, e);
         }
+    }
 
-        try (FileReader reader = new FileReader(filePath)) {
-            Type type = new TypeToken<List<Map<String, Object>>>() {
-            }.getType();
-            List<Map<String, Object>> data = gson.fromJson(reader, type);
-            dataCache.put(filePath, data);
-            return data;
-        } catch (IOException e) {
+    /**
+     * Загружает JSON массив из файла и преобразует каждый элемент в объект указанного типа.
+     * Как и в {@link #load(String, Class)}, элементы читаются потоково из закэшированного
+     * содержимого файла при каждом вызове.
+     *
+     * @param filePath путь к JSON файлу
+     * @param type     класс элементов, например record
+     * @param <T>      тип элементов
+     * @return неизменяемый список новых объектов
+     * @throws RuntimeException если файл не найден, не содержит массив или произошла ошибка при чтении
+     */
+    public static <T> List<T> loadArray(String filePath, Class<T> type) {
+        TypeAdapter<T> adapter = getAdapter(type);
+        try (JsonReader reader = openReader(Path.of(filePath))) {
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                throw new IllegalStateException("Файл " + filePath + " не содержит JSON массив");
+            }
+            List<T> items = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                items.add(adapter.read(reader));
+            }
+            reader.endArray();
+            return Collections.unmodifiableList(items);
+        } catch (IOException | UncheckedIOException | JsonParseException e) {
             throw new RuntimeException("Не удалось загрузить JSON массив из " + filePath, e);
         }
     }
 
+    /**
+     * Открывает потоковое чтение JSON файла из закэшированного содержимого.
+     * Массив байтов изменяемый, поэтому наружу не отдается: из него только читаются объекты.
+     *
+     * @param path путь к JSON файлу
+     * @return JsonReader над содержимым файла
+     * @throws UncheckedIOException если файл не удалось прочитать
+     */
+    private static JsonReader openReader(Path path) {
+        byte[] content = dataCache.get("bytes", path, Files::readAllBytes);
+        return new JsonReader(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Получает адаптер Gson для типа, создавая его при первом обращении.
+     * Адаптеры создаются один раз на тип и используются всеми потоками.
+     *
+     * @param type класс данных
+     * @param <T>  тип данных
+     * @return адаптер Gson
+     */
+    @SuppressWarnings("unchecked")
+    static <T> TypeAdapter<T> getAdapter(Class<T> type) {
+        return (TypeAdapter<T>) adapters.computeIfAbsent(type, gson::getAdapter);
+    }
+
     /**
      * Загружает текстовый файл.
      *
@@ -105,16 +215,63 @@ public class DataManager {
      * @throws RuntimeException если файл не найден или произошла ошибка при чтении
      */
     public static String loadTextData(String filePath) {
-        if (dataCache.containsKey(filePath)) {
-            return (String) dataCache.get(filePath);
+        try {
+            return dataCache.get("text", Path.of(filePath), Files::readString);
+        } catch (UncheckedIOException e) {
+            throw new RuntimeException("Не удалось загрузить текстовые данные из " + filePath, e.getCause());
         }
+    }
 
-        try {
-            String content = Files.readString(Path.of(filePath));
-            dataCache.put(filePath, content);
-            return content;
-        } catch (IOException e) {
-            throw new RuntimeException("Не удалось загрузить текстовые данные из " + filePath, e);
+    /**
+     * Получает статистику кэша данных.
+     * Позволяет проверить, насколько часто данные берутся из кэша.
+     *
+     * @return статистика попаданий, промахов и вытеснений
+     */
+    public static DataCache.Stats getCacheStats() {
+        return dataCache.stats();
+    }
+
+    /**
+     * Очищает кэш данных.
+     */
+    public static void clearCache() {
+        dataCache.clear();
+    }
+
+    /**
+     * Проверяет, нужно ли загружать JSON файл через бинарный снимок.
+     * Небольшие файлы быстрее разобрать напрямую.
+     *
+     * @param path путь к JSON файлу
+     * @return true, если размер файла не меньше data.snapshot.minBytes
+     * @throws IOException если размер файла не удалось получить
+     */
+    private static boolean useSnapshot(Path path) throws IOException {
+        long minBytes = PlaywrightConfig.getInstance().getDataSnapshotMinBytes();
+        return minBytes >= 0 && Files.size(path) >= minBytes;
+    }
+
+    /**
+     * Преобразует загруженные JSON данные в неизменяемые коллекции.
+     * Одни и те же данные отдаются всем потокам, поэтому изменять их нельзя.
+     *
+     * @param value значение из Gson
+     * @param <T>   тип значения
+     * @return неизменяемая копия значения
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T freeze(T value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((key, item) -> copy.put(key, freeze(item)));
+            return (T) Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(item -> copy.add(freeze(item)));
+            return (T) Collections.unmodifiableList(copy);
         }
+        return value;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,465 @@
+package com.framework.extentions.data;
+
+import com.framework.internal.logging.TestLogger;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Бинарный снимок JSON файла с тестовыми данными.
+ * <p>
+ * При первой загрузке JSON разбирается потоково и записывается в компактный
+ * индексированный файл снимка. Следующие загрузки отображают снимок в память через
+ * {@link FileChannel#map} и не разбирают JSON: записи массива декодируются только
+ * при обращении к ним, поэтому загрузка большого файла ограничена скоростью
+ * чтения с диска, а не разбором и созданием объектов.
+ * <p>
+ * Снимок пересоздается, если исходный файл изменился (время изменения или размер).
+ * Значения декодируются в те же типы, что и при разборе через Gson в Map:
+ * числа - Double, объекты - Map, массивы - List. Коллекции неизменяемы.
+ * <p>
+ * Формат снимка:
+ * - заголовок: сигнатура, версия, время изменения и размер исходного файла,
+ * число записей, позиция индекса, признак массива в корне документа
+ * - записи: значения в формате "тег + данные"
+ * - индекс: смещения начала каждой записи
+ * <p>
+ * Снимок отображается в память одним буфером, поэтому его размер ограничен 2 ГБ;
+ * для файлов, снимок которых превышает этот размер, загрузка завершается ошибкой.
+ * <p>
+ * Пример использования:
+ * ```
+ * List<Map<String, Object>> users = JsonSnapshot.loadArray(Path.of("users.json"), Path.of("target/data-snapshots"));
+ * Map<String, Object> first = users.get(0); // декодируется только эта запись
+ * ```
+ */
+public final class JsonSnapshot {
+
+    private static final int MAGIC = 0x50544A53;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 8 + 1;
+
+    /**
+     * Максимальный размер снимка: буфер, отображенный в память, адресуется int.
+     */
+    private static final long MAX_SNAPSHOT_SIZE = Integer.MAX_VALUE;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_FALSE = 1;
+    private static final byte TAG_TRUE = 2;
+    private static final byte TAG_NUMBER = 3;
+    private static final byte TAG_STRING = 4;
+    private static final byte TAG_ARRAY = 5;
+    private static final byte TAG_OBJECT = 6;
+
+    private JsonSnapshot() {
+    }
+
+    /**
+     * Загружает JSON массив объектов через снимок.
+     *
+     * @param source      исходный JSON файл
+     * @param snapshotDir директория для файлов снимков
+     * @return неизменяемый список с ленивым декодированием записей
+     * @throws IOException           если файл не удалось прочитать или записать снимок
+     * @throws IllegalStateException если в корне файла не массив
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Map<String, Object>> loadArray(Path source, Path snapshotDir) throws IOException {
+        RecordList records = open(source, snapshotDir);
+        if (!records.arrayRoot) {
+            throw new IllegalStateException("Файл " + source + " не содержит JSON массив");
+        }
+        return (List<Map<String, Object>>) (List<?>) records;
+    }
+
+    /**
+     * Загружает JSON объект через снимок.
+     *
+     * @param source      исходный JSON файл
+     * @param snapshotDir директория для файлов снимков
+     * @return неизменяемая карта с данными
+     * @throws IOException           если файл не удалось прочитать или записать снимок
+     * @throws IllegalStateException если в корне файла не объект
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> loadObject(Path source, Path snapshotDir) throws IOException {
+        RecordList records = open(source, snapshotDir);
+        Object root = records.arrayRoot ? null : records.get(0);
+        if (!(root instanceof Map)) {
+            throw new IllegalStateException("Файл " + source + " не содержит JSON объект");
+        }
+        return (Map<String, Object>) root;
+    }
+
+    /**
+     * Открывает снимок исходного файла, создавая его при необходимости.
+     * Для JSON массива каждая его запись хранится отдельно, иначе снимок
+     * содержит одну запись со всем документом.
+     *
+     * @param source      исходный JSON файл
+     * @param snapshotDir директория для файлов снимков
+     * @return список записей снимка
+     * @throws IOException если файл не удалось прочитать или записать снимок
+     */
+    private static RecordList open(Path source, Path snapshotDir) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        Path snapshot = snapshotDir.resolve(snapshotName(source));
+
+        MappedByteBuffer buffer = Files.exists(snapshot) ? map(snapshot) : null;
+        if (buffer == null || !isCurrent(buffer, attributes)) {
+            long start = System.currentTimeMillis();
+            compile(source, snapshot, attributes);
+            buffer = map(snapshot);
+            TestLogger.LOGGER.info("Создан снимок данных {} за {} мс", snapshot, System.currentTimeMillis() - start);
+        }
+        return new RecordList(buffer);
+    }
+
+    /**
+     * Отображает файл снимка в память.
+     *
+     * @param snapshot путь к снимку
+     * @return буфер только для чтения
+     * @throws IOException если файл не удалось открыть
+     */
+    private static MappedByteBuffer map(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (channel.size() > MAX_SNAPSHOT_SIZE) {
+                throw new IOException("Снимок данных " + snapshot + " больше 2 ГБ");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Проверяет, что снимок создан из текущей версии исходного файла.
+     *
+     * @param buffer     содержимое снимка
+     * @param attributes атрибуты исходного файла
+     * @return true, если снимок можно использовать
+     */
+    private static boolean isCurrent(ByteBuffer buffer, BasicFileAttributes attributes) {
+        return buffer.capacity() >= HEADER_SIZE
+                && buffer.getInt(0) == MAGIC
+                && buffer.getInt(4) == VERSION
+                && buffer.getLong(8) == attributes.lastModifiedTime().toMillis()
+                && buffer.getLong(16) == attributes.size();
+    }
+
+    /**
+     * Создает снимок, разбирая JSON потоково без построения дерева в памяти.
+     * Снимок записывается во временный файл и атомарно заменяет старый.
+     * Если снимок не помещается в 2 ГБ, запись прерывается.
+     *
+     * @param source     исходный JSON файл
+     * @param snapshot   путь к снимку
+     * @param attributes атрибуты исходного файла
+     * @throws IOException если файл не удалось прочитать или записать
+     */
+    private static void compile(Path source, Path snapshot, BasicFileAttributes attributes) throws IOException {
+        Files.createDirectories(snapshot.getParent());
+        Path temp = Files.createTempFile(snapshot.getParent(), snapshot.getFileName().toString(), ".tmp");
+        List<Long> offsets = new ArrayList<>();
+        boolean arrayRoot;
+
+        try (Reader reader = Files.newBufferedReader(source);
+             JsonReader json = new JsonReader(reader);
+             FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.position(HEADER_SIZE);
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(record);
+
+            arrayRoot = json.peek() == JsonToken.BEGIN_ARRAY;
+            if (arrayRoot) {
+                json.beginArray();
+                while (json.hasNext()) {
+                    offsets.add(channel.position());
+                    writeValue(json, out);
+                    writeRecord(channel, record);
+                    checkSize(channel.position() + offsets.size() * 8L, source);
+                }
+                json.endArray();
+            } else {
+                offsets.add(channel.position());
+                writeValue(json, out);
+                writeRecord(channel, record);
+            }
+
+            // Индекс записей
+            long indexPosition = channel.position();
+            checkSize(indexPosition + offsets.size() * 8L, source);
+            ByteBuffer index = ByteBuffer.allocate(offsets.size() * 8);
+            for (long offset : offsets) {
+                index.putLong(offset);
+            }
+            index.flip();
+            writeFully(channel, index, indexPosition);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(attributes.lastModifiedTime().toMillis())
+                    .putLong(attributes.size())
+                    .putInt(offsets.size())
+                    .putLong(indexPosition)
+                    .put((byte) (arrayRoot ? 1 : 0));
+            header.flip();
+            writeFully(channel, header, 0);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Проверяет, что снимок не превышает размер, который можно отобразить в память.
+     *
+     * @param size   текущий размер снимка в байтах
+     * @param source исходный JSON файл
+     * @throws IOException если снимок больше 2 ГБ
+     */
+    private static void checkSize(long size, Path source) throws IOException {
+        if (size > MAX_SNAPSHOT_SIZE) {
+            throw new IOException("Снимок данных для " + source + " больше 2 ГБ; " +
+                    "отключите снимки для этого файла через data.snapshot.minBytes");
+        }
+    }
+
+    /**
+     * Записывает накопленную запись в канал и очищает буфер записи.
+     *
+     * @param channel канал файла снимка
+     * @param record  буфер записи
+     * @throws IOException если запись не удалась
+     */
+    private static void writeRecord(FileChannel channel, ByteArrayOutputStream record) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(record.toByteArray());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        record.reset();
+    }
+
+    /**
+     * Записывает буфер в канал с указанной позиции.
+     *
+     * @param channel  канал файла
+     * @param buffer   данные
+     * @param position позиция в файле
+     * @throws IOException если запись не удалась
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Кодирует очередное JSON значение в бинарный формат.
+     *
+     * @param json потоковый разборщик JSON
+     * @param out  поток записи
+     * @throws IOException если JSON некорректен
+     */
+    private static void writeValue(JsonReader json, DataOutputStream out) throws IOException {
+        switch (json.peek()) {
+            case NULL -> {
+                json.nextNull();
+                out.writeByte(TAG_NULL);
+            }
+            case BOOLEAN -> out.writeByte(json.nextBoolean() ? TAG_TRUE : TAG_FALSE);
+            case NUMBER -> {
+                out.writeByte(TAG_NUMBER);
+                out.writeDouble(json.nextDouble());
+            }
+            case STRING -> {
+                out.writeByte(TAG_STRING);
+                writeString(json.nextString(), out);
+            }
+            case BEGIN_ARRAY -> {
+                // Число элементов заранее неизвестно, поэтому элементы кодируются отдельно
+                ByteArrayOutputStream items = new ByteArrayOutputStream();
+                DataOutputStream itemsOut = new DataOutputStream(items);
+                int count = 0;
+                json.beginArray();
+                while (json.hasNext()) {
+                    writeValue(json, itemsOut);
+                    count++;
+                }
+                json.endArray();
+                out.writeByte(TAG_ARRAY);
+                out.writeInt(count);
+                items.writeTo(out);
+            }
+            case BEGIN_OBJECT -> {
+                ByteArrayOutputStream fields = new ByteArrayOutputStream();
+                DataOutputStream fieldsOut = new DataOutputStream(fields);
+                int count = 0;
+                json.beginObject();
+                while (json.hasNext()) {
+                    writeString(json.nextName(), fieldsOut);
+                    writeValue(json, fieldsOut);
+                    count++;
+                }
+                json.endObject();
+                out.writeByte(TAG_OBJECT);
+                out.writeInt(count);
+                fields.writeTo(out);
+            }
+            default -> throw new IOException("Неожиданный элемент JSON: " + json.peek());
+        }
+    }
+
+    /**
+     * Записывает строку в UTF-8 с длиной в байтах.
+     *
+     * @param value строка
+     * @param out   поток записи
+     * @throws IOException если запись не удалась
+     */
+    private static void writeString(String value, DataOutputStream out) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Получает имя файла снимка для исходного файла.
+     *
+     * @param source исходный JSON файл
+     * @return имя файла снимка
+     */
+    private static String snapshotName(Path source) {
+        Path absolute = source.toAbsolutePath().normalize();
+        return absolute.getFileName() + "-" + Integer.toHexString(absolute.toString().hashCode()) + ".snap";
+    }
+
+    /**
+     * Неизменяемый список записей снимка с ленивым декодированием.
+     * Каждая запись декодируется при первом обращении и запоминается.
+     * Чтение выполняется абсолютными методами буфера, поэтому список потокобезопасен.
+     */
+    private static final class RecordList extends AbstractList<Object> implements RandomAccess {
+        private final ByteBuffer buffer;
+        private final int size;
+        private final int indexPosition;
+        private final boolean arrayRoot;
+        private final AtomicReferenceArray<Object> decoded;
+
+        private RecordList(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.size = buffer.getInt(24);
+            // Размер снимка не больше 2 ГБ, поэтому смещения помещаются в int
+            this.indexPosition = Math.toIntExact(buffer.getLong(28));
+            this.arrayRoot = buffer.get(36) != 0;
+            this.decoded = new AtomicReferenceArray<>(size);
+        }
+
+        @Override
+        public Object get(int index) {
+            Object value = decoded.get(index);
+            if (value == null) {
+                int offset = Math.toIntExact(buffer.getLong(indexPosition + index * 8));
+                value = new Decoder(buffer, offset).read();
+                if (value != null) {
+                    decoded.compareAndSet(index, null, value);
+                    value = decoded.get(index);
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Декодер одного значения снимка.
+     */
+    private static final class Decoder {
+        private final ByteBuffer buffer;
+        private int position;
+
+        private Decoder(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        /**
+         * Декодирует значение с текущей позиции.
+         *
+         * @return значение в типах Gson: null, Boolean, Double, String, List или Map
+         */
+        private Object read() {
+            byte tag = buffer.get(position++);
+            return switch (tag) {
+                case TAG_NULL -> null;
+                case TAG_FALSE -> Boolean.FALSE;
+                case TAG_TRUE -> Boolean.TRUE;
+                case TAG_NUMBER -> {
+                    double value = buffer.getDouble(position);
+                    position += 8;
+                    yield value;
+                }
+                case TAG_STRING -> readString();
+                case TAG_ARRAY -> {
+                    int count = readInt();
+                    List<Object> items = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        items.add(read());
+                    }
+                    yield Collections.unmodifiableList(items);
+                }
+                case TAG_OBJECT -> {
+                    int count = readInt();
+                    Map<String, Object> fields = new LinkedHashMap<>();
+                    for (int i = 0; i < count; i++) {
+                        String name = readString();
+                        fields.put(name, read());
+                    }
+                    yield Collections.unmodifiableMap(fields);
+                }
+                default -> throw new IllegalStateException("Поврежденный снимок данных: тег " + tag);
+            };
+        }
+
+        private int readInt() {
+            int value = buffer.getInt(position);
+            position += 4;
+            return value;
+        }
+
+        private String readString() {
+            int length = readInt();
+            byte[] bytes = new byte[length];
+            buffer.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -4,12 +4,10 @@ import com.framework.api.annotations.TestData;
 import org.testng.ITestContext;
 import org.testng.annotations.DataProvider;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 
 /**
  * Провайдер данных для параметризованных тестов.
@@ -18,7 +16,7 @@ import java.util.List;
  * который извлекает тестовые данные из различных источников и
  * предоставляет их тестовым методам. Поддерживает извлечение данных:
  * - Непосредственно из аннотации {@link TestData}
- * - Из текстового файла
+ * - Из текстового, CSV или JSONL файла (потоково, без загрузки файла в память)
  * - Из контекста теста по имени набора данных
  * <p>
  * Использование этого класса позволяет:
@@ -55,15 +53,16 @@ public class TestDataProvider {
      * Поставщик данных для тестовых методов.
      * <p>
      * Анализирует аннотацию {@link TestData} у метода и извлекает данные
-     * из указанного источника. Возвращает двумерный массив объектов,
-     * где каждая строка представляет один набор тестовых данных.
+     * из указанного источника. Возвращает итератор наборов параметров:
+     * данные из файла читаются потоково, по одной строке на вызов теста
+     * (см. {@link DataFileIterator}).
      *
      * @param method  метод теста, для которого предоставляются данные
      * @param context контекст теста TestNG
-     * @return массив объектов с тестовыми данными или пустой массив, если данные не найдены
+     * @return итератор наборов тестовых данных; пустой, если данные не найдены
      */
     @DataProvider(name = "testData")
-    public static Object[][] provideTestData(Method method, ITestContext context) {
+    public static Iterator<Object[]> provideTestData(Method method, ITestContext context) {
         if (method.isAnnotationPresent(TestData.class)) {
             TestData testData = method.getAnnotation(TestData.class);
 
@@ -73,52 +72,38 @@ public class TestDataProvider {
                 for (int i = 0; i < testData.data().length; i++) {
                     result[i][0] = testData.data()[i];
                 }
-                return result;
+                return Arrays.asList(result).iterator();
             }
 
             // Если указан файл с данными
             if (!testData.dataFile().isEmpty()) {
-                return readDataFromFile(testData.dataFile());
+                return readDataFromFile(testData.dataFile(), method);
             }
 
             // Если указано имя набора данных
             if (!testData.dataSetName().isEmpty()) {
-                return getDataSetFromContext(testData.dataSetName(), context);
+                return Arrays.asList(getDataSetFromContext(testData.dataSetName(), context)).iterator();
             }
         }
 
-        // По умолчанию возвращаем пустой массив
-        return new Object[0][0];
+        // По умолчанию данных нет
+        return Collections.emptyIterator();
     }
 
     /**
-     * Читает данные из текстового файла.
+     * Открывает файл с данными для потокового чтения.
      * <p>
-     * Каждая строка файла становится отдельным набором тестовых данных.
-     * Пустые строки и пробелы в начале и конце строк удаляются.
+     * Для текстовых файлов каждая строка (без пробелов в начале и конце) становится
+     * отдельным набором тестовых данных. Строки CSV и JSONL преобразуются в значения
+     * параметров метода с приведением типов.
      *
      * @param fileName путь к файлу с данными
-     * @return массив объектов с данными из файла
+     * @param method   метод теста
+     * @return итератор наборов данных из файла
      * @throws RuntimeException если произошла ошибка при чтении файла
      */
-    private static Object[][] readDataFromFile(String fileName) {
-        List<String> lines = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                lines.add(line.trim());
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Ошибка чтения файла с тестовыми данными: " + fileName, e);
-        }
-
-        Object[][] result = new Object[lines.size()][1];
-        for (int i = 0; i < lines.size(); i++) {
-            result[i][0] = lines.get(i);
-        }
-
-        return result;
+    private static Iterator<Object[]> readDataFromFile(String fileName, Method method) {
+        return DataFileIterator.open(fileName, method.getParameters());
     }
 
     /**
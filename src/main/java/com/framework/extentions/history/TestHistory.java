@@ -0,0 +1,344 @@
+package com.framework.extentions.history;
+
+import com.framework.api.config.PlaywrightConfig;
+import com.framework.internal.logging.TestLogger;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * История результатов тестов между запусками.
+ * <p>
+ * Хранится в файле history.file (по умолчанию target/test-history.jsonl), в который
+ * только дописываются строки JSON - по одной на результат теста: статус, длительность
+ * и номер попытки. При загрузке для каждого теста учитываются последние записи;
+ * если старых записей в файле больше, чем актуальных, файл переписывается.
+ * <p>
+ * История используется для:
+ * - Отказа от повторов тестов, которые падают детерминированно: тест уже
+ * повторялся несколько раз, и ни один повтор не прошел
+ * - Упорядочивания тестов по ожидаемой длительности (см. DurationScheduler)
+ * <p>
+ * Пустое значение history.file отключает историю.
+ * <p>
+ * Пример использования:
+ * ```
+ * TestHistory.Stats stats = TestHistory.getStats("com.framework.tests.HomePageTest#testTitle");
+ * if (stats != null && stats.isKnownDeterministic(3)) {
+ * // повторять тест бесполезно
+ * }
+ * ```
+ */
+public final class TestHistory {
+
+    /**
+     * Итог одной попытки выполнения теста.
+     */
+    public enum Status {
+        PASS,
+        FAIL,
+        SKIP,
+        /**
+         * Попытка не прошла, и тест был повторен.
+         */
+        RETRY
+    }
+
+    /**
+     * Запись истории.
+     *
+     * @param test     идентификатор теста (класс#метод)
+     * @param status   итог попытки
+     * @param duration длительность попытки в миллисекундах
+     * @param attempt  номер попытки в рамках запуска, начиная с 0
+     * @param time     время окончания попытки в миллисекундах
+     */
+    public record Entry(String test, Status status, long duration, int attempt, long time) {
+    }
+
+    /**
+     * Сводка истории одного теста.
+     *
+     * @param runs            число учтенных итоговых результатов (PASS и FAIL)
+     * @param failures        число итоговых неудач
+     * @param retries         число повторов
+     * @param recovered       число прохождений после повтора
+     * @param averageDuration средняя длительность попытки в миллисекундах
+     */
+    public record Stats(int runs, int failures, int retries, int recovered, long averageDuration) {
+        /**
+         * Проверяет, что повторы теста не помогают: тест повторялся не меньше
+         * заданного числа раз, и ни один повтор не прошел.
+         *
+         * @param minRetries минимальное число повторов для вывода
+         * @return true, если тест падает детерминированно
+         */
+        public boolean isKnownDeterministic(int minRetries) {
+            return minRetries > 0 && retries >= minRetries && recovered == 0;
+        }
+    }
+
+    /**
+     * Максимальное число последних записей одного теста, учитываемых в сводке.
+     */
+    private static final int MAX_ENTRIES_PER_TEST = 50;
+
+    private static final Gson gson = new Gson();
+
+    /**
+     * Номера попыток выполняющихся тестов текущего запуска.
+     */
+    private static final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+
+    /**
+     * Сводки прошлых запусков; загружаются при первом обращении.
+     */
+    private static volatile Map<String, Stats> stats;
+
+    /**
+     * Открытый на дозапись файл истории.
+     */
+    private static BufferedWriter writer;
+
+    private TestHistory() {
+    }
+
+    /**
+     * Получает идентификатор теста, под которым он хранится в истории.
+     *
+     * @param method метод TestNG
+     * @return идентификатор в виде класс#метод
+     */
+    public static String idOf(ITestNGMethod method) {
+        return method.getRealClass().getName() + "#" + method.getMethodName();
+    }
+
+    /**
+     * Получает сводку прошлых запусков теста.
+     *
+     * @param test идентификатор теста
+     * @return сводка или null, если тест в истории не встречался
+     */
+    public static Stats getStats(String test) {
+        return loadStats().get(test);
+    }
+
+    /**
+     * Получает сводки всех тестов из истории.
+     *
+     * @return неизменяемая карта сводок по идентификаторам тестов
+     */
+    public static Map<String, Stats> getAllStats() {
+        return loadStats();
+    }
+
+    /**
+     * Читает сводки из произвольного файла истории, не изменяя его.
+     * Используется для общих между машинами копий истории.
+     *
+     * @param file путь к файлу
+     * @return неизменяемая карта сводок; пустая, если файла нет
+     */
+    public static Map<String, Stats> read(Path file) {
+        return Files.exists(file) ? load(file, false) : Collections.emptyMap();
+    }
+
+    /**
+     * Записывает итог попытки выполнения теста в историю.
+     *
+     * @param result результат теста
+     * @param status итог попытки
+     */
+    public static void record(ITestResult result, Status status) {
+        Path file = PlaywrightConfig.getInstance().getHistoryFile();
+        if (file == null) {
+            return;
+        }
+        // Файл может быть сжат при загрузке, поэтому загружаем его до первой дозаписи
+        loadStats();
+        String test = idOf(result.getMethod());
+        String invocation = test + "#" + Arrays.deepHashCode(result.getParameters())
+                + "@" + System.identityHashCode(result.getInstance());
+        int attempt = status == Status.RETRY
+                ? attempts.merge(invocation, 1, Integer::sum) - 1
+                : attempts.getOrDefault(invocation, 0);
+        if (status != Status.RETRY) {
+            attempts.remove(invocation);
+        }
+        Entry entry = new Entry(test, status, Math.max(0, result.getEndMillis() - result.getStartMillis()),
+                attempt, result.getEndMillis());
+        append(file, gson.toJson(entry));
+    }
+
+    /**
+     * Дописывает строку в файл истории.
+     *
+     * @param file путь к файлу
+     * @param line строка JSON
+     */
+    private static synchronized void append(Path file, String line) {
+        try {
+            if (writer == null) {
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                writer = Files.newBufferedWriter(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            TestLogger.LOGGER.error("Не удалось записать историю тестов в {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Загружает сводки из файла истории при первом обращении.
+     *
+     * @return сводки по идентификаторам тестов
+     */
+    private static Map<String, Stats> loadStats() {
+        Map<String, Stats> loaded = stats;
+        if (loaded == null) {
+            synchronized (TestHistory.class) {
+                loaded = stats;
+                if (loaded == null) {
+                    Path file = PlaywrightConfig.getInstance().getHistoryFile();
+                    loaded = file != null && Files.exists(file) ? load(file, true) : Collections.emptyMap();
+                    stats = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Читает файл истории, строит сводки и при необходимости сжимает файл.
+     *
+     * @param file    путь к файлу
+     * @param compact true - переписать файл, если в нем много устаревших записей
+     * @return сводки по идентификаторам тестов
+     */
+    private static Map<String, Stats> load(Path file, boolean compact) {
+        Map<String, Deque<Entry>> entries = new HashMap<>();
+        int total = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    Entry entry = gson.fromJson(line, Entry.class);
+                    if (entry == null || entry.test() == null || entry.status() == null) {
+                        continue;
+                    }
+                    Deque<Entry> recent = entries.computeIfAbsent(entry.test(), test -> new ArrayDeque<>());
+                    recent.addLast(entry);
+                    if (recent.size() > MAX_ENTRIES_PER_TEST) {
+                        recent.removeFirst();
+                    }
+                    total++;
+                } catch (JsonParseException e) {
+                    // Строка могла оборваться при аварийном завершении прошлого запуска
+                    TestLogger.LOGGER.debug("Пропущена поврежденная строка истории тестов: {}", line);
+                }
+            }
+        } catch (IOException e) {
+            TestLogger.LOGGER.error("Не удалось прочитать историю тестов {}: {}", file, e.getMessage());
+            return Collections.emptyMap();
+        }
+
+        Map<String, Stats> result = new HashMap<>();
+        int kept = 0;
+        for (Map.Entry<String, Deque<Entry>> test : entries.entrySet()) {
+            result.put(test.getKey(), summarize(test.getValue()));
+            kept += test.getValue().size();
+        }
+        if (compact && total > 2 * kept) {
+            compact(file, entries);
+        }
+        TestLogger.LOGGER.debug("Загружена история {} тестов из {}", result.size(), file);
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Строит сводку по записям одного теста.
+     *
+     * @param entries записи теста в порядке добавления
+     * @return сводка
+     */
+    private static Stats summarize(Deque<Entry> entries) {
+        int runs = 0;
+        int failures = 0;
+        int retries = 0;
+        int recovered = 0;
+        int measured = 0;
+        long durations = 0;
+        for (Entry entry : entries) {
+            if (entry.status() == Status.SKIP) {
+                continue;
+            }
+            if (entry.status() == Status.RETRY) {
+                retries++;
+            } else {
+                runs++;
+                if (entry.status() == Status.FAIL) {
+                    failures++;
+                } else if (entry.attempt() > 0) {
+                    recovered++;
+                }
+            }
+            measured++;
+            durations += entry.duration();
+        }
+        return new Stats(runs, failures, retries, recovered, measured == 0 ? 0 : durations / measured);
+    }
+
+    /**
+     * Переписывает файл истории, оставляя только учитываемые записи.
+     *
+     * @param file    путь к файлу
+     * @param entries записи по тестам
+     */
+    private static void compact(Path file, Map<String, Deque<Entry>> entries) {
+        List<Entry> kept = new ArrayList<>();
+        entries.values().forEach(kept::addAll);
+        kept.sort((first, second) -> Long.compare(first.time(), second.time()));
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp)) {
+            for (Entry entry : kept) {
+                out.write(gson.toJson(entry));
+                out.newLine();
+            }
+        } catch (IOException e) {
+            TestLogger.LOGGER.warn("Не удалось сжать историю тестов {}: {}", file, e.getMessage());
+            return;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            TestLogger.LOGGER.debug("История тестов {} сжата до {} записей", file, kept.size());
+        } catch (IOException e) {
+            TestLogger.LOGGER.warn("Не удалось заменить файл истории тестов {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package com.framework.extentions.mock;
+
+import com.framework.api.config.PlaywrightConfig;
+import com.framework.internal.logging.TestLogger;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Встроенный HTTP-сервер для тестов страниц без обращения к внешним сайтам.
+ * <p>
+ * Сервер запускается один раз при первом обращении (обычно при создании страницы
+ * в тесте с аннотацией MockServer) и останавливается в конце набора тестов.
+ * Запросы обрабатываются виртуальными потоками, поэтому сервер выдерживает
+ * любое число параллельных тестов.
+ * <p>
+ * Особенности:
+ * - Статические файлы берутся из mock.server.root (по умолчанию mock-site в classpath
+ * или одноименная директория); прочитанные файлы хранятся в памяти
+ * - Для пути, оканчивающегося на /, отдается index.html; запрос директории без
+ * завершающего / перенаправляется на путь с /, чтобы относительные ссылки страницы
+ * разрешались от директории
+ * - Заглушки API задаются в коде методом {@link #stub(String, String, Stub)}
+ * и имеют приоритет над статическими файлами; заглушки общие для всех тестов,
+ * поэтому параллельные тесты должны использовать разные пути
+ * - Сервер слушает только локальный адрес; порт задается параметром mock.server.port
+ * (0 - свободный порт)
+ * <p>
+ * Пример использования:
+ * ```
+ * MockHttpServer server = MockHttpServer.get();
+ * server.stub("GET", "/api/users", MockHttpServer.MockResponse.json(200, "[{\"name\":\"admin\"}]"));
+ * server.stub("POST", "/api/login", request -> request.bodyAsString().contains("admin")
+ * ? MockHttpServer.MockResponse.json(200, "{\"token\":\"abc\"}")
+ * : MockHttpServer.MockResponse.status(401));
+ * page.navigate(server.getBaseUrl() + "/login.html");
+ * ```
+ */
+public final class MockHttpServer {
+
+    /**
+     * Запрос к серверу.
+     *
+     * @param method  HTTP-метод
+     * @param path    путь без строки запроса
+     * @param query   строка запроса или null
+     * @param headers заголовки запроса
+     * @param body    тело запроса
+     */
+    public record MockRequest(String method, String path, String query, Map<String, List<String>> headers,
+                              byte[] body) {
+        /**
+         * @return тело запроса в кодировке UTF-8
+         */
+        public String bodyAsString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Ответ заглушки.
+     *
+     * @param status  код ответа
+     * @param headers заголовки ответа
+     * @param body    тело ответа
+     */
+    public record MockResponse(int status, Map<String, String> headers, byte[] body) {
+
+        /**
+         * Создает ответ с телом JSON.
+         *
+         * @param status код ответа
+         * @param json   тело ответа
+         * @return ответ
+         */
+        public static MockResponse json(int status, String json) {
+            return of(status, "application/json; charset=utf-8", json);
+        }
+
+        /**
+         * Создает ответ с HTML-страницей.
+         *
+         * @param html тело ответа
+         * @return ответ с кодом 200
+         */
+        public static MockResponse html(String html) {
+            return of(200, "text/html; charset=utf-8", html);
+        }
+
+        /**
+         * Создает ответ без тела.
+         *
+         * @param status код ответа
+         * @return ответ
+         */
+        public static MockResponse status(int status) {
+            return new MockResponse(status, Map.of(), new byte[0]);
+        }
+
+        /**
+         * Создает ответ с текстовым телом.
+         *
+         * @param status      код ответа
+         * @param contentType значение заголовка Content-Type
+         * @param body        тело ответа
+         * @return ответ
+         */
+        public static MockResponse of(int status, String contentType, String body) {
+            return new MockResponse(status, Map.of("Content-Type", contentType),
+                    body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Обработчик заглушки API.
+     */
+    @FunctionalInterface
+    public interface Stub {
+        /**
+         * Формирует ответ на запрос.
+         *
+         * @param request запрос
+         * @return ответ
+         * @throws Exception при ошибке; клиент получит ответ 500
+         */
+        MockResponse handle(MockRequest request) throws Exception;
+    }
+
+    /**
+     * Статический файл сайта.
+     *
+     * @param content   содержимое файла или null для директории
+     * @param directory признак директории
+     */
+    private record StaticFile(byte[] content, boolean directory) {
+        private static final StaticFile DIRECTORY = new StaticFile(null, true);
+    }
+
+    /**
+     * Типы содержимого по расширению файла.
+     */
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "html", "text/html; charset=utf-8",
+            "css", "text/css; charset=utf-8",
+            "js", "text/javascript; charset=utf-8",
+            "json", "application/json; charset=utf-8",
+            "txt", "text/plain; charset=utf-8",
+            "svg", "image/svg+xml",
+            "png", "image/png",
+            "jpg", "image/jpeg",
+            "ico", "image/x-icon",
+            "woff2", "font/woff2");
+
+    private static volatile MockHttpServer instance;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String root;
+    private final String baseUrl;
+
+    /**
+     * Заглушки по ключу "МЕТОД путь".
+     */
+    private final Map<String, Stub> stubs = new ConcurrentHashMap<>();
+
+    /**
+     * Прочитанные статические файлы и директории. Отсутствующие пути не кэшируются,
+     * чтобы случайные адреса не увеличивали кэш без ограничений.
+     */
+    private final Map<String, StaticFile> files = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private MockHttpServer(int port, String root) throws IOException {
+        this.root = root.endsWith("/") ? root.substring(0, root.length() - 1) : root;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        this.baseUrl = "http://" + server.getAddress().getAddress().getHostAddress()
+                + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Получает сервер, запуская его при первом обращении.
+     *
+     * @return запущенный сервер
+     */
+    public static MockHttpServer get() {
+        MockHttpServer current = instance;
+        if (current == null) {
+            synchronized (MockHttpServer.class) {
+                current = instance;
+                if (current == null) {
+                    PlaywrightConfig config = PlaywrightConfig.getInstance();
+                    try {
+                        current = new MockHttpServer(config.getMockServerPort(), config.getMockServerRoot());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Не удалось запустить mock-сервер на порту "
+                                + config.getMockServerPort(), e);
+                    }
+                    instance = current;
+                    TestLogger.LOGGER.info("Mock-сервер запущен: {}, статические файлы из {}",
+                            current.baseUrl, current.root);
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Останавливает сервер, если он был запущен. Следующий вызов {@link #get()} запустит его снова.
+     */
+    public static void stop() {
+        MockHttpServer current;
+        synchronized (MockHttpServer.class) {
+            current = instance;
+            instance = null;
+        }
+        if (current != null) {
+            current.server.stop(0);
+            current.executor.close();
+            TestLogger.LOGGER.info("Mock-сервер остановлен, обработано запросов: {}", current.requests.get());
+        }
+    }
+
+    /**
+     * Получает адрес сервера.
+     *
+     * @return адрес вида http://127.0.0.1:порт без завершающего /
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Получает адрес сайта внутри mock.server.root.
+     *
+     * @param site путь к сайту (например, /example) или пустая строка для корня
+     * @return адрес сайта без завершающего /
+     */
+    public String getBaseUrl(String site) {
+        if (site == null || site.isBlank() || site.equals("/")) {
+            return baseUrl;
+        }
+        String path = site.startsWith("/") ? site : "/" + site;
+        return baseUrl + (path.endsWith("/") ? path.substring(0, path.length() - 1) : path);
+    }
+
+    /**
+     * Регистрирует заглушку API. Повторная регистрация того же метода и пути заменяет заглушку.
+     * Заглушки общие для всех тестов набора: параллельные тесты с разными ответами
+     * должны регистрировать их на разных путях и удалять через {@link #removeStub}.
+     *
+     * @param method HTTP-метод
+     * @param path   путь без строки запроса (например, /api/users)
+     * @param stub   обработчик
+     */
+    public void stub(String method, String path, Stub stub) {
+        stubs.put(keyOf(method, path), stub);
+    }
+
+    /**
+     * Регистрирует заглушку API с постоянным ответом.
+     *
+     * @param method   HTTP-метод
+     * @param path     путь без строки запроса
+     * @param response ответ
+     */
+    public void stub(String method, String path, MockResponse response) {
+        stub(method, path, request -> response);
+    }
+
+    /**
+     * Удаляет заглушку API.
+     *
+     * @param method HTTP-метод
+     * @param path   путь без строки запроса
+     */
+    public void removeStub(String method, String path) {
+        stubs.remove(keyOf(method, path));
+    }
+
+    /**
+     * Получает число обработанных запросов.
+     *
+     * @return число запросов с момента запуска
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Обрабатывает запрос: сначала ищет заглушку, затем статический файл.
+     *
+     * @param exchange запрос и ответ
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+            String path = exchange.getRequestURI().getPath();
+
+            Stub stub = stubs.get(keyOf(method, path));
+            if (stub != null) {
+                MockResponse response;
+                try (InputStream body = exchange.getRequestBody()) {
+                    response = stub.handle(new MockRequest(method, path, exchange.getRequestURI().getRawQuery(),
+                            exchange.getRequestHeaders(), body.readAllBytes()));
+                } catch (Exception e) {
+                    TestLogger.LOGGER.error("Ошибка заглушки {} {}: {}", method, path, e.toString());
+                    response = MockResponse.of(500, "text/plain; charset=utf-8", e.toString());
+                }
+                send(exchange, response, method);
+                return;
+            }
+
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                send(exchange, MockResponse.status(405), method);
+                return;
+            }
+            String file = path.endsWith("/") ? path + "index.html" : path;
+            StaticFile content = isSafe(file) ? files.computeIfAbsent(file, f -> readFile(f).orElse(null)) : null;
+            if (content == null) {
+                send(exchange, MockResponse.of(404, "text/plain; charset=utf-8", "Not found: " + path), method);
+                return;
+            }
+            if (content.directory()) {
+                String query = exchange.getRequestURI().getRawQuery();
+                String location = path + "/" + (query != null ? "?" + query : "");
+                send(exchange, new MockResponse(301, Map.of("Location", location), new byte[0]), method);
+                return;
+            }
+            send(exchange, new MockResponse(200, Map.of("Content-Type", contentTypeOf(file)), content.content()),
+                    method);
+        }
+    }
+
+    /**
+     * Отправляет ответ клиенту.
+     *
+     * @param exchange запрос и ответ
+     * @param response ответ
+     * @param method   HTTP-метод запроса
+     */
+    private static void send(HttpExchange exchange, MockResponse response, String method) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        response.headers().forEach(headers::set);
+        boolean noBody = method.equals("HEAD") || response.body().length == 0;
+        exchange.sendResponseHeaders(response.status(), noBody ? -1 : response.body().length);
+        if (!noBody) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response.body());
+            }
+        }
+    }
+
+    /**
+     * Читает статический файл из classpath или файловой системы.
+     * Отдаются только обычные файлы; для директорий возвращается признак директории.
+     *
+     * @param path путь к файлу от корня сайта
+     * @return содержимое файла, признак директории или пустое значение, если файла нет
+     */
+    private Optional<StaticFile> readFile(String path) {
+        try {
+            URL resource = findResource(root + path);
+            if (resource != null) {
+                if (resource.getProtocol().equals("file")) {
+                    return readPath(Paths.get(resource.toURI()));
+                }
+                // В jar директория - запись с завершающим /
+                if (resource.getPath().endsWith("/") || findResource(root + path + "/") != null) {
+                    return Optional.of(StaticFile.DIRECTORY);
+                }
+                try (InputStream in = resource.openStream()) {
+                    return Optional.of(new StaticFile(in.readAllBytes(), false));
+                }
+            }
+            return readPath(Paths.get(root + path));
+        } catch (IOException | URISyntaxException e) {
+            TestLogger.LOGGER.warn("Не удалось прочитать файл mock-сервера {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Читает статический файл из файловой системы.
+     *
+     * @param file путь к файлу
+     * @return содержимое файла, признак директории или пустое значение для прочих путей
+     */
+    private static Optional<StaticFile> readPath(Path file) throws IOException {
+        if (Files.isDirectory(file)) {
+            return Optional.of(StaticFile.DIRECTORY);
+        }
+        return Files.isRegularFile(file) ? Optional.of(new StaticFile(Files.readAllBytes(file), false))
+                : Optional.empty();
+    }
+
+    /**
+     * Находит ресурс в classpath потока или фреймворка.
+     *
+     * @param name имя ресурса
+     * @return адрес ресурса или null
+     */
+    private static URL findResource(String name) {
+        URL resource = Thread.currentThread().getContextClassLoader().getResource(name);
+        return resource != null ? resource : MockHttpServer.class.getClassLoader().getResource(name);
+    }
+
+    /**
+     * Проверяет, что путь не выходит за пределы корня сайта.
+     *
+     * @param path путь запроса
+     * @return true, если путь не содержит переходов на уровень выше
+     */
+    private static boolean isSafe(String path) {
+        return !path.contains("..") && !path.contains("\\");
+    }
+
+    /**
+     * Определяет тип содержимого по расширению файла.
+     *
+     * @param path путь к файлу
+     * @return значение заголовка Content-Type
+     */
+    private static String contentTypeOf(String path) {
+        int dot = path.lastIndexOf('.');
+        String extension = dot >= 0 ? path.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+        return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+    }
+
+    /**
+     * @param method HTTP-метод
+     * @param path   путь без строки запроса
+     * @return ключ заглушки
+     */
+    private static String keyOf(String method, String path) {
+        return method.toUpperCase(Locale.ROOT) + " " + path;
+    }
+}
@@ -0,0 +1,131 @@
+package com.framework.extentions.retry;
+
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.TimeoutError;
+
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.List;
+
+/**
+ * Классификатор ошибок тестов для повторного запуска.
+ * <p>
+ * Нестабильными (transient) считаются ошибки, которые могут не повториться
+ * при следующем запуске:
+ * - TimeoutError Playwright
+ * - Сетевые ошибки браузера (net::ERR_..., обрыв соединения)
+ * - Закрытие страницы, контекста или браузера во время теста
+ * - Сетевые ошибки Java в цепочке причин: ConnectException, SocketException,
+ * SocketTimeoutException, HttpTimeoutException; остальные IOException
+ * (например, отсутствующий файл) повтором не исправляются
+ * <p>
+ * AssertionError никогда не считается нестабильной: проверка, которая не прошла,
+ * не пройдет и при повторе.
+ * <p>
+ * Пример использования:
+ * ```
+ * if (FailureClassifier.isTransient(result.getThrowable())) {
+ * // повторяем тест
+ * }
+ * ```
+ */
+public final class FailureClassifier {
+
+    /**
+     * Фрагменты сообщений PlaywrightException, соответствующие нестабильным ошибкам.
+     */
+    private static final List<String> TRANSIENT_MESSAGES = List.of(
+            "net::ERR_",
+            "NS_ERROR_",
+            "ECONNRESET",
+            "ECONNREFUSED",
+            "socket hang up",
+            "Target page, context or browser has been closed",
+            "Target closed",
+            "Browser has been closed",
+            "Navigation failed because page crashed",
+            "Execution context was destroyed"
+    );
+
+    /**
+     * Сетевые ошибки Java, которые могут не повториться при следующем запуске.
+     */
+    private static final List<Class<? extends Throwable>> TRANSIENT_TYPES = List.of(
+            TimeoutError.class,
+            ConnectException.class,
+            SocketException.class,
+            SocketTimeoutException.class,
+            HttpTimeoutException.class
+    );
+
+    private FailureClassifier() {
+    }
+
+    /**
+     * Проверяет, является ли ошибка нестабильной.
+     *
+     * @param error ошибка теста
+     * @return true, если тест имеет смысл повторить
+     */
+    public static boolean isTransient(Throwable error) {
+        return isTransient(error, List.of());
+    }
+
+    /**
+     * Проверяет, является ли ошибка нестабильной, с учетом дополнительных типов ошибок.
+     *
+     * @param error      ошибка теста
+     * @param extraTypes типы ошибок, которые дополнительно считаются нестабильными
+     * @return true, если тест имеет смысл повторить
+     */
+    public static boolean isTransient(Throwable error, List<Class<? extends Throwable>> extraTypes) {
+        if (error == null || error instanceof AssertionError) {
+            return false;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (isInstance(cause, TRANSIENT_TYPES) || isInstance(cause, extraTypes)) {
+                return true;
+            }
+            if (cause instanceof PlaywrightException && hasTransientMessage(cause.getMessage())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Проверяет, относится ли ошибка к одному из типов.
+     *
+     * @param error ошибка
+     * @param types типы ошибок
+     * @return true, если ошибка является экземпляром одного из типов
+     */
+    private static boolean isInstance(Throwable error, List<Class<? extends Throwable>> types) {
+        for (Class<? extends Throwable> type : types) {
+            if (type.isInstance(error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Проверяет сообщение ошибки Playwright на признаки нестабильной ошибки.
+     *
+     * @param message сообщение ошибки
+     * @return true, если сообщение соответствует нестабильной ошибке
+     */
+    private static boolean hasTransientMessage(String message) {
+        if (message == null) {
+            return false;
+        }
+        for (String fragment : TRANSIENT_MESSAGES) {
+            if (message.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,27 @@
+package com.framework.extentions.retry;
+
+import com.framework.api.annotations.Retry;
+import org.testng.ITestResult;
+
+/**
+ * Анализатор повторов, который PlaywrightTestFactory назначает тестам без явного retryAnalyzer.
+ * <p>
+ * Тест повторяется, только если аннотация {@link Retry} есть на методе или на классе
+ * теста либо его суперклассах. Класс определяется по фактическому классу теста, а не по
+ * классу, объявившему метод, поэтому методы, унаследованные от базового класса без
+ * аннотации, повторяются в наследнике с {@link Retry}. Остальные правила те же,
+ * что в {@link TestRetryAnalyzer}.
+ */
+public class RetryAnnotationAnalyzer extends TestRetryAnalyzer {
+
+    /**
+     * Определяет, нужно ли повторить тест.
+     *
+     * @param result результат выполнения теста
+     * @return true, если у теста есть аннотация {@link Retry} и тест нужно повторить
+     */
+    @Override
+    public boolean retry(ITestResult result) {
+        return findRetry(result) != null && super.retry(result);
+    }
+}
@@ -0,0 +1,71 @@
+package com.framework.extentions.retry;
+
+import com.framework.api.config.PlaywrightConfig;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Общий для всех тестов бюджет повторных запусков.
+ * <p>
+ * Если сборка сломана, падает большинство тестов, и повторы только увеличивают
+ * время прогона. Бюджет (параметр retry.budget) ограничивает суммарное число
+ * повторов за запуск JVM; после его исчерпания тесты больше не повторяются.
+ * <p>
+ * Пример использования:
+ * ```
+ * if (RetryBudget.tryAcquire()) {
+ * return true;
+ * }
+ * ```
+ */
+public final class RetryBudget {
+
+    /**
+     * Число уже выполненных повторов.
+     */
+    private static final AtomicInteger used = new AtomicInteger();
+
+    /**
+     * Число повторов, которым было отказано из-за исчерпания бюджета.
+     */
+    private static final AtomicInteger rejected = new AtomicInteger();
+
+    private RetryBudget() {
+    }
+
+    /**
+     * Резервирует один повторный запуск.
+     *
+     * @return true, если бюджет не исчерпан
+     */
+    public static boolean tryAcquire() {
+        int limit = PlaywrightConfig.getInstance().getRetryBudget();
+        if (limit < 0) {
+            used.incrementAndGet();
+            return true;
+        }
+        int current;
+        do {
+            current = used.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+        } while (!used.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * @return число выполненных повторов
+     */
+    public static int used() {
+        return used.get();
+    }
+
+    /**
+     * @return число повторов, которым было отказано из-за исчерпания бюджета
+     */
+    public static int rejected() {
+        return rejected.get();
+    }
+}
@@ -1,8 +1,16 @@
 package com.framework.extentions.retry;
 
+import com.framework.api.annotations.Retry;
+import com.framework.api.config.PlaywrightConfig;
+import com.framework.api.testing.PlaywrightBaseTest;
+import com.framework.extentions.history.TestHistory;
+import com.framework.internal.logging.TestLogger;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 
+import java.lang.reflect.Method;
+import java.util.List;
+
 /**
  * Анализатор повторных запусков тестов при неудаче.
  * <p>
@@ -11,18 +19,23 @@ import org.testng.ITestResult;
  * полезно для нестабильных тестов или тестов, которые могут не пройти из-за
  * внешних факторов (медленная сеть, задержки UI и т.д.).
  * <p>
- * Класс отслеживает количество повторных запусков для каждого теста и
- * ограничивает его заданным максимальным значением.
+ * Особенности:
+ * - Число повторов берется из {@link Retry} метода, затем класса, затем из retry.maxRetries
+ * - Повторяются только нестабильные ошибки (см. {@link FailureClassifier});
+ * AssertionError не повторяется
+ * - Тест не повторяется, если по {@link TestHistory} повторы ему ни разу не помогли
+ * - Все тесты делят общий бюджет повторов retry.budget (см. {@link RetryBudget})
+ * - Тест, унаследованный от PlaywrightBaseTest, повторяется в новом BrowserContext
  * <p>
  * Существует два способа использования этого анализатора:
  * <p>
- * 1. Через аннотацию {@link com.annotations.Retry}:
+ * 1. Через аннотацию {@link Retry} (PlaywrightTestFactory регистрирует {@link RetryAnnotationAnalyzer}):
  * ```java
  *
  * @Test
  * @Retry(maxRetries = 3)
  * public void testUnstableFeature() {
- * // Тест будет повторен до 3 раз при неудаче
+ * // Тест будет повторен до 3 раз при нестабильной ошибке
  * }
  * ```
  * <p>
@@ -30,7 +43,7 @@ import org.testng.ITestResult;
  * ```java
  * @Test(retryAnalyzer = TestRetryAnalyzer.class)
  * public void testUnstableFeature() {
- * // Тест будет повторен до MAX_RETRY_COUNT раз при неудаче
+ * // Тест будет повторен до retry.maxRetries раз при нестабильной ошибке
  * }
  * ```
  * <p>
@@ -43,13 +56,6 @@ public class TestRetryAnalyzer implements IRetryAnalyzer {
      */
     private int counter = 0;
 
-    /**
-     * Максимальное количество повторных запусков при неудаче.
-     * По умолчанию равно 2, что означает до 3 запусков в общей сложности
-     * (1 основной + 2 повторных).
-     */
-    private static final int MAX_RETRY_COUNT = 2;
-
     /**
      * Метод, вызываемый TestNG для определения, нужно ли повторить тест.
      *
@@ -58,12 +64,61 @@ public class TestRetryAnalyzer implements IRetryAnalyzer {
      */
     @Override
     public boolean retry(ITestResult result) {
-        if (!result.isSuccess()) {
-            if (counter < MAX_RETRY_COUNT) {
-                counter++;
-                return true;
+        if (result.isSuccess()) {
+            return false;
+        }
+        Retry retry = findRetry(result);
+        int maxRetries = retry != null ? retry.maxRetries() : PlaywrightConfig.getInstance().getRetryMaxRetries();
+        if (counter >= maxRetries) {
+            return false;
+        }
+
+        Throwable error = result.getThrowable();
+        if (!FailureClassifier.isTransient(error, retry != null ? List.of(retry.retryOn()) : List.of())) {
+            TestLogger.LOGGER.debug("Тест {} не повторяется: ошибка не является нестабильной ({})",
+                    result.getName(), error);
+            return false;
+        }
+        TestHistory.Stats history = TestHistory.getStats(TestHistory.idOf(result.getMethod()));
+        if (history != null
+                && history.isKnownDeterministic(PlaywrightConfig.getInstance().getHistoryDeterministicAfter())) {
+            TestLogger.LOGGER.info("Тест {} не повторяется: в истории {} повторов, ни один не прошел",
+                    result.getName(), history.retries());
+            return false;
+        }
+        if (!RetryBudget.tryAcquire()) {
+            TestLogger.LOGGER.warn("Тест {} не повторяется: бюджет повторов исчерпан ({})",
+                    result.getName(), RetryBudget.used());
+            return false;
+        }
+
+        counter++;
+        TestLogger.LOGGER.info("Повтор {} из {} теста {} после ошибки: {}",
+                counter, maxRetries, result.getName(), error);
+        if (result.getInstance() instanceof PlaywrightBaseTest test) {
+            test.requestFreshContext();
+        }
+        return true;
+    }
+
+    /**
+     * Находит аннотацию @Retry на методе теста или на фактическом классе теста и его суперклассах.
+     *
+     * @param result результат выполнения теста
+     * @return аннотация или null
+     */
+    static Retry findRetry(ITestResult result) {
+        Method method = result.getMethod().getConstructorOrMethod().getMethod();
+        Retry retry = method.getAnnotation(Retry.class);
+        if (retry != null) {
+            return retry;
+        }
+        for (Class<?> type = result.getTestClass().getRealClass(); type != null; type = type.getSuperclass()) {
+            retry = type.getAnnotation(Retry.class);
+            if (retry != null) {
+                return retry;
             }
         }
-        return false;
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,11 @@
 package com.framework.internal.browser;
 
+import com.framework.api.annotations.LoggedInAs;
 import com.framework.api.config.PlaywrightConfig;
 import com.framework.internal.logging.TestLogger;
+import com.framework.internal.network.NetworkRouter;
 import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
 import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.Playwright;
 
@@ -36,7 +39,17 @@ public class BrowserManager {
      * @return экземпляр браузера
      */
     public static Browser createBrowser(Playwright playwright) {
-        String browserName = PlaywrightConfig.getInstance().getBrowser();
+        return createBrowser(playwright, PlaywrightConfig.getInstance().getBrowser());
+    }
+
+    /**
+     * Создает экземпляр браузера указанного типа с опциями запуска из конфигурации.
+     *
+     * @param playwright  экземпляр Playwright
+     * @param browserName тип браузера (chromium, firefox, webkit)
+     * @return экземпляр браузера
+     */
+    public static Browser createBrowser(Playwright playwright, String browserName) {
         BrowserType.LaunchOptions options = PlaywrightConfig.getInstance().getLaunchOptions();
 
         TestLogger.LOGGER.info("Создание браузера: {}, headless: {}",
@@ -85,6 +98,36 @@ public class BrowserManager {
         return playwright.webkit().launch(options);
     }
 
+    /**
+     * Создает новый контекст браузера с настройками из конфигурации.
+     * Все контексты фреймворка создаются через этот метод.
+     *
+     * @param browser экземпляр браузера
+     * @return новый контекст браузера
+     */
+    public static BrowserContext newContext(Browser browser) {
+        return newContext(browser, null);
+    }
+
+    /**
+     * Создает новый контекст браузера с настройками из конфигурации
+     * и состоянием авторизации указанной роли. На контекст устанавливается
+     * сетевой обработчик {@link NetworkRouter}, если сетевые функции включены.
+     *
+     * @param browser    экземпляр браузера
+     * @param loggedInAs роль пользователя или null для контекста без авторизации
+     * @return новый контекст браузера
+     */
+    public static BrowserContext newContext(Browser browser, LoggedInAs loggedInAs) {
+        Browser.NewContextOptions options = createContextOptions();
+        if (loggedInAs != null) {
+            options.setStorageState(StorageStateCache.getState(browser, loggedInAs));
+        }
+        BrowserContext context = browser.newContext(options);
+        NetworkRouter.install(context);
+        return context;
+    }
+
     /**
      * Создает контекст браузера с настройками из конфигурации.
      * Настройки включают:
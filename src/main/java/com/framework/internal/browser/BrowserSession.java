@@ -0,0 +1,154 @@
+package com.framework.internal.browser;
+
+import com.framework.internal.logging.TestLogger;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.Playwright;
+
+/**
+ * Связка экземпляров Playwright и Browser, запущенных вместе.
+ * <p>
+ * Каждая сессия соответствует одному процессу драйвера Playwright и одному
+ * процессу браузера. Объекты Playwright не потокобезопасны, поэтому сессия
+ * запоминает поток-владелец и должна использоваться одновременно только
+ * одним потоком.
+ * <p>
+ * Пример использования:
+ * ```
+ * BrowserSession session = BrowserSessionManager.acquire();
+ * BrowserContext context = session.getBrowser().newContext(BrowserManager.createContextOptions());
+ * ```
+ */
+public class BrowserSession {
+    /**
+     * Экземпляр Playwright (процесс драйвера).
+     */
+    private final Playwright playwright;
+
+    /**
+     * Экземпляр браузера, запущенный этим Playwright.
+     */
+    private final Browser browser;
+
+    /**
+     * Тип браузера (chromium, firefox, webkit).
+     */
+    private final String browserName;
+
+    /**
+     * Поток, который сейчас владеет сессией.
+     */
+    private volatile Thread owner;
+
+    /**
+     * Признак того, что сессия уже закрыта.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Создает сессию из уже запущенных Playwright и Browser.
+     *
+     * @param playwright  экземпляр Playwright
+     * @param browser     экземпляр Browser
+     * @param browserName тип браузера
+     */
+    BrowserSession(Playwright playwright, Browser browser, String browserName) {
+        this.playwright = playwright;
+        this.browser = browser;
+        this.browserName = browserName;
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * Запускает новый Playwright и браузер указанного типа.
+     *
+     * @param browserName тип браузера (chromium, firefox, webkit)
+     * @return новая сессия
+     */
+    public static BrowserSession launch(String browserName) {
+        Playwright playwright = Playwright.create();
+        try {
+            return new BrowserSession(playwright, BrowserManager.createBrowser(playwright, browserName), browserName);
+        } catch (RuntimeException e) {
+            playwright.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Получает экземпляр Playwright этой сессии.
+     *
+     * @return экземпляр Playwright
+     */
+    public Playwright getPlaywright() {
+        return playwright;
+    }
+
+    /**
+     * Получает экземпляр браузера этой сессии.
+     *
+     * @return экземпляр Browser
+     */
+    public Browser getBrowser() {
+        return browser;
+    }
+
+    /**
+     * Получает тип браузера этой сессии.
+     *
+     * @return тип браузера (chromium, firefox, webkit)
+     */
+    public String getBrowserName() {
+        return browserName;
+    }
+
+    /**
+     * Получает поток, который сейчас владеет сессией.
+     *
+     * @return поток-владелец сессии
+     */
+    public Thread getOwner() {
+        return owner;
+    }
+
+    /**
+     * Передает сессию во владение текущему потоку.
+     * Вызывается пулом при выдаче сессии, чтобы ею одновременно
+     * пользовался только один поток.
+     */
+    public void bindToCurrentThread() {
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * Проверяет, можно ли продолжать использовать сессию.
+     *
+     * @return true, если сессия не закрыта и браузер подключен
+     */
+    public boolean isAlive() {
+        return !closed && browser.isConnected();
+    }
+
+    /**
+     * Закрывает браузер и Playwright. Повторный вызов ничего не делает.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            browser.close();
+            TestLogger.LOGGER.debug("Browser закрыт");
+        } catch (Exception e) {
+            TestLogger.LOGGER.error("Ошибка при закрытии Browser: {}", e.getMessage());
+        }
+
+        try {
+            playwright.close();
+            TestLogger.LOGGER.debug("Playwright закрыт");
+        } catch (Exception e) {
+            TestLogger.LOGGER.error("Ошибка при закрытии Playwright: {}", e.getMessage());
+        }
+    }
+}
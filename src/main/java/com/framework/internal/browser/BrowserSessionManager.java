@@ -0,0 +1,252 @@
+package com.framework.internal.browser;
+
+import com.framework.api.config.BrowserScope;
+import com.framework.api.config.PlaywrightConfig;
+import com.framework.internal.logging.TestLogger;
+import com.framework.tools.pooling.PlaywrightBrowserPool;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.Playwright;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Менеджер жизненного цикла сессий Playwright и Browser.
+ * <p>
+ * Запуск Playwright создает новый процесс драйвера, а запуск браузера - новый
+ * процесс браузера. На наборах с сотнями небольших тестовых классов именно это
+ * занимает большую часть времени. Менеджер выдает сессии в соответствии с
+ * параметром {@code browser.scope}:
+ * - class - сессия выдается на время тестового класса и возвращается в пул
+ * - worker - одна сессия на поток TestNG, возвращается в конце набора тестов
+ * - suite - одна сессия на набор тестов, возвращается в конце набора тестов
+ * <p>
+ * Все сессии берутся из {@link PlaywrightBrowserPool}, поэтому набор тестов
+ * из N потоков не запускает больше N браузеров, а в режиме class следующий
+ * класс получает уже запущенный браузер.
+ * <p>
+ * Объекты Playwright не потокобезопасны, поэтому в режиме suite сессия
+ * используется только потоком, который её создал. Другие потоки в этом режиме
+ * получают собственную сессию, как в режиме worker.
+ * <p>
+ * В виртуальных потоках (executor.virtualThreads=true) сессии всегда выдаются
+ * как в режиме class: потоков больше, чем браузеров в пуле.
+ * <p>
+ * Пример использования:
+ * ```
+ * BrowserSession session = BrowserSessionManager.acquire();
+ * try {
+ * // работа с session.getBrowser()
+ * } finally {
+ * BrowserSessionManager.release(session);
+ * }
+ * // В конце набора тестов (см. PlaywrightLifecycleListener)
+ * BrowserSessionManager.closeAll();
+ * ```
+ */
+public class BrowserSessionManager {
+
+    /**
+     * Сессия текущего потока для режимов worker и suite.
+     */
+    private static final ThreadLocal<BrowserSession> threadSession = new ThreadLocal<>();
+
+    /**
+     * Все долгоживущие сессии, которые нужно вернуть в пул в конце набора тестов.
+     */
+    private static final Set<BrowserSession> sharedSessions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Общая сессия для режима suite.
+     */
+    private static volatile BrowserSession suiteSession;
+
+    /**
+     * Флаг, чтобы предупреждение о параллельном запуске в режиме suite выводилось один раз.
+     */
+    private static final AtomicBoolean suiteFallbackReported = new AtomicBoolean();
+
+    /**
+     * Флаг, чтобы предупреждение о режиме class в виртуальных потоках выводилось один раз.
+     */
+    private static final AtomicBoolean virtualFallbackReported = new AtomicBoolean();
+
+    private BrowserSessionManager() {
+    }
+
+    /**
+     * Выдает сессию для текущего потока в соответствии с областью жизни из конфигурации.
+     *
+     * @return сессия Playwright и Browser
+     */
+    public static BrowserSession acquire() {
+        return switch (getEffectiveScope()) {
+            case CLASS -> borrowFromPool();
+            case SUITE -> acquireSuiteSession();
+            case WORKER -> acquireWorkerSession();
+        };
+    }
+
+    /**
+     * Определяет область жизни сессий для текущего потока.
+     * В виртуальных потоках браузеры всегда выдаются на время тестового класса.
+     *
+     * @return browser.scope из конфигурации или CLASS для виртуальных потоков
+     */
+    public static BrowserScope getEffectiveScope() {
+        BrowserScope scope = PlaywrightConfig.getInstance().getBrowserScope();
+        if (scope != BrowserScope.CLASS && Thread.currentThread().isVirtual()) {
+            // Виртуальных потоков больше, чем браузеров в пуле: сессия, закрепленная
+            // за потоком до конца набора, оставила бы остальные потоки без браузера
+            if (virtualFallbackReported.compareAndSet(false, true)) {
+                TestLogger.LOGGER.warn("browser.scope={} не используется в виртуальных потоках, " +
+                        "браузеры выдаются на время тестового класса", scope.name().toLowerCase());
+            }
+            return BrowserScope.CLASS;
+        }
+        return scope;
+    }
+
+    /**
+     * Освобождает сессию после завершения тестового класса.
+     * В режиме class сессия возвращается в пул, в остальных режимах остается
+     * за потоком до конца набора тестов.
+     *
+     * @param session сессия, полученная через {@link #acquire()}
+     */
+    public static void release(BrowserSession session) {
+        if (session == null) {
+            return;
+        }
+        if (!sharedSessions.contains(session)) {
+            PlaywrightBrowserPool.getInstance().release(session);
+        }
+    }
+
+    /**
+     * Закрывает сессию целиком, вместе со всеми её контекстами, и убирает её из пула.
+     * Используется в конце набора тестов для сессий, контексты которых принадлежат
+     * другому потоку и не могут быть закрыты по одному.
+     *
+     * @param session сессия, полученная через {@link #acquire()}
+     */
+    public static void close(BrowserSession session) {
+        if (session == null) {
+            return;
+        }
+        sharedSessions.remove(session);
+        PlaywrightBrowserPool.getInstance().invalidate(session);
+    }
+
+    /**
+     * Находит выданную сессию, которой принадлежит браузер.
+     *
+     * @param browser экземпляр Browser
+     * @return сессия или null, если браузер не выдан менеджером
+     */
+    public static BrowserSession findSession(Browser browser) {
+        return PlaywrightBrowserPool.getInstance().findBorrowed(browser);
+    }
+
+    /**
+     * Находит выданную сессию, которой принадлежит экземпляр Playwright.
+     *
+     * @param playwright экземпляр Playwright
+     * @return сессия или null, если экземпляр не выдан менеджером
+     */
+    public static BrowserSession findSession(Playwright playwright) {
+        return PlaywrightBrowserPool.getInstance().findBorrowed(playwright);
+    }
+
+    /**
+     * Закрывает сессии, оставшиеся за реестром потоков, возвращает все долгоживущие
+     * сессии в пул и закрывает пул. Вызывается в конце набора тестов, когда потоки
+     * TestNG уже не выполняют тесты.
+     */
+    public static void closeAll() {
+        ThreadResourceRegistry.closeAll();
+        if (!sharedSessions.isEmpty()) {
+            TestLogger.LOGGER.info("Возврат {} сессий браузера в пул", sharedSessions.size());
+            PlaywrightBrowserPool pool = PlaywrightBrowserPool.getInstance();
+            for (BrowserSession session : sharedSessions) {
+                pool.release(session);
+            }
+            sharedSessions.clear();
+        }
+        suiteSession = null;
+        PlaywrightBrowserPool.shutdownInstance();
+    }
+
+    /**
+     * Выдает сессию текущего потока, создавая её при первом обращении
+     * или после падения браузера.
+     *
+     * @return сессия текущего потока
+     */
+    private static BrowserSession acquireWorkerSession() {
+        BrowserSession session = threadSession.get();
+        if (session == null || !session.isAlive()) {
+            discard(session);
+            TestLogger.LOGGER.info("Получение сессии браузера для потока {}", Thread.currentThread().getName());
+            session = borrowFromPool();
+            threadSession.set(session);
+            sharedSessions.add(session);
+        }
+        return session;
+    }
+
+    /**
+     * Выдает общую сессию набора тестов. Если общая сессия принадлежит другому
+     * потоку, текущий поток получает собственную сессию.
+     *
+     * @return сессия набора тестов или сессия текущего потока
+     */
+    private static BrowserSession acquireSuiteSession() {
+        synchronized (BrowserSessionManager.class) {
+            BrowserSession session = suiteSession;
+            if (session == null || !session.isAlive()) {
+                discard(session);
+                TestLogger.LOGGER.info("Получение общей сессии браузера для набора тестов");
+                session = borrowFromPool();
+                suiteSession = session;
+                sharedSessions.add(session);
+            }
+            if (session.getOwner() == Thread.currentThread()) {
+                return session;
+            }
+        }
+
+        if (suiteFallbackReported.compareAndSet(false, true)) {
+            TestLogger.LOGGER.warn("browser.scope=suite не поддерживает параллельный запуск: " +
+                    "объекты Playwright не потокобезопасны, потоки получат отдельные сессии");
+        }
+        return acquireWorkerSession();
+    }
+
+    /**
+     * Возвращает в пул и забывает сессию, которая больше не может использоваться.
+     * Пул закроет упавший браузер и при следующей выдаче запустит новый.
+     *
+     * @param session сессия или null
+     */
+    private static void discard(BrowserSession session) {
+        if (session != null && sharedSessions.remove(session)) {
+            PlaywrightBrowserPool.getInstance().release(session);
+        }
+    }
+
+    /**
+     * Получает сессию из пула браузеров для типа браузера из конфигурации.
+     *
+     * @return сессия, принадлежащая текущему потоку
+     */
+    private static BrowserSession borrowFromPool() {
+        try {
+            return PlaywrightBrowserPool.getInstance().borrow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Прервано ожидание браузера из пула", e);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.framework.internal.browser;
+
+import com.framework.api.annotations.LoggedInAs;
+import com.framework.api.auth.LoginRoutine;
+import com.framework.api.config.PlaywrightConfig;
+import com.framework.internal.logging.TestLogger;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кэш состояний авторизации (storageState) по ролям пользователей.
+ * <p>
+ * Для каждой пары процедура входа {@link LoginRoutine} и роль вход выполняется один раз,
+ * после чего состояние хранилища контекста сохраняется в файл
+ * {@code <auth.stateDir>/<класс процедуры>-<роль>.json} (по умолчанию в target/auth-states).
+ * Все следующие контексты с этой ролью и процедурой создаются из файла без повторного
+ * входа через UI. Одна и та же роль с разными процедурами входа (например, в разных
+ * приложениях) получает разные состояния.
+ * <p>
+ * Состояние создается заново, если:
+ * - истекло время жизни auth.stateTtlSeconds (считается по времени изменения файла,
+ * поэтому свежий файл переиспользуется и следующим запуском)
+ * - истек срок действия одной из сохраненных cookies
+ * - состояние признано недействительным через {@link #invalidate(String, LoginRoutine)}
+ * <p>
+ * Если несколько потоков одновременно запрашивают одно и то же состояние,
+ * вход выполняет только первый из них, остальные ждут его результата.
+ * Состояние и срок действия его cookies хранятся в памяти, поэтому создание
+ * контекста не читает и не разбирает файл; файл нужен только следующему запуску.
+ * <p>
+ * Пример использования:
+ * ```
+ * String state = StorageStateCache.getState(browser, loggedInAs);
+ * BrowserContext context = browser.newContext(
+ * BrowserManager.createContextOptions().setStorageState(state));
+ * ```
+ */
+public class StorageStateCache {
+
+    /**
+     * Сохраненное состояние роли.
+     *
+     * @param json      содержимое storageState
+     * @param createdAt время создания состояния
+     * @param expiresAt время истечения первой из cookies или null, если все cookies сессионные
+     */
+    private record State(String json, Instant createdAt, Instant expiresAt) {
+        /**
+         * @param ttl время жизни состояния
+         * @return true, если состояние не устарело и его cookies не истекли
+         */
+        boolean isValid(Duration ttl) {
+            Instant now = Instant.now();
+            return createdAt.plus(ttl).isAfter(now) && (expiresAt == null || expiresAt.isAfter(now));
+        }
+    }
+
+    /**
+     * Актуальные состояния по ключам процедура#роль.
+     */
+    private static final Map<String, State> states = new ConcurrentHashMap<>();
+
+    /**
+     * Блокировки по ключам процедура#роль, чтобы вход выполнялся одним потоком.
+     */
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Экземпляры процедур входа по классам.
+     */
+    private static final Map<Class<? extends LoginRoutine>, LoginRoutine> routines = new ConcurrentHashMap<>();
+
+    private StorageStateCache() {
+    }
+
+    /**
+     * Получает состояние для роли из аннотации, выполняя вход при необходимости.
+     *
+     * @param browser    браузер текущего потока, в котором выполняется вход
+     * @param loggedInAs аннотация с ролью и процедурой входа
+     * @return содержимое storageState
+     */
+    public static String getState(Browser browser, LoggedInAs loggedInAs) {
+        return getState(browser, loggedInAs.value(), getLoginRoutine(loggedInAs));
+    }
+
+    /**
+     * Получает состояние для роли, выполняя вход при необходимости.
+     * Состояние хранится в памяти, поэтому контексты создаются без чтения файла
+     * и не зависят от того, что другой поток в это время заменяет или удаляет файл.
+     *
+     * @param browser браузер текущего потока, в котором выполняется вход
+     * @param role    роль пользователя
+     * @param routine процедура входа
+     * @return содержимое storageState
+     */
+    public static String getState(Browser browser, String role, LoginRoutine routine) {
+        Duration ttl = Duration.ofSeconds(PlaywrightConfig.getInstance().getAuthStateTtlSeconds());
+        String key = stateKey(role, routine);
+        State state = states.get(key);
+        if (state != null && state.isValid(ttl)) {
+            return state.json();
+        }
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            // Повторная проверка: вход мог выполнить другой поток, пока мы ждали
+            state = states.get(key);
+            if (state == null || !state.isValid(ttl)) {
+                Path path = resolvePath(key);
+                // Файл мог остаться от предыдущего запуска
+                state = readState(role, path);
+                if (state == null || !state.isValid(ttl)) {
+                    state = login(browser, role, routine, path);
+                }
+                states.put(key, state);
+            }
+            return state.json();
+        }
+    }
+
+    /**
+     * Проверяет, что пользователь на странице теста авторизован, и признает
+     * состояние роли недействительным, если это не так.
+     *
+     * @param page       страница теста
+     * @param loggedInAs аннотация с ролью и процедурой входа
+     * @return true, если состояние роли работает
+     */
+    public static boolean verify(Page page, LoggedInAs loggedInAs) {
+        LoginRoutine routine = getLoginRoutine(loggedInAs);
+        boolean loggedIn;
+        try {
+            loggedIn = routine.isLoggedIn(page, loggedInAs.value());
+        } catch (Exception e) {
+            TestLogger.LOGGER.error("Ошибка при проверке авторизации роли {}: {}",
+                    loggedInAs.value(), e.getMessage());
+            return true;
+        }
+        if (!loggedIn) {
+            TestLogger.LOGGER.warn("Сохраненное состояние роли {} больше не работает", loggedInAs.value());
+            invalidate(loggedInAs.value(), routine);
+        }
+        return loggedIn;
+    }
+
+    /**
+     * Признает состояние роли, полученное процедурой входа, недействительным.
+     * Следующий контекст с этой ролью будет создан после повторного входа.
+     * Файл удаляется под той же блокировкой, под которой он и читается,
+     * поэтому удаление не мешает другим потокам.
+     *
+     * @param role    роль пользователя
+     * @param routine процедура входа
+     */
+    public static void invalidate(String role, LoginRoutine routine) {
+        String key = stateKey(role, routine);
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            states.remove(key);
+            try {
+                Files.deleteIfExists(resolvePath(key));
+            } catch (Exception e) {
+                TestLogger.LOGGER.error("Не удалось удалить состояние роли {}: {}", role, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Выполняет вход в отдельном контексте и сохраняет его состояние в файл.
+     * Файл записывается во временный и атомарно переименовывается,
+     * поэтому частично записанное состояние никогда не читается.
+     *
+     * @param browser браузер текущего потока
+     * @param role    роль пользователя
+     * @param routine процедура входа
+     * @param path    путь к файлу состояния
+     * @return новое состояние роли
+     */
+    private static State login(Browser browser, String role, LoginRoutine routine, Path path) {
+        TestLogger.LOGGER.info("Вход под ролью {} через {}", role, routine.getClass().getSimpleName());
+        long start = System.currentTimeMillis();
+        String json;
+        try (BrowserContext context = browser.newContext(BrowserManager.createContextOptions())) {
+            routine.login(context.newPage(), role);
+            json = context.storageState();
+        } catch (Exception e) {
+            throw new IllegalStateException("Не удалось выполнить вход под ролью " + role, e);
+        }
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            Files.writeString(temp, json);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            // Состояние остается в памяти; следующий запуск выполнит вход заново
+            TestLogger.LOGGER.warn("Не удалось сохранить состояние роли {} в {}: {}", role, path, e.getMessage());
+        }
+        TestLogger.LOGGER.info("Состояние роли {} сохранено в {} за {} мс",
+                role, path, System.currentTimeMillis() - start);
+        return parseState(json, Instant.now());
+    }
+
+    /**
+     * Читает состояние роли, сохраненное предыдущим запуском.
+     *
+     * @param role роль пользователя
+     * @param path путь к файлу состояния
+     * @return состояние или null, если файла нет или его не удалось прочитать
+     */
+    private static State readState(String role, Path path) {
+        try {
+            if (!Files.exists(path)) {
+                return null;
+            }
+            return parseState(Files.readString(path), Files.getLastModifiedTime(path).toInstant());
+        } catch (Exception e) {
+            TestLogger.LOGGER.warn("Не удалось прочитать состояние роли {}: {}", role, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Разбирает состояние и определяет, когда истекает первая из его cookies.
+     *
+     * @param json      содержимое storageState
+     * @param createdAt время создания состояния
+     * @return состояние роли
+     */
+    private static State parseState(String json, Instant createdAt) {
+        JsonObject state = JsonParser.parseString(json).getAsJsonObject();
+        Instant expiresAt = null;
+        if (state.has("cookies")) {
+            for (JsonElement cookie : state.getAsJsonArray("cookies")) {
+                JsonElement expires = cookie.getAsJsonObject().get("expires");
+                // -1 означает сессионную cookie без срока действия
+                if (expires != null && expires.getAsDouble() > 0) {
+                    Instant instant = Instant.ofEpochMilli((long) (expires.getAsDouble() * 1000));
+                    if (expiresAt == null || instant.isBefore(expiresAt)) {
+                        expiresAt = instant;
+                    }
+                }
+            }
+        }
+        return new State(json, createdAt, expiresAt);
+    }
+
+    /**
+     * Получает ключ состояния: одна роль в разных процедурах входа - разные пользователи.
+     *
+     * @param role    роль пользователя
+     * @param routine процедура входа
+     * @return ключ вида класс_процедуры#роль
+     */
+    private static String stateKey(String role, LoginRoutine routine) {
+        return routine.getClass().getName() + "#" + role;
+    }
+
+    /**
+     * Получает путь к файлу состояния.
+     *
+     * @param key ключ состояния
+     * @return путь к файлу состояния
+     */
+    private static Path resolvePath(String key) {
+        String fileName = key.replace('#', '-').replaceAll("[^A-Za-z0-9._-]", "_") + ".json";
+        return PlaywrightConfig.getInstance().getAuthStateDir().resolve(fileName);
+    }
+
+    /**
+     * Получает процедуру входа из аннотации или из конфигурации.
+     *
+     * @param loggedInAs аннотация с ролью
+     * @return экземпляр процедуры входа
+     * @throws IllegalStateException если процедура входа не задана или не может быть создана
+     */
+    @SuppressWarnings("unchecked")
+    private static LoginRoutine getLoginRoutine(LoggedInAs loggedInAs) {
+        Class<? extends LoginRoutine> routineClass = loggedInAs.routine();
+        if (routineClass == LoginRoutine.class) {
+            PlaywrightConfig config = PlaywrightConfig.getInstance();
+            if (!config.hasLoginRoutine()) {
+                throw new IllegalStateException("Для роли " + loggedInAs.value() +
+                        " не задана процедура входа: укажите @LoggedInAs(routine = ...) или auth.loginRoutine");
+            }
+            try {
+                routineClass = (Class<? extends LoginRoutine>) Class.forName(config.getLoginRoutine());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Класс процедуры входа не найден: " + config.getLoginRoutine(), e);
+            }
+        }
+        return routines.computeIfAbsent(routineClass, type -> {
+            try {
+                return type.getDeclaredConstructor().newInstance();
+            } catch (Exception e) {
+                throw new IllegalStateException("Не удалось создать процедуру входа " + type.getSimpleName(), e);
+            }
+        });
+    }
+}
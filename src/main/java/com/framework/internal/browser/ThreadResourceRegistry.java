@@ -0,0 +1,428 @@
+package com.framework.internal.browser;
+
+import com.framework.api.annotations.LoggedInAs;
+import com.framework.api.config.PlaywrightConfig;
+import com.framework.internal.logging.TestLogger;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.Video;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр объектов Playwright, привязанных к потокам выполнения тестов.
+ * <p>
+ * Объекты Playwright не потокобезопасны: Page, BrowserContext и Browser можно
+ * использовать только в потоке, которому принадлежит их экземпляр Playwright.
+ * Реестр выдает каждому потоку собственные BrowserContext и Page поверх сессии
+ * браузера этого потока и следит за тем, чтобы объекты одного потока
+ * не передавались в другой.
+ * <p>
+ * Контексты и сессии, полученные реестром, освобождаются в потоке-владельце
+ * после каждого теста (см. {@link ThreadResources#releaseOwned(boolean)}). В конце набора
+ * тестов {@link #closeAll()} закрывает оставшиеся сессии целиком, не обращаясь
+ * к их контекстам из чужого потока, поэтому при повторном использовании потоков
+ * TestNG браузеры не утекают.
+ * <p>
+ * Пример использования:
+ * ```
+ * ThreadResourceRegistry.ThreadResources resources = ThreadResourceRegistry.current();
+ * resources.getPage().navigate("https://example.com");
+ * ```
+ */
+public class ThreadResourceRegistry {
+
+    /**
+     * Ресурсы по потокам-владельцам.
+     */
+    private static final Map<Thread, ThreadResources> resources = new ConcurrentHashMap<>();
+
+    private ThreadResourceRegistry() {
+    }
+
+    /**
+     * Получает ресурсы текущего потока, создавая их при первом обращении.
+     *
+     * @return ресурсы текущего потока
+     */
+    public static ThreadResources current() {
+        return resources.computeIfAbsent(Thread.currentThread(), thread -> new ThreadResources());
+    }
+
+    /**
+     * Проверяет, принадлежит ли объект Playwright текущему потоку.
+     * Поддерживаются Playwright, Browser, BrowserContext и Page.
+     *
+     * @param playwrightObject объект Playwright
+     * @return true, если объект можно использовать в текущем потоке
+     */
+    public static boolean isOwnedByCurrentThread(Object playwrightObject) {
+        BrowserSession session = findSession(playwrightObject);
+        return session != null && session.getOwner() == Thread.currentThread();
+    }
+
+    /**
+     * Проверяет, принадлежит ли объект Playwright, созданный фреймворком, другому потоку.
+     * Объекты, созданные в обход фреймворка, считаются пригодными для текущего потока.
+     *
+     * @param playwrightObject объект Playwright
+     * @return true, если объект нельзя использовать в текущем потоке
+     */
+    public static boolean isOwnedByOtherThread(Object playwrightObject) {
+        BrowserSession session = findSession(playwrightObject);
+        return session != null && session.getOwner() != Thread.currentThread();
+    }
+
+    /**
+     * Находит выданную фреймворком сессию, которой принадлежит объект Playwright.
+     *
+     * @param playwrightObject объект Playwright
+     * @return сессия или null
+     */
+    private static BrowserSession findSession(Object playwrightObject) {
+        Browser browser = switch (playwrightObject) {
+            case Page page -> page.context().browser();
+            case BrowserContext context -> context.browser();
+            case Browser b -> b;
+            case Playwright playwright -> {
+                BrowserSession session = BrowserSessionManager.findSession(playwright);
+                yield session != null ? session.getBrowser() : null;
+            }
+            default -> null;
+        };
+        return browser != null ? BrowserSessionManager.findSession(browser) : null;
+    }
+
+    /**
+     * Забывает ресурсы всех потоков. Вызывается в конце набора тестов.
+     * <p>
+     * Метод выполняется в потоке завершения набора, поэтому контексты других потоков
+     * по одному не закрываются. Сессии, которые реестр не успел освободить в потоке-владельце,
+     * закрываются целиком через {@link BrowserSessionManager#close(BrowserSession)}
+     * вместе со всеми своими контекстами.
+     */
+    public static void closeAll() {
+        if (resources.isEmpty()) {
+            return;
+        }
+        TestLogger.LOGGER.info("Закрытие ресурсов Playwright {} потоков", resources.size());
+        for (ThreadResources threadResources : resources.values()) {
+            threadResources.abandon();
+        }
+        resources.clear();
+    }
+
+    /**
+     * Объекты Playwright одного потока.
+     * <p>
+     * Текущие BrowserContext и Page потока либо создаются реестром лениво,
+     * либо привязываются базовым тестовым классом через {@link #bind}.
+     * Привязанные объекты закрывает тот, кто их создал.
+     */
+    public static final class ThreadResources {
+        /**
+         * Поток-владелец ресурсов.
+         */
+        private final Thread owner = Thread.currentThread();
+
+        /**
+         * Сессия браузера потока.
+         */
+        private BrowserSession session;
+
+        /**
+         * Признак того, что сессия получена реестром и освобождается им.
+         */
+        private boolean ownsSession;
+
+        /**
+         * Текущий контекст браузера потока.
+         */
+        private BrowserContext context;
+
+        /**
+         * Признак того, что контекст создан реестром и закрывается им.
+         */
+        private boolean ownsContext;
+
+        /**
+         * Текущая страница потока.
+         */
+        private Page page;
+
+        private ThreadResources() {
+        }
+
+        /**
+         * Получает экземпляр Playwright потока.
+         *
+         * @return экземпляр Playwright
+         */
+        public Playwright getPlaywright() {
+            return session().getPlaywright();
+        }
+
+        /**
+         * Получает браузер потока.
+         *
+         * @return экземпляр Browser
+         */
+        public Browser getBrowser() {
+            return session().getBrowser();
+        }
+
+        /**
+         * Получает текущий контекст браузера потока, создавая его при необходимости.
+         *
+         * @return экземпляр BrowserContext
+         */
+        public BrowserContext getContext() {
+            BrowserSession current = session();
+            if (context == null) {
+                context = takeContext(current.getBrowser());
+                ownsContext = true;
+                page = null;
+                TestLogger.LOGGER.debug("Создан BrowserContext для потока {}", owner.getName());
+            }
+            return context;
+        }
+
+        /**
+         * Получает текущую страницу потока, создавая её при необходимости.
+         *
+         * @return экземпляр Page
+         */
+        public Page getPage() {
+            BrowserContext current = getContext();
+            if (page == null || page.isClosed()) {
+                page = current.newPage();
+            }
+            return page;
+        }
+
+        /**
+         * Делает переданные объекты текущими для потока.
+         * Используется базовым тестовым классом, чтобы внедряемые в тест
+         * объекты совпадали с объектами класса.
+         *
+         * @param session сессия браузера
+         * @param context контекст браузера
+         * @param page    страница
+         */
+        public void bind(BrowserSession session, BrowserContext context, Page page) {
+            checkOwner();
+            closeOwnedContext(false);
+            if (this.session != session) {
+                releaseSession();
+                this.session = session;
+                this.ownsSession = false;
+            }
+            this.context = context;
+            this.ownsContext = false;
+            this.page = page;
+        }
+
+        /**
+         * Отвязывает контекст и страницу, привязанные через {@link #bind}.
+         * Сессия остается за потоком.
+         */
+        public void unbind() {
+            checkOwner();
+            if (!ownsContext) {
+                context = null;
+                page = null;
+            }
+        }
+
+        /**
+         * Отвязывает все объекты, привязанные через {@link #bind}, включая сессию.
+         */
+        public void unbindSession() {
+            unbind();
+            if (!ownsSession) {
+                closeOwnedContext(false);
+                releaseSession();
+            }
+        }
+
+        /**
+         * Закрывает контекст и возвращает в пул сессию, полученные реестром.
+         * Объекты, привязанные через {@link #bind}, не затрагиваются.
+         * Видео закрытого контекста сохраняется или удаляется в соответствии с video.mode.
+         * <p>
+         * При browser.scope=class браузер, полученный потоком для одного теста,
+         * иначе оставался бы за потоком до конца набора тестов.
+         *
+         * @param failed true, если тест, использовавший контекст, не прошел
+         */
+        public void releaseOwned(boolean failed) {
+            checkOwner();
+            closeOwnedContext(failed);
+            if (ownsSession) {
+                releaseSession();
+            }
+        }
+
+        /**
+         * Выдает новый контекст без авторизации для браузера потока.
+         *
+         * @param browser браузер, которому должен принадлежать контекст
+         * @return новый контекст браузера
+         */
+        public BrowserContext takeContext(Browser browser) {
+            return takeContext(browser, null);
+        }
+
+        /**
+         * Создает новый контекст для браузера потока.
+         * <p>
+         * Объекты Playwright привязаны к потоку, поэтому контекст нельзя подготовить
+         * в фоне: заранее созданный в том же потоке контекст не сокращает время прогона,
+         * а лишь переносит ту же работу на конец предыдущего теста.
+         *
+         * @param browser    браузер, которому должен принадлежать контекст
+         * @param loggedInAs роль пользователя или null
+         * @return новый контекст браузера
+         */
+        public BrowserContext takeContext(Browser browser, LoggedInAs loggedInAs) {
+            checkOwner();
+            return BrowserManager.newContext(browser, loggedInAs);
+        }
+
+        /**
+         * Получает сессию браузера потока, заменяя её после падения браузера.
+         *
+         * @return сессия браузера
+         */
+        private BrowserSession session() {
+            checkOwner();
+            if (session == null || !session.isAlive()) {
+                closeOwnedContext(false);
+                releaseSession();
+                session = BrowserSessionManager.acquire();
+                ownsSession = true;
+                context = null;
+                page = null;
+            }
+            return session;
+        }
+
+        /**
+         * Запрещает использование ресурсов из чужого потока.
+         *
+         * @throws IllegalStateException если текущий поток не является владельцем
+         */
+        private void checkOwner() {
+            if (Thread.currentThread() != owner) {
+                throw new IllegalStateException("Ресурсы Playwright потока " + owner.getName() +
+                        " нельзя использовать в потоке " + Thread.currentThread().getName());
+            }
+        }
+
+        /**
+         * Закрывает контекст, созданный реестром, и обрабатывает его видео.
+         *
+         * @param failed true, если тест, использовавший контекст, не прошел
+         */
+        private void closeOwnedContext(boolean failed) {
+            if (ownsContext && context != null) {
+                List<Video> videos = collectVideos(context);
+                closeQuietly(context);
+                finishVideos(videos, failed);
+            }
+            if (ownsContext) {
+                context = null;
+                page = null;
+                ownsContext = false;
+            }
+        }
+
+        /**
+         * Забывает текущую сессию и освобождает её, если она была получена реестром.
+         */
+        private void releaseSession() {
+            if (ownsSession) {
+                BrowserSessionManager.release(session);
+            }
+            session = null;
+            ownsSession = false;
+        }
+
+        /**
+         * Собирает видео страниц контекста, если запись видео включена.
+         *
+         * @param browserContext контекст браузера
+         * @return видео страниц контекста
+         */
+        private static List<Video> collectVideos(BrowserContext browserContext) {
+            List<Video> videos = new ArrayList<>();
+            if (!PlaywrightConfig.getInstance().isRecordVideo()) {
+                return videos;
+            }
+            try {
+                for (Page contextPage : browserContext.pages()) {
+                    if (contextPage.video() != null) {
+                        videos.add(contextPage.video());
+                    }
+                }
+            } catch (Exception e) {
+                TestLogger.LOGGER.error("Не удалось получить видео контекста: {}", e.getMessage());
+            }
+            return videos;
+        }
+
+        /**
+         * Удаляет видео закрытого контекста, если по video.mode его не нужно сохранять.
+         *
+         * @param videos видео страниц контекста
+         * @param failed true, если тест, использовавший контекст, не прошел
+         */
+        private static void finishVideos(List<Video> videos, boolean failed) {
+            if (videos.isEmpty() || PlaywrightConfig.getInstance().getVideoMode().shouldRetain(failed)) {
+                return;
+            }
+            for (Video video : videos) {
+                try {
+                    video.delete();
+                } catch (Exception e) {
+                    TestLogger.LOGGER.error("Ошибка при удалении видео: {}", e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Закрывает контекст, не прерывая работу при ошибке.
+         *
+         * @param browserContext контекст браузера
+         */
+        private static void closeQuietly(BrowserContext browserContext) {
+            try {
+                browserContext.close();
+            } catch (Exception e) {
+                TestLogger.LOGGER.error("Ошибка при закрытии BrowserContext: {}", e.getMessage());
+            }
+        }
+
+        /**
+         * Забывает объекты потока и закрывает сессию, полученную реестром.
+         * Может вызываться из чужого потока: сессия закрывается целиком,
+         * к отдельным контекстам и страницам метод не обращается.
+         */
+        private void abandon() {
+            BrowserSession owned = ownsSession ? session : null;
+            session = null;
+            ownsSession = false;
+            context = null;
+            ownsContext = false;
+            page = null;
+            if (owned != null) {
+                BrowserSessionManager.close(owned);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.framework.internal.factory;
 
+import com.framework.api.annotations.PageParam;
+import com.framework.api.factory.PageContext;
 import com.framework.api.factory.PageFactory;
 import com.framework.api.pages.HomePage;
 import com.microsoft.playwright.Browser;
@@ -8,6 +10,7 @@ import com.microsoft.playwright.Page;
 import com.microsoft.playwright.Playwright;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
 
 /**
  * Пользовательская фабрика для создания объектов страниц.
@@ -34,11 +37,13 @@ import java.lang.reflect.Method;
 public class CustomPageFactory implements PageFactory {
 
     /**
-     * Создает объект страницы для тестового метода.
-     * <p>
-     * Если запрошена страница типа HomePage, выполняет предварительную
-     * навигацию на нужный URL. Для других типов страниц использует
-     * стандартную фабрику DefaultPageFactory.
+     * Стандартная фабрика для типов страниц без особой логики.
+     */
+    private static final DefaultPageFactory DEFAULT_FACTORY = new DefaultPageFactory();
+
+    /**
+     * Создает объект страницы для первого параметра тестового метода, который
+     * может создать фабрика.
      *
      * @param playwright экземпляр Playwright
      * @param browser    экземпляр Browser
@@ -51,22 +56,51 @@ public class CustomPageFactory implements PageFactory {
     @Override
     public Object createPage(Playwright playwright, Browser browser, BrowserContext context,
                              Page page, Class<?> testClass, Method testMethod) {
-        if (page == null) {
-            return null;
+        for (Parameter param : testMethod.getParameters()) {
+            if (canCreate(param.getType())) {
+                return createPage(param.getType(),
+                        new PageContext(playwright, browser, context, page, testClass, testMethod, param));
+            }
         }
+        return null;
+    }
+
+    /**
+     * Создает объект страницы указанного типа.
+     * <p>
+     * Если запрошена страница типа HomePage, ее Page оборачивается отложенной
+     * навигацией (см. {@link LazyNavigation}): переход на домашнюю страницу
+     * выполняется при первом обращении теста к странице, а не во время работы
+     * поставщика данных. Явный {@code @PageParam(navigate = true)} имеет приоритет.
+     * Для других типов страниц используется стандартная фабрика DefaultPageFactory.
+     *
+     * @param type тип страницы
+     * @param ctx  объекты Playwright и сведения о тесте
+     * @return созданный объект страницы или null
+     */
+    @Override
+    public Object createPage(Class<?> type, PageContext ctx) {
+        Object pageObject = DEFAULT_FACTORY.createPage(type, ctx);
 
         // Здесь можно добавить кастомную логику для создания страниц
         // Например, предварительно открыть нужный URL или установить куки
 
-        if (HomePage.class.isAssignableFrom(testMethod.getReturnType())) {
-            // Если запрошена HomePage, выполняем навигацию перед возвратом страницы
-            page.navigate("https://example.com");
-            return new HomePage(page);
+        if (pageObject instanceof HomePage homePage && !navigatesByPageParam(ctx)) {
+            // Домашняя страница откроется при первом действии теста
+            homePage.setPage(LazyNavigation.wrap(homePage.getPage(), homePage.getBaseUrl()));
         }
+        return pageObject;
+    }
 
-        // Для других типов используем дефолтную логику
-        return new DefaultPageFactory().createPage(
-                playwright, browser, context, page, testClass, testMethod);
+    /**
+     * Проверяет, задана ли навигация параметра через PageParam.
+     *
+     * @param ctx объекты Playwright и сведения о тесте
+     * @return true, если параметр помечен {@code @PageParam(navigate = true)} с URL
+     */
+    private boolean navigatesByPageParam(PageContext ctx) {
+        PageParam pageParam = ctx.getParameter() != null ? ctx.getParameter().getAnnotation(PageParam.class) : null;
+        return pageParam != null && pageParam.navigate() && !pageParam.url().isEmpty();
     }
 
     /**
@@ -79,6 +113,6 @@ public class CustomPageFactory implements PageFactory {
     public boolean canCreate(Class<?> pageType) {
         return pageType != null &&
                 (HomePage.class.isAssignableFrom(pageType) ||
-                        new DefaultPageFactory().canCreate(pageType));
+                        DEFAULT_FACTORY.canCreate(pageType));
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.framework.internal.factory;
 
 import com.framework.api.annotations.PageParam;
+import com.framework.api.factory.PageContext;
 import com.framework.api.factory.PageFactory;
 import com.framework.api.pages.PageObject;
 import com.microsoft.playwright.Browser;
@@ -8,7 +9,6 @@ import com.microsoft.playwright.BrowserContext;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.Playwright;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 
@@ -46,10 +46,9 @@ import java.lang.reflect.Parameter;
 public class DefaultPageFactory implements PageFactory {
 
     /**
-     * Создает объект страницы для тестового метода.
-     * <p>
-     * Анализирует параметры метода и создает объекты страниц нужных типов.
-     * Обрабатывает аннотацию PageParam для настройки параметров страницы.
+     * Создает объект страницы для первого параметра тестового метода, который
+     * может создать фабрика. Оставлен для совместимости: фреймворк создает страницы
+     * для каждого параметра через {@link #createPage(Class, PageContext)}.
      *
      * @param playwright экземпляр Playwright
      * @param browser    экземпляр Browser
@@ -62,45 +61,58 @@ public class DefaultPageFactory implements PageFactory {
     @Override
     public Object createPage(Playwright playwright, Browser browser, BrowserContext context,
                              Page page, Class<?> testClass, Method testMethod) {
-        try {
-            if (page == null) {
-                return null;
+        for (Parameter param : testMethod.getParameters()) {
+            if (param.isAnnotationPresent(PageParam.class) || canCreate(param.getType())) {
+                return createPage(param.getType(),
+                        new PageContext(playwright, browser, context, page, testClass, testMethod, param));
             }
+        }
+        return null;
+    }
 
-            Parameter[] parameters = testMethod.getParameters();
-            for (Parameter param : parameters) {
-                Class<?> paramType = param.getType();
-
-                // Обработка для аннотации PageParam
-                if (param.isAnnotationPresent(PageParam.class)) {
-                    PageParam pageParam = param.getAnnotation(PageParam.class);
-
-                    // Создаем объект страницы
-                    Object pageObj = createPageObject(paramType, page);
-
-                    // Если нужно, открываем URL
-                    if (pageParam.navigate() && !pageParam.url().isEmpty()) {
-                        page.navigate(pageParam.url());
-                    }
-
-                    return pageObj;
-                }
+    /**
+     * Создает объект страницы указанного типа.
+     * <p>
+     * Обрабатывает аннотацию PageParam параметра: при navigate=true объект страницы
+     * получает Page с отложенной навигацией (см. {@link LazyNavigation}), и переход
+     * на указанный URL выполняется только при первом обращении теста к странице.
+     * Если в контексте задан адрес сайта (@MockServer), он передается объекту страницы,
+     * а относительный URL из PageParam дополняется этим адресом.
+     *
+     * @param type тип страницы
+     * @param ctx  объекты Playwright и сведения о тесте
+     * @return созданный объект страницы или null, если страница не может быть создана
+     */
+    @Override
+    public Object createPage(Class<?> type, PageContext ctx) {
+        Page page = ctx.getPage();
+        if (page == null) {
+            return null;
+        }
 
-                // Стандартная логика создания страниц
-                if (canCreate(paramType)) {
-                    return createPageObject(paramType, page);
-                }
+        // Обработка для аннотации PageParam: если нужно, откроем URL при первом обращении к странице
+        PageParam pageParam = ctx.getParameter() != null ? ctx.getParameter().getAnnotation(PageParam.class) : null;
+        if (pageParam != null && pageParam.navigate() && !pageParam.url().isEmpty()) {
+            String url = pageParam.url();
+            if (ctx.getBaseUrl() != null && url.startsWith("/")) {
+                url = ctx.getBaseUrl() + url;
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+            page = LazyNavigation.wrap(page, url);
         }
-        return null;
+
+        // Создаем объект страницы
+        Object pageObject = createPageObject(type, page);
+        if (ctx.getBaseUrl() != null && pageObject instanceof PageObject po) {
+            po.setBaseUrl(ctx.getBaseUrl());
+        }
+        return pageObject;
     }
 
     /**
      * Создает объект страницы заданного типа.
      * <p>
-     * Пробует различные способы создания:
+     * Способ создания определяется один раз для каждого класса
+     * (см. {@link PageInstantiationPlan}):
      * 1. Через конструктор с параметром Page
      * 2. Через пустой конструктор и интерфейс PageObject
      * 3. Через пустой конструктор и метод initPage
@@ -111,42 +123,7 @@ public class DefaultPageFactory implements PageFactory {
      * @return созданный объект страницы или null в случае ошибки
      */
     private Object createPageObject(Class<?> pageType, Page page) {
-        try {
-            // Сначала пробуем конструктор с Page
-            try {
-                Constructor<?> constructor = pageType.getConstructor(Page.class);
-                return constructor.newInstance(page);
-            } catch (NoSuchMethodException e) {
-                // Пробуем пустой конструктор и установку страницы
-                Object pageObj = pageType.getDeclaredConstructor().newInstance();
-
-                // Если класс реализует PageObject, используем его метод
-                if (pageObj instanceof PageObject) {
-                    ((PageObject) pageObj).setPage(page);
-                    return pageObj;
-                }
-
-                // Иначе ищем методы вручную
-                try {
-                    Method initMethod = pageType.getMethod("initPage", Page.class);
-                    initMethod.invoke(pageObj, page);
-                    return pageObj;
-                } catch (NoSuchMethodException ex) {
-                    try {
-                        Method setMethod = pageType.getMethod("setPage", Page.class);
-                        setMethod.invoke(pageObj, page);
-                        return pageObj;
-                    } catch (NoSuchMethodException ex2) {
-                        // Нет методов для установки Page
-                        return pageObj;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Не удалось создать объект страницы: " + pageType.getName());
-            e.printStackTrace();
-            return null;
-        }
+        return PageInstantiationPlan.of(pageType).create(page);
     }
 
     /**
@@ -173,27 +150,12 @@ public class DefaultPageFactory implements PageFactory {
 
     /**
      * Проверяет, имеет ли класс конструктор с параметром Page или методы для установки Page.
+     * Результат вычисляется один раз для каждого класса.
      *
      * @param type проверяемый тип
      * @return true, если класс имеет способ принять объект Page, иначе false
      */
     private boolean hasPageConstructorOrMethod(Class<?> type) {
-        // Проверка наличия конструктора или методов
-        try {
-            type.getConstructor(Page.class);
-            return true;
-        } catch (NoSuchMethodException e) {
-            try {
-                type.getMethod("setPage", Page.class);
-                return true;
-            } catch (NoSuchMethodException ex) {
-                try {
-                    type.getMethod("initPage", Page.class);
-                    return true;
-                } catch (NoSuchMethodException ex2) {
-                    return false;
-                }
-            }
-        }
+        return PageInstantiationPlan.of(type).isCreatable();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,187 @@
+package com.framework.internal.factory;
+
+import com.framework.api.annotations.MockServer;
+import com.framework.api.factory.PageContext;
+import com.framework.api.factory.PageFactory;
+import com.framework.extentions.mock.MockHttpServer;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * План внедрения зависимостей в параметры тестового метода.
+ * <p>
+ * Для каждого параметра один раз определяется, чем его заполнять: объектом Playwright,
+ * объектом страницы от фабрики или значением из поставщика данных. План кэшируется
+ * для пары "метод + класс фабрики", поэтому подготовка каждой строки данных
+ * не требует повторного разбора параметров и вызовов canCreate.
+ * <p>
+ * Пример использования:
+ * ```
+ * InjectionPlan plan = InjectionPlan.of(method, factory);
+ * for (InjectionPlan.Slot slot : plan.getSlots()) {
+ * if (slot.kind() == InjectionPlan.Kind.PAGE_OBJECT) {
+ * params[slot.index()] = plan.createPage(slot, factory, playwright, browser, context, page, testClass);
+ * }
+ * }
+ * ```
+ */
+public final class InjectionPlan {
+
+    /**
+     * Способ заполнения параметра.
+     */
+    public enum Kind {
+        PLAYWRIGHT,
+        BROWSER,
+        BROWSER_CONTEXT,
+        PAGE,
+        /**
+         * Объект страницы, создаваемый фабрикой.
+         */
+        PAGE_OBJECT,
+        /**
+         * Значение, которое фреймворк не создает (например, данные теста).
+         */
+        VALUE
+    }
+
+    /**
+     * Параметр метода и способ его заполнения.
+     *
+     * @param index     позиция параметра
+     * @param kind      способ заполнения
+     * @param parameter параметр метода
+     */
+    public record Slot(int index, Kind kind, Parameter parameter) {
+        /**
+         * @return тип параметра
+         */
+        public Class<?> type() {
+            return parameter.getType();
+        }
+    }
+
+    /**
+     * Ключ кэша планов.
+     *
+     * @param method       тестовый метод
+     * @param factoryClass класс фабрики страниц
+     */
+    private record Key(Method method, Class<?> factoryClass) {
+    }
+
+    /**
+     * Планы по методам и фабрикам.
+     */
+    private static final Map<Key, InjectionPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Тестовый метод.
+     */
+    private final Method method;
+
+    /**
+     * Параметры метода в порядке объявления.
+     */
+    private final Slot[] slots;
+
+    private InjectionPlan(Method method, Slot[] slots) {
+        this.method = method;
+        this.slots = slots;
+    }
+
+    /**
+     * Получает план внедрения для метода и фабрики, строя его при первом обращении.
+     *
+     * @param method  тестовый метод
+     * @param factory фабрика страниц
+     * @return план внедрения
+     */
+    public static InjectionPlan of(Method method, PageFactory factory) {
+        return plans.computeIfAbsent(new Key(method, factory.getClass()), key -> build(method, factory));
+    }
+
+    /**
+     * Получает параметры метода с их способами заполнения.
+     *
+     * @return массив параметров; не изменяйте его
+     */
+    public Slot[] getSlots() {
+        return slots;
+    }
+
+    /**
+     * Создает объект страницы для параметра плана.
+     *
+     * @param slot       параметр вида PAGE_OBJECT
+     * @param factory    фабрика страниц, для которой построен план
+     * @param playwright экземпляр Playwright
+     * @param browser    экземпляр Browser
+     * @param context    экземпляр BrowserContext
+     * @param page       экземпляр Page
+     * @param testClass  класс теста
+     * @return объект страницы или null
+     */
+    public Object createPage(Slot slot, PageFactory factory, Playwright playwright, Browser browser,
+                             BrowserContext context, Page page, Class<?> testClass) {
+        return factory.createPage(slot.type(), new PageContext(playwright, browser, context, page, testClass,
+                method, slot.parameter(), resolveBaseUrl(testClass)));
+    }
+
+    /**
+     * Определяет адрес сайта для объектов страниц по аннотации MockServer метода или класса.
+     *
+     * @param testClass класс теста
+     * @return адрес mock-сервера или null, если аннотации нет
+     */
+    private String resolveBaseUrl(Class<?> testClass) {
+        MockServer mockServer = method.getAnnotation(MockServer.class);
+        for (Class<?> type = testClass; mockServer == null && type != null; type = type.getSuperclass()) {
+            mockServer = type.getAnnotation(MockServer.class);
+        }
+        return mockServer != null ? MockHttpServer.get().getBaseUrl(mockServer.value()) : null;
+    }
+
+    /**
+     * Строит план внедрения для метода.
+     *
+     * @param method  тестовый метод
+     * @param factory фабрика страниц
+     * @return план внедрения
+     */
+    private static InjectionPlan build(Method method, PageFactory factory) {
+        Parameter[] parameters = method.getParameters();
+        Slot[] slots = new Slot[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            slots[i] = new Slot(i, resolveKind(parameters[i].getType(), factory), parameters[i]);
+        }
+        return new InjectionPlan(method, slots);
+    }
+
+    /**
+     * Определяет способ заполнения параметра по его типу.
+     *
+     * @param type    тип параметра
+     * @param factory фабрика страниц
+     * @return способ заполнения
+     */
+    private static Kind resolveKind(Class<?> type, PageFactory factory) {
+        if (type.equals(Playwright.class)) {
+            return Kind.PLAYWRIGHT;
+        } else if (type.equals(Browser.class)) {
+            return Kind.BROWSER;
+        } else if (type.equals(BrowserContext.class)) {
+            return Kind.BROWSER_CONTEXT;
+        } else if (type.equals(Page.class)) {
+            return Kind.PAGE;
+        }
+        return factory.canCreate(type) ? Kind.PAGE_OBJECT : Kind.VALUE;
+    }
+}
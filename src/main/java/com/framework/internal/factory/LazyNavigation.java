@@ -0,0 +1,127 @@
+package com.framework.internal.factory;
+
+import com.framework.internal.logging.TestLogger;
+import com.microsoft.playwright.Page;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+
+/**
+ * Отложенная навигация для объектов страниц.
+ * <p>
+ * Оборачивает Page в прокси, который выполняет переход на URL только при первом
+ * обращении теста к странице. Благодаря этому {@code @PageParam(navigate = true)}
+ * не загружает страницу во время работы поставщика данных: пропущенные тесты
+ * и тесты, упавшие до первого действия, не тратят время на загрузку.
+ * <p>
+ * Переход не выполняется, если:
+ * - страница уже находится на целевом URL (например, для следующей строки данных)
+ * - первым действием теста является собственный вызов navigate
+ * <p>
+ * Служебные вызовы (isClosed, context, close и методы Object) переход не запускают.
+ * <p>
+ * Пример использования:
+ * ```
+ * Page lazyPage = LazyNavigation.wrap(page, "https://example.com/login");
+ * LoginPage loginPage = new LoginPage(lazyPage);
+ * // Переход выполнится здесь, при первом действии со страницей
+ * loginPage.login("user", "password");
+ * ```
+ */
+public final class LazyNavigation {
+
+    /**
+     * Методы Page, которые не требуют открытой целевой страницы.
+     */
+    private static final Set<String> PASSIVE_METHODS = Set.of("isClosed", "context", "close", "onClose");
+
+    private LazyNavigation() {
+    }
+
+    /**
+     * Оборачивает страницу так, чтобы переход на URL выполнился при первом обращении.
+     *
+     * @param page страница Playwright
+     * @param url  целевой URL
+     * @return страница с отложенной навигацией
+     */
+    public static Page wrap(Page page, String url) {
+        return (Page) Proxy.newProxyInstance(Page.class.getClassLoader(), new Class<?>[]{Page.class},
+                new Handler(unwrap(page), url));
+    }
+
+    /**
+     * Получает исходную страницу без запуска отложенной навигации.
+     * Используется для служебных действий, например для скриншота при ошибке.
+     *
+     * @param page страница, возможно обернутая {@link #wrap(Page, String)}
+     * @return исходная страница
+     */
+    public static Page unwrap(Page page) {
+        if (page != null && Proxy.isProxyClass(page.getClass())
+                && Proxy.getInvocationHandler(page) instanceof Handler handler) {
+            return handler.target;
+        }
+        return page;
+    }
+
+    /**
+     * Обработчик вызовов прокси страницы.
+     */
+    private static final class Handler implements InvocationHandler {
+        private final Page target;
+        private final String url;
+        private boolean pending = true;
+
+        private Handler(Page target, String url) {
+            this.target = target;
+            this.url = url;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "LazyPage(" + url + ")";
+                };
+            }
+            if (pending && !PASSIVE_METHODS.contains(method.getName())) {
+                pending = false;
+                // Собственная навигация теста заменяет отложенную
+                if (!method.getName().equals("navigate") && !isAtTarget()) {
+                    TestLogger.LOGGER.debug("Отложенный переход на {}", url);
+                    target.navigate(url);
+                }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Проверяет, открыт ли на странице целевой URL.
+         *
+         * @return true, если переход не нужен
+         */
+        private boolean isAtTarget() {
+            return normalize(target.url()).equals(normalize(url));
+        }
+
+        /**
+         * Приводит URL к виду для сравнения: без завершающего слэша.
+         *
+         * @param value URL
+         * @return нормализованный URL
+         */
+        private static String normalize(String value) {
+            return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+        }
+    }
+}
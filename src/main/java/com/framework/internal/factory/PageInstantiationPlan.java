@@ -0,0 +1,235 @@
+package com.framework.internal.factory;
+
+import com.framework.api.pages.PageObject;
+import com.framework.internal.logging.TestLogger;
+import com.microsoft.playwright.Page;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * План создания объекта страницы для одного класса.
+ * <p>
+ * Поиск конструкторов и методов через отражение выполняется один раз на класс,
+ * результат хранится в {@link ClassValue}. Дальнейшее создание объекта сводится
+ * к вызову заранее подготовленных {@link MethodHandle} без повторного поиска
+ * и без исключений в качестве управляющей логики.
+ * <p>
+ * Способы создания проверяются в том же порядке, что и раньше в DefaultPageFactory:
+ * 1. Конструктор с параметром Page
+ * 2. Пустой конструктор и метод setPage интерфейса PageObject
+ * 3. Пустой конструктор и метод initPage
+ * 4. Пустой конструктор и метод setPage
+ * 5. Только пустой конструктор
+ * <p>
+ * Пример использования:
+ * ```
+ * PageInstantiationPlan plan = PageInstantiationPlan.of(HomePage.class);
+ * if (plan.isCreatable()) {
+ * HomePage homePage = (HomePage) plan.create(page);
+ * }
+ * ```
+ */
+final class PageInstantiationPlan {
+
+    /**
+     * Планы по классам страниц.
+     */
+    private static final ClassValue<PageInstantiationPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected PageInstantiationPlan computeValue(Class<?> type) {
+            return build(type);
+        }
+    };
+
+    /**
+     * Тип метода (Page)Object для конструктора с параметром Page.
+     */
+    private static final MethodType PAGE_CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Page.class);
+
+    /**
+     * Тип метода ()Object для пустого конструктора.
+     */
+    private static final MethodType DEFAULT_CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    /**
+     * Тип метода (Object, Page)void для методов установки Page.
+     */
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Page.class);
+
+    /**
+     * Класс страницы.
+     */
+    private final Class<?> type;
+
+    /**
+     * Признак того, что класс может принять объект Page.
+     */
+    private final boolean creatable;
+
+    /**
+     * Конструктор с параметром Page или null.
+     */
+    private final MethodHandle pageConstructor;
+
+    /**
+     * Пустой конструктор или null.
+     */
+    private final MethodHandle defaultConstructor;
+
+    /**
+     * Метод установки Page после пустого конструктора или null.
+     */
+    private final MethodHandle pageSetter;
+
+    private PageInstantiationPlan(Class<?> type, boolean creatable, MethodHandle pageConstructor,
+                                  MethodHandle defaultConstructor, MethodHandle pageSetter) {
+        this.type = type;
+        this.creatable = creatable;
+        this.pageConstructor = pageConstructor;
+        this.defaultConstructor = defaultConstructor;
+        this.pageSetter = pageSetter;
+    }
+
+    /**
+     * Получает план создания для класса страницы.
+     *
+     * @param type класс страницы
+     * @return план, построенный при первом обращении к классу
+     */
+    static PageInstantiationPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    /**
+     * Проверяет, может ли класс принять объект Page: реализует PageObject,
+     * имеет публичный конструктор с параметром Page или публичный метод setPage/initPage.
+     *
+     * @return true, если класс является страницей
+     */
+    boolean isCreatable() {
+        return creatable;
+    }
+
+    /**
+     * Создает объект страницы по плану.
+     *
+     * @param page объект Page из Playwright
+     * @return созданный объект страницы или null, если класс нельзя создать
+     */
+    Object create(Page page) {
+        try {
+            if (pageConstructor != null) {
+                return (Object) pageConstructor.invokeExact(page);
+            }
+            if (defaultConstructor == null) {
+                TestLogger.LOGGER.error("Не удалось создать объект страницы {}: нет доступного конструктора",
+                        type.getName());
+                return null;
+            }
+            Object pageObj = (Object) defaultConstructor.invokeExact();
+            if (pageSetter != null) {
+                pageSetter.invokeExact(pageObj, page);
+            }
+            return pageObj;
+        } catch (Throwable e) {
+            TestLogger.LOGGER.error("Не удалось создать объект страницы {}: {}", type.getName(), e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Строит план создания для класса.
+     *
+     * @param type класс страницы
+     * @return план создания
+     */
+    private static PageInstantiationPlan build(Class<?> type) {
+        Constructor<?> publicPageConstructor = null;
+        for (Constructor<?> constructor : type.getConstructors()) {
+            if (isPageSignature(constructor.getParameterTypes())) {
+                publicPageConstructor = constructor;
+                break;
+            }
+        }
+        Method initPage = findPublicPageMethod(type, "initPage");
+        Method setPage = findPublicPageMethod(type, "setPage");
+        boolean creatable = PageObject.class.isAssignableFrom(type)
+                || publicPageConstructor != null || initPage != null || setPage != null;
+
+        if (!creatable || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return new PageInstantiationPlan(type, creatable, null, null, null);
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle pageConstructor = null;
+        MethodHandle defaultConstructor = null;
+        MethodHandle pageSetter = null;
+        try {
+            if (publicPageConstructor != null) {
+                pageConstructor = lookup.unreflectConstructor(publicPageConstructor).asType(PAGE_CONSTRUCTOR_TYPE);
+            } else {
+                Constructor<?> noArgs = findDefaultConstructor(type);
+                if (noArgs != null) {
+                    defaultConstructor = lookup.unreflectConstructor(noArgs).asType(DEFAULT_CONSTRUCTOR_TYPE);
+                }
+                Method setter = PageObject.class.isAssignableFrom(type)
+                        ? PageObject.class.getMethod("setPage", Page.class)
+                        : initPage != null ? initPage : setPage;
+                if (setter != null) {
+                    pageSetter = lookup.unreflect(setter).asType(SETTER_TYPE);
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            TestLogger.LOGGER.warn("Класс страницы {} недоступен для создания: {}", type.getName(), e.getMessage());
+            return new PageInstantiationPlan(type, creatable, null, null, null);
+        }
+        TestLogger.LOGGER.debug("Построен план создания страницы {}", type.getSimpleName());
+        return new PageInstantiationPlan(type, true, pageConstructor, defaultConstructor, pageSetter);
+    }
+
+    /**
+     * Находит пустой конструктор класса с любым модификатором доступа.
+     *
+     * @param type класс страницы
+     * @return конструктор или null
+     */
+    private static Constructor<?> findDefaultConstructor(Class<?> type) {
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if (constructor.getParameterCount() == 0) {
+                return constructor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Находит публичный метод с единственным параметром Page.
+     *
+     * @param type класс страницы
+     * @param name имя метода
+     * @return метод или null
+     */
+    private static Method findPublicPageMethod(Class<?> type, String name) {
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name) && isPageSignature(method.getParameterTypes())) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Проверяет, что список параметров состоит из одного параметра Page.
+     *
+     * @param parameterTypes типы параметров
+     * @return true для сигнатуры (Page)
+     */
+    private static boolean isPageSignature(Class<?>[] parameterTypes) {
+        return parameterTypes.length == 1 && parameterTypes[0] == Page.class;
+    }
+}
@@ -0,0 +1,452 @@
+package com.framework.internal.network;
+
+import com.framework.api.config.NetworkMode;
+import com.framework.api.config.PlaywrightConfig;
+import com.framework.internal.logging.TestLogger;
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+import com.microsoft.playwright.options.HarMode;
+import com.microsoft.playwright.options.HarNotFound;
+import com.microsoft.playwright.options.RouteFromHarUpdateContentPolicy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Обработчик сетевых запросов BrowserContext.
+ * <p>
+ * Устанавливается BrowserManager на каждый создаваемый контекст одним вызовом
+ * {@code context.route("**}{@code /*")}, если включена хотя бы одна из сетевых функций.
+ * Запросы, которые обработчик не обслуживает, передаются дальше через
+ * {@link Route#fallback()}, поэтому маршруты, заданные в тестах, продолжают работать.
+ * <p>
+ * Кэширование статических ответов (network.cache.enabled=true):
+ * - Кэшируются только GET-запросы ресурсов типов network.cache.resourceTypes
+ * (по умолчанию script, stylesheet, font, image)
+ * - Ключ - URL и значения заголовков network.cache.keyHeaders
+ * - Сохраняются только ответы 200 без Set-Cookie и без Cache-Control: no-store/private
+ * - Кэш общий для всех контекстов JVM (см. {@link RouteCache})
+ * <p>
+ * Блокировка ресурсов (аннотация BlockResources или network.block.resources и network.block.urls):
+ * - Запросы указанных типов и запросы к URL, подходящим под шаблоны, прерываются
+ * до отправки в сеть; проверка типа - поиск в множестве, шаблоны компилируются один раз
+ * - Набор блокировок задается для каждого теста методом
+ * {@link #block(BrowserContext, Collection, Collection)}, который также обнуляет счетчик
+ * прерванных запросов контекста
+ * <p>
+ * Запись и воспроизведение HAR (network.mode=record|replay) подключаются
+ * к контексту теста методом {@link #installHar(BrowserContext, Class, String)}.
+ * <p>
+ * Пример настройки:
+ * ```
+ * network.block.resources=image,font,media
+ * network.block.urls=**}{@code /analytics/**
+ * network.cache.enabled=true
+ * network.cache.maxBytes=134217728
+ * network.cache.dir=target/route-cache
+ * ```
+ */
+public final class NetworkRouter {
+
+    /**
+     * Заголовки, которые не переносятся в закэшированный ответ:
+     * тело хранится уже распакованным и отдается целиком.
+     */
+    private static final Set<String> DROPPED_HEADERS = Set.of(
+            "content-encoding", "content-length", "transfer-encoding", "connection", "set-cookie");
+
+    /**
+     * Общий кэш ответов; создается при первом использовании.
+     */
+    private static volatile RouteCache cache;
+
+    /**
+     * Обработчики открытых контекстов; удаляются при закрытии контекста.
+     */
+    private static final Map<BrowserContext, NetworkRouter> routers = new ConcurrentHashMap<>();
+
+    /**
+     * Общее число прерванных запросов за запуск.
+     */
+    private static final AtomicLong blockedTotal = new AtomicLong();
+
+    private final boolean cacheEnabled;
+    private final Set<String> cacheableTypes;
+    private final List<String> keyHeaders;
+
+    /**
+     * Блокировки текущего теста.
+     */
+    private volatile BlockRules blockRules;
+
+    /**
+     * Число запросов, прерванных с момента последнего вызова block.
+     */
+    private final AtomicInteger blocked = new AtomicInteger();
+
+    private NetworkRouter(PlaywrightConfig config) {
+        this.cacheEnabled = config.isNetworkCacheEnabled();
+        this.cacheableTypes = Set.copyOf(config.getNetworkCacheResourceTypes());
+        this.keyHeaders = config.getNetworkCacheKeyHeaders();
+        this.blockRules = BlockRules.of(config.getBlockedResourceTypes(), config.getBlockedUrls());
+    }
+
+    /**
+     * Устанавливает обработчик на контекст, если сетевые функции включены в конфигурации.
+     *
+     * @param context контекст браузера
+     */
+    public static void install(BrowserContext context) {
+        PlaywrightConfig config = PlaywrightConfig.getInstance();
+        if (!config.isNetworkCacheEnabled() && config.getBlockedResourceTypes().isEmpty()
+                && config.getBlockedUrls().isEmpty()) {
+            return;
+        }
+        routerOf(context);
+    }
+
+    /**
+     * Задает блокировки ресурсов для следующего теста в контексте и обнуляет счетчик
+     * прерванных запросов. Обработчик устанавливается на контекст, если его еще нет.
+     *
+     * @param context контекст браузера
+     * @param types   имена типов ресурсов в терминах Playwright (image, font и т.д.)
+     * @param urls    glob-шаблоны URL
+     */
+    public static void block(BrowserContext context, Collection<String> types, Collection<String> urls) {
+        BlockRules rules = BlockRules.of(types, urls);
+        NetworkRouter router = rules.isEmpty() ? routers.get(context) : routerOf(context);
+        if (router != null) {
+            router.blockRules = rules;
+            router.blocked.set(0);
+        }
+    }
+
+    /**
+     * Получает число запросов, прерванных в контексте с момента последнего вызова
+     * {@link #block(BrowserContext, Collection, Collection)}.
+     *
+     * @param context контекст браузера
+     * @return число прерванных запросов
+     */
+    public static int getBlockedCount(BrowserContext context) {
+        NetworkRouter router = routers.get(context);
+        return router != null ? router.blocked.get() : 0;
+    }
+
+    /**
+     * Получает общее число запросов, прерванных за запуск.
+     *
+     * @return число прерванных запросов
+     */
+    public static long getBlockedTotal() {
+        return blockedTotal.get();
+    }
+
+    /**
+     * Получает обработчик контекста, устанавливая его при первом обращении.
+     *
+     * @param context контекст браузера
+     * @return обработчик контекста
+     */
+    private static NetworkRouter routerOf(BrowserContext context) {
+        return routers.computeIfAbsent(context, key -> {
+            NetworkRouter router = new NetworkRouter(PlaywrightConfig.getInstance());
+            key.route("**/*", router::handle);
+            key.onClose(routers::remove);
+            return router;
+        });
+    }
+
+    /**
+     * Подключает HAR-файл теста к контексту в соответствии с network.mode.
+     * Маршрут HAR устанавливается после общего обработчика и имеет приоритет над ним;
+     * в режиме replay с network.har.notFound=fallback запросы, которых нет в файле,
+     * обрабатываются общим обработчиком (и сетевым кэшем).
+     *
+     * @param context    контекст браузера
+     * @param testClass  класс теста
+     * @param testMethod имя тестового метода или null, если контекст общий для класса
+     * @throws IllegalStateException если в строгом режиме replay нет HAR-файла
+     */
+    public static void installHar(BrowserContext context, Class<?> testClass, String testMethod) {
+        PlaywrightConfig config = PlaywrightConfig.getInstance();
+        NetworkMode mode = config.getNetworkMode();
+        if (mode == NetworkMode.LIVE) {
+            return;
+        }
+        String name = testClass.getName() + (testMethod != null ? "." + testMethod : "") + ".har.zip";
+        Path har = config.getHarDir().resolve(name);
+        BrowserContext.RouteFromHAROptions options = new BrowserContext.RouteFromHAROptions();
+        if (!config.getHarUrlPattern().isBlank()) {
+            options.setUrl(config.getHarUrlPattern());
+        }
+
+        if (mode == NetworkMode.RECORD) {
+            try {
+                Files.createDirectories(har.toAbsolutePath().getParent());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось создать директорию HAR-файлов: " + har.getParent(), e);
+            }
+            // Файл записывается при закрытии контекста
+            context.routeFromHAR(har, options
+                    .setUpdate(true)
+                    .setUpdateContent(RouteFromHarUpdateContentPolicy.ATTACH)
+                    .setUpdateMode(HarMode.MINIMAL));
+            TestLogger.LOGGER.info("Сетевые запросы записываются в {}", har);
+            return;
+        }
+
+        if (!Files.exists(har)) {
+            if (config.isHarStrict()) {
+                throw new IllegalStateException("Нет HAR-файла " + har
+                        + " для network.mode=replay; запишите его с network.mode=record");
+            }
+            TestLogger.LOGGER.warn("Нет HAR-файла {}, запросы идут в сеть", har);
+            return;
+        }
+        context.routeFromHAR(har, options
+                .setUpdate(false)
+                .setNotFound(config.isHarStrict() ? HarNotFound.ABORT : HarNotFound.FALLBACK));
+        TestLogger.LOGGER.debug("Сетевые ответы воспроизводятся из {}", har);
+    }
+
+    /**
+     * Получает статистику общего кэша ответов.
+     *
+     * @return статистика или null, если кэш не использовался
+     */
+    public static RouteCache.Stats getCacheStats() {
+        RouteCache current = cache;
+        return current != null ? current.stats() : null;
+    }
+
+    /**
+     * Обрабатывает перехваченный запрос.
+     *
+     * @param route перехваченный запрос
+     */
+    private void handle(Route route) {
+        Request request = route.request();
+        if (blockRules.matches(request)) {
+            blocked.incrementAndGet();
+            blockedTotal.incrementAndGet();
+            route.abort("blockedbyclient");
+            return;
+        }
+        if (!cacheEnabled || !isCacheable(request)) {
+            route.fallback();
+            return;
+        }
+
+        RouteCache routeCache = getCache();
+        String key = keyOf(request);
+        RouteCache.CachedResponse cached = routeCache.get(key);
+        if (cached != null) {
+            route.fulfill(new Route.FulfillOptions()
+                    .setStatus(cached.status())
+                    .setHeaders(cached.headers())
+                    .setBodyBytes(cached.body()));
+            return;
+        }
+
+        APIResponse response;
+        try {
+            response = route.fetch();
+        } catch (PlaywrightException e) {
+            // Пусть браузер сам получит ошибку сети
+            TestLogger.LOGGER.debug("Не удалось загрузить {} для сетевого кэша: {}", request.url(), e.getMessage());
+            route.fallback();
+            return;
+        }
+        if (isStorable(response)) {
+            routeCache.put(key, new RouteCache.CachedResponse(response.status(),
+                    storedHeaders(response.headers()), response.body()));
+        }
+        route.fulfill(new Route.FulfillOptions().setResponse(response));
+    }
+
+    /**
+     * Проверяет, можно ли обслужить запрос из кэша.
+     *
+     * @param request запрос
+     * @return true для GET-запросов кэшируемых типов ресурсов
+     */
+    private boolean isCacheable(Request request) {
+        return "GET".equals(request.method()) && cacheableTypes.contains(request.resourceType())
+                && request.url().startsWith("http");
+    }
+
+    /**
+     * Проверяет, можно ли сохранить ответ в кэш.
+     *
+     * @param response ответ
+     * @return true для успешных ответов без запрета кэширования
+     */
+    private static boolean isStorable(APIResponse response) {
+        if (response.status() != 200) {
+            return false;
+        }
+        Map<String, String> headers = response.headers();
+        String cacheControl = headers.getOrDefault("cache-control", "").toLowerCase(Locale.ROOT);
+        return !cacheControl.contains("no-store") && !cacheControl.contains("private")
+                && !headers.containsKey("set-cookie") && !"*".equals(headers.get("vary"));
+    }
+
+    /**
+     * Строит ключ кэша из URL и заголовков запроса.
+     *
+     * @param request запрос
+     * @return ключ кэша
+     */
+    private String keyOf(Request request) {
+        StringBuilder key = new StringBuilder(request.url());
+        Map<String, String> headers = request.headers();
+        for (String header : keyHeaders) {
+            key.append('\n').append(header).append(':').append(headers.getOrDefault(header, ""));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Отбирает заголовки ответа для хранения в кэше.
+     *
+     * @param headers заголовки ответа
+     * @return заголовки без служебных
+     */
+    private static Map<String, String> storedHeaders(Map<String, String> headers) {
+        Map<String, String> stored = new HashMap<>();
+        headers.forEach((name, value) -> {
+            if (!DROPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                stored.put(name, value);
+            }
+        });
+        return Map.copyOf(stored);
+    }
+
+    /**
+     * Набор блокировок ресурсов.
+     *
+     * @param types имена типов ресурсов
+     * @param urls  скомпилированные шаблоны URL
+     */
+    private record BlockRules(Set<String> types, List<Pattern> urls) {
+
+        private static final BlockRules NONE = new BlockRules(Set.of(), List.of());
+
+        /**
+         * Создает набор блокировок.
+         *
+         * @param types имена типов ресурсов
+         * @param urls  glob-шаблоны URL
+         * @return набор блокировок
+         */
+        static BlockRules of(Collection<String> types, Collection<String> urls) {
+            if (types.isEmpty() && urls.isEmpty()) {
+                return NONE;
+            }
+            Set<String> typeNames = new HashSet<>();
+            types.forEach(type -> typeNames.add(type.toLowerCase(Locale.ROOT)));
+            return new BlockRules(Set.copyOf(typeNames), urls.stream().map(NetworkRouter::globToPattern).toList());
+        }
+
+        boolean isEmpty() {
+            return types.isEmpty() && urls.isEmpty();
+        }
+
+        /**
+         * Проверяет, нужно ли прервать запрос.
+         *
+         * @param request запрос
+         * @return true, если тип или URL запроса подпадает под блокировку
+         */
+        boolean matches(Request request) {
+            if (isEmpty()) {
+                return false;
+            }
+            if (types.contains(request.resourceType())) {
+                return true;
+            }
+            if (urls.isEmpty()) {
+                return false;
+            }
+            String url = request.url();
+            for (Pattern pattern : urls) {
+                if (pattern.matcher(url).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Преобразует glob-шаблон URL в регулярное выражение:
+     * {@code **} - любая последовательность символов, {@code *} - любая последовательность
+     * символов, кроме {@code /}; остальные символы сравниваются буквально.
+     *
+     * @param glob шаблон URL
+     * @return регулярное выражение
+     */
+    static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            if (glob.charAt(i) != '*') {
+                continue;
+            }
+            if (literalStart < i) {
+                regex.append(Pattern.quote(glob.substring(literalStart, i)));
+            }
+            if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                regex.append(".*");
+                i++;
+            } else {
+                regex.append("[^/]*");
+            }
+            literalStart = i + 1;
+        }
+        if (literalStart < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Получает общий кэш ответов, создавая его при первом обращении.
+     *
+     * @return кэш ответов
+     */
+    private static RouteCache getCache() {
+        RouteCache current = cache;
+        if (current == null) {
+            synchronized (NetworkRouter.class) {
+                current = cache;
+                if (current == null) {
+                    PlaywrightConfig config = PlaywrightConfig.getInstance();
+                    current = new RouteCache(config.getNetworkCacheMaxBytes(), config.getNetworkCacheDir(),
+                            Duration.ofSeconds(config.getNetworkCacheTtlSeconds()));
+                    cache = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,225 @@
+package com.framework.internal.network;
+
+import com.framework.internal.logging.TestLogger;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Общий для всех контекстов JVM кэш статических HTTP-ответов.
+ * <p>
+ * Особенности:
+ * - Ответы хранятся в памяти; общий размер тел ограничен, при превышении
+ * вытесняются ответы, к которым дольше всего не обращались
+ * - Если задана директория, ответы дополнительно сохраняются на диск и переживают
+ * перезапуск JVM; файлы старше заданного срока не используются
+ * - Статистика попаданий и промахов доступна через {@link #stats()}
+ * <p>
+ * Пример использования:
+ * ```
+ * RouteCache cache = new RouteCache(128 * 1024 * 1024, null, Duration.ofHours(1));
+ * RouteCache.CachedResponse response = cache.get(key);
+ * ```
+ */
+public class RouteCache {
+
+    /**
+     * Закэшированный ответ.
+     *
+     * @param status  код ответа
+     * @param headers заголовки ответа
+     * @param body    тело ответа
+     */
+    public record CachedResponse(int status, Map<String, String> headers, byte[] body) {
+    }
+
+    /**
+     * Статистика кэша.
+     *
+     * @param hits   число запросов, обслуженных из кэша
+     * @param misses число запросов, отправленных в сеть
+     * @param size   число ответов в памяти
+     * @param bytes  общий размер тел ответов в памяти
+     */
+    public record Stats(long hits, long misses, int size, long bytes) {
+        /**
+         * @return доля запросов, обслуженных из кэша, от 0 до 1
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private static final Gson gson = new Gson();
+    private static final Type HEADERS_TYPE = new TypeToken<Map<String, String>>() {
+    }.getType();
+
+    /**
+     * Ответы в порядке последнего обращения.
+     */
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final long maxBytes;
+    private final Path dir;
+    private final Duration ttl;
+    private long bytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Создает кэш.
+     *
+     * @param maxBytes максимальный общий размер тел ответов в памяти
+     * @param dir      директория для хранения на диске или null
+     * @param ttl      срок годности ответов на диске
+     */
+    public RouteCache(long maxBytes, Path dir, Duration ttl) {
+        this.maxBytes = maxBytes;
+        this.dir = dir;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Получает ответ из кэша.
+     *
+     * @param key ключ запроса
+     * @return ответ или null, если его нет в кэше
+     */
+    public CachedResponse get(String key) {
+        CachedResponse response;
+        synchronized (this) {
+            response = entries.get(key);
+        }
+        if (response == null && dir != null) {
+            response = readFromDisk(key);
+            if (response != null) {
+                putInMemory(key, response);
+            }
+        }
+        (response != null ? hits : misses).incrementAndGet();
+        return response;
+    }
+
+    /**
+     * Сохраняет ответ в кэш.
+     *
+     * @param key      ключ запроса
+     * @param response ответ
+     */
+    public void put(String key, CachedResponse response) {
+        putInMemory(key, response);
+        if (dir != null) {
+            writeToDisk(key, response);
+        }
+    }
+
+    /**
+     * Получает текущую статистику кэша.
+     *
+     * @return статистика кэша
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits.get(), misses.get(), entries.size(), bytes);
+    }
+
+    /**
+     * Сохраняет ответ в памяти и вытесняет давно не используемые ответы при превышении размера.
+     *
+     * @param key      ключ запроса
+     * @param response ответ
+     */
+    private synchronized void putInMemory(String key, CachedResponse response) {
+        if (response.body().length > maxBytes) {
+            return;
+        }
+        CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            bytes -= previous.body().length;
+        }
+        bytes += response.body().length;
+        Iterator<CachedResponse> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().body().length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Читает ответ с диска, если файл есть и не устарел.
+     *
+     * @param key ключ запроса
+     * @return ответ или null
+     */
+    private CachedResponse readFromDisk(String key) {
+        String name = fileName(key);
+        Path body = dir.resolve(name + ".body");
+        Path meta = dir.resolve(name + ".json");
+        try {
+            if (!Files.exists(meta) || Files.getLastModifiedTime(meta).toInstant().plus(ttl).isBefore(Instant.now())) {
+                return null;
+            }
+            Map<String, String> headers = gson.fromJson(Files.readString(meta), HEADERS_TYPE);
+            int status = Integer.parseInt(headers.remove(":status"));
+            return new CachedResponse(status, headers, Files.readAllBytes(body));
+        } catch (IOException | RuntimeException e) {
+            TestLogger.LOGGER.debug("Не удалось прочитать ответ из сетевого кэша {}: {}", name, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Сохраняет ответ на диск. Метаданные записываются последними,
+     * поэтому неполная запись не будет прочитана.
+     *
+     * @param key      ключ запроса
+     * @param response ответ
+     */
+    private void writeToDisk(String key, CachedResponse response) {
+        String name = fileName(key);
+        try {
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, name, ".tmp");
+            Files.write(temp, response.body());
+            Files.move(temp, dir.resolve(name + ".body"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            Map<String, String> meta = new LinkedHashMap<>(response.headers());
+            meta.put(":status", String.valueOf(response.status()));
+            temp = Files.createTempFile(dir, name, ".tmp");
+            Files.writeString(temp, gson.toJson(meta));
+            Files.move(temp, dir.resolve(name + ".json"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            TestLogger.LOGGER.debug("Не удалось сохранить ответ в сетевой кэш {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Получает имя файла для ключа запроса.
+     *
+     * @param key ключ запроса
+     * @return SHA-256 ключа в шестнадцатеричном виде
+     */
+    private static String fileName(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
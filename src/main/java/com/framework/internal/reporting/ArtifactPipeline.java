@@ -0,0 +1,317 @@
+package com.framework.internal.reporting;
+
+import com.framework.api.config.PlaywrightConfig;
+import com.framework.internal.logging.TestLogger;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.util.PropertiesUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Фоновая запись артефактов упавших тестов: скриншотов, HTML страниц и трассировок.
+ * <p>
+ * Поток теста только получает данные в памяти и регистрирует вложение в Allure
+ * (регистрация привязана к текущему тесту потока). Запись файлов на диск
+ * и содержимого вложений в allure-results выполняют фоновые потоки.
+ * <p>
+ * Особенности:
+ * - Очередь ограничена (artifacts.queueSize); при ее заполнении задачу выполняет
+ * поток теста, поэтому артефакты не теряются, а память не растет без предела
+ * - Число фоновых потоков задается параметром artifacts.writerThreads
+ * - Файлы не загружаются в память: они добавляются в allure-results жесткой ссылкой,
+ * а если это невозможно - копируются потоком
+ * - {@link #flush(Duration)} ждет записи всех артефактов; вызывается в конце
+ * набора тестов и при завершении JVM
+ * <p>
+ * Пример использования:
+ * ```
+ * byte[] png = page.screenshot();
+ * ArtifactPipeline.attach("Скриншот при ошибке", "image/png", "png", png, Paths.get("screenshots", "test.png"));
+ * ArtifactPipeline.attachFile("Трассировка при ошибке", "application/zip", "zip", tracePath);
+ * ```
+ */
+public final class ArtifactPipeline {
+
+    /**
+     * Атрибут результата теста, которым отмечается, что артефакты уже переданы в Allure.
+     */
+    public static final String ATTACHED_ATTRIBUTE = "artifactsAttached";
+
+    /**
+     * Время ожидания записи артефактов при завершении JVM.
+     */
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Фоновые потоки записи.
+     */
+    private static final ThreadPoolExecutor writer = createWriter();
+
+    /**
+     * Директория результатов Allure, в которую записывает FileSystemResultsWriter.
+     */
+    private static final Path resultsDir = Paths.get(PropertiesUtils.loadAllureProperties()
+            .getProperty("allure.results.directory", "allure-results"));
+
+    /**
+     * Признак того, что вложения можно добавлять жесткими ссылками.
+     */
+    private static volatile boolean linkSupported = true;
+
+    /**
+     * Число задач, которые еще не выполнены.
+     */
+    private static final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Монитор для ожидания завершения задач.
+     */
+    private static final Object drained = new Object();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(SHUTDOWN_TIMEOUT), "artifact-flush"));
+    }
+
+    private ArtifactPipeline() {
+    }
+
+    /**
+     * Прикрепляет к отчету данные, полученные в памяти, и при необходимости сохраняет их в файл.
+     * Должен вызываться в потоке теста, к которому относится вложение.
+     *
+     * @param name      название вложения в отчете
+     * @param type      MIME-тип вложения
+     * @param extension расширение файла вложения без точки
+     * @param content   содержимое вложения
+     * @param savePath  путь для сохранения копии на диск или null
+     */
+    public static void attach(String name, String type, String extension, byte[] content, Path savePath) {
+        String source = prepare(name, type, extension);
+        submit(name, () -> {
+            if (savePath == null) {
+                if (source != null) {
+                    write(source, new ByteArrayInputStream(content));
+                }
+                return;
+            }
+            createParentDirectories(savePath);
+            Files.write(savePath, content);
+            TestLogger.LOGGER.debug("Артефакт {} сохранен в {}", name, savePath);
+            if (source != null) {
+                linkOrCopy(source, savePath);
+            }
+        });
+    }
+
+    /**
+     * Прикрепляет к отчету существующий файл без загрузки его в память.
+     * Если возможно, файл добавляется в allure-results жесткой ссылкой без копирования,
+     * иначе копируется потоково в фоновом потоке.
+     * Должен вызываться в потоке теста, к которому относится вложение.
+     *
+     * @param name      название вложения в отчете
+     * @param type      MIME-тип вложения
+     * @param extension расширение файла вложения без точки
+     * @param file      путь к файлу
+     */
+    public static void attachFile(String name, String type, String extension, Path file) {
+        String source = prepare(name, type, extension);
+        if (source == null) {
+            return;
+        }
+        submit(name, () -> linkOrCopy(source, file));
+    }
+
+    /**
+     * Регистрирует вложение, файл которого будет готов позже (например, видео,
+     * которое дописывается до закрытия контекста). Должен вызываться в потоке теста,
+     * к которому относится вложение. Файл прикрепляется после завершения возвращенного
+     * объекта; отмена объекта означает, что вложение не понадобилось.
+     * {@link #flush(Duration)} ждет завершения таких вложений.
+     *
+     * @param name      название вложения в отчете
+     * @param type      MIME-тип вложения
+     * @param extension расширение файла вложения без точки
+     * @return объект, который нужно завершить путем к файлу или отменить
+     */
+    public static CompletableFuture<Path> attachLater(String name, String type, String extension) {
+        CompletableFuture<Path> file = new CompletableFuture<>();
+        String source = prepare(name, type, extension);
+        if (source == null) {
+            return file;
+        }
+        pending.incrementAndGet();
+        file.whenComplete((path, error) -> {
+            if (path != null) {
+                submit(name, () -> linkOrCopy(source, path));
+            }
+            done();
+        });
+        return file;
+    }
+
+    /**
+     * Ожидает записи всех переданных артефактов.
+     *
+     * @param timeout максимальное время ожидания
+     * @return true, если все артефакты записаны
+     */
+    public static boolean flush(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (drained) {
+            while (pending.get() > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    TestLogger.LOGGER.warn("Не дождались записи артефактов: осталось {}", pending.get());
+                    return false;
+                }
+                try {
+                    drained.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Регистрирует вложение в Allure для текущего теста потока.
+     *
+     * @param name      название вложения
+     * @param type      MIME-тип вложения
+     * @param extension расширение файла без точки
+     * @return идентификатор файла вложения или null, если регистрация не удалась
+     */
+    private static String prepare(String name, String type, String extension) {
+        try {
+            return Allure.getLifecycle().prepareAttachment(name, type, "." + extension);
+        } catch (Exception e) {
+            TestLogger.LOGGER.error("Не удалось зарегистрировать вложение {}: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Добавляет файл в директорию результатов Allure жесткой ссылкой.
+     * Если файловая система не поддерживает ссылки или файл находится на другом томе,
+     * содержимое копируется потоком.
+     *
+     * @param source идентификатор файла вложения
+     * @param file   путь к файлу
+     */
+    private static void linkOrCopy(String source, Path file) throws IOException {
+        if (linkSupported) {
+            try {
+                Files.createDirectories(resultsDir);
+                Files.createLink(resultsDir.resolve(source), file.toAbsolutePath());
+                return;
+            } catch (NoSuchFileException | FileAlreadyExistsException e) {
+                throw e;
+            } catch (IOException | UnsupportedOperationException e) {
+                // Ссылки между томами невозможны; дальше всегда копируем
+                linkSupported = false;
+                TestLogger.LOGGER.debug("Жесткие ссылки для вложений недоступны: {}", e.toString());
+            }
+        }
+        write(source, Files.newInputStream(file));
+    }
+
+    /**
+     * Записывает содержимое вложения в директорию результатов Allure.
+     *
+     * @param source  идентификатор файла вложения
+     * @param content содержимое; поток закрывается после записи
+     */
+    private static void write(String source, InputStream content) throws IOException {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        try (content) {
+            lifecycle.writeAttachment(source, content);
+        }
+    }
+
+    /**
+     * Передает задачу фоновым потокам.
+     *
+     * @param name название артефакта для журнала
+     * @param task задача записи
+     */
+    private static void submit(String name, WriteTask task) {
+        pending.incrementAndGet();
+        writer.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                TestLogger.LOGGER.error("Не удалось записать артефакт {}: {}", name, e.getMessage());
+            } finally {
+                done();
+            }
+        });
+    }
+
+    /**
+     * Отмечает завершение задачи и будит ожидающих flush, если задач не осталось.
+     */
+    private static void done() {
+        if (pending.decrementAndGet() == 0) {
+            synchronized (drained) {
+                drained.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Создает директорию для файла, если ее нет.
+     *
+     * @param path путь к файлу
+     */
+    private static void createParentDirectories(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    /**
+     * Создает пул фоновых потоков с ограниченной очередью.
+     *
+     * @return пул потоков
+     */
+    private static ThreadPoolExecutor createWriter() {
+        PlaywrightConfig config = PlaywrightConfig.getInstance();
+        int threads = Math.max(1, config.getArtifactWriterThreads());
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "artifact-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getArtifactQueueSize())), factory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Задача записи артефакта.
+     */
+    @FunctionalInterface
+    private interface WriteTask {
+        void run() throws IOException;
+    }
+}
@@ -1,12 +1,22 @@
 package com.framework.tools.pooling;
 
+import com.framework.api.config.PlaywrightConfig;
+import com.framework.internal.browser.BrowserSession;
+import com.framework.internal.logging.TestLogger;
 import com.microsoft.playwright.Browser;
-import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.Playwright;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Пул браузеров для многопоточного выполнения тестов.
@@ -16,32 +26,34 @@ import java.util.concurrent.TimeUnit;
  * тестов. Это значительно повышает производительность, так как запуск браузера
  * является ресурсоемкой операцией.
  * <p>
- * Класс реализует паттерн Singleton и потокобезопасный механизм доступа к
- * экземплярам браузеров через блокирующую очередь (BlockingQueue).
+ * Элементом пула является {@link BrowserSession} - пара Playwright и Browser.
+ * Объекты Playwright не потокобезопасны, поэтому сессия выдается одному потоку
+ * в исключительное пользование и возвращается в пул целиком.
  * <p>
- * Основные преимущества использования пула браузеров:
- * - Экономия ресурсов за счет повторного использования уже запущенных браузеров
- * - Ускорение выполнения тестов
- * - Ограничение максимального количества одновременно запущенных браузеров
- * - Автоматическое управление жизненным циклом браузеров
+ * Возможности пула:
+ * - Браузеры запускаются через BrowserManager с опциями из PlaywrightConfig
+ * - Отдельное пространство ключей для каждого типа браузера (chromium, firefox, webkit)
+ * - Ленивый рост: браузер запускается только если нет свободного
+ * - Ограничение максимального количества браузеров каждого типа (browser.pool.maxSize)
+ * - Закрытие простаивающих браузеров сверх минимального размера (browser.pool.minSize)
+ * - Проверка browser.isConnected() при выдаче и замена упавших браузеров
  * <p>
  * Пример использования:
  * ```java
- * // Инициализация пула на 3 браузера
- * PlaywrightBrowserPool pool = PlaywrightBrowserPool.getInstance(3);
+ * PlaywrightBrowserPool pool = PlaywrightBrowserPool.getInstance();
  * <p>
  * // Получение браузера из пула
- * Browser browser = pool.borrowBrowser();
+ * BrowserSession session = pool.borrow("firefox");
  * <p>
  * try {
  * // Использование браузера для тестов
- * BrowserContext context = browser.newContext();
+ * BrowserContext context = session.getBrowser().newContext();
  * Page page = context.newPage();
  * page.navigate("https://example.com");
  * // ...
  * } finally {
  * // Возврат браузера в пул
- * pool.returnBrowser(browser);
+ * pool.release(session);
  * }
  * <p>
  * // Закрытие пула в конце всех тестов
@@ -55,66 +67,265 @@ public class PlaywrightBrowserPool {
     private static PlaywrightBrowserPool instance;
 
     /**
-     * Экземпляр Playwright для создания браузеров.
+     * Максимальный размер пула по умолчанию, если browser.pool.maxSize не задан.
+     * Устанавливается по числу потоков набора тестов.
      */
-    private final Playwright playwright;
+    private static volatile int defaultMaxSize = Runtime.getRuntime().availableProcessors();
 
     /**
-     * Очередь доступных браузеров.
+     * Пространства ключей пула по типу браузера.
      */
-    private final BlockingQueue<Browser> browserPool;
+    private final Map<String, Keyspace> keyspaces = new ConcurrentHashMap<>();
 
     /**
-     * Размер пула браузеров.
+     * Выданные сессии и пространства, в которые их нужно вернуть.
      */
-    private final int poolSize;
+    private final Map<BrowserSession, Keyspace> borrowed = new ConcurrentHashMap<>();
+
+    /**
+     * Минимальное количество браузеров каждого типа, не закрываемых при простое.
+     */
+    private final int minSize;
+
+    /**
+     * Максимальное количество браузеров каждого типа.
+     */
+    private final int maxSize;
+
+    /**
+     * Время простоя, после которого браузер закрывается, в миллисекундах.
+     */
+    private final long idleTimeoutMillis;
+
+    /**
+     * Максимальное время ожидания свободного браузера в секундах.
+     */
+    private final long borrowTimeoutSeconds;
+
+    /**
+     * Запуск новой сессии по типу браузера.
+     */
+    private final Function<String, BrowserSession> launcher;
+
+    /**
+     * Фоновый поток для закрытия простаивающих браузеров.
+     */
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Счетчики для статистики пула.
+     */
+    private final AtomicInteger launched = new AtomicInteger();
+    private final AtomicInteger reused = new AtomicInteger();
+    private final AtomicInteger replaced = new AtomicInteger();
+
+    /**
+     * Признак закрытого пула.
+     */
+    private volatile boolean closed;
 
     /**
      * Приватный конструктор для Singleton.
-     * Инициализирует пул браузеров заданного размера.
      *
-     * @param poolSize размер пула (максимальное количество браузеров)
+     * @param minSize              минимальный размер пула для каждого типа браузера
+     * @param maxSize              максимальный размер пула для каждого типа браузера
+     * @param idleTimeoutSeconds   время простоя до закрытия браузера
+     * @param borrowTimeoutSeconds время ожидания свободного браузера
      */
-    private PlaywrightBrowserPool(int poolSize) {
-        this.poolSize = poolSize;
-        this.playwright = Playwright.create();
-        this.browserPool = new LinkedBlockingQueue<>(poolSize);
+    private PlaywrightBrowserPool(int minSize, int maxSize, int idleTimeoutSeconds, int borrowTimeoutSeconds) {
+        this(minSize, maxSize, idleTimeoutSeconds, borrowTimeoutSeconds, BrowserSession::launch);
+    }
 
-        // Инициализация пула браузеров
-        for (int i = 0; i < poolSize; i++) {
-            Browser browser = playwright.chromium().launch(
-                    new BrowserType.LaunchOptions()
-                            .setHeadless(false)
-                            .setSlowMo(100)
-            );
-            browserPool.offer(browser);
-        }
+    /**
+     * Создает пул с заданным способом запуска браузеров.
+     *
+     * @param minSize              минимальный размер пула для каждого типа браузера
+     * @param maxSize              максимальный размер пула для каждого типа браузера
+     * @param idleTimeoutSeconds   время простоя до закрытия браузера
+     * @param borrowTimeoutSeconds время ожидания свободного браузера
+     * @param launcher             запуск новой сессии по типу браузера
+     */
+    PlaywrightBrowserPool(int minSize, int maxSize, int idleTimeoutSeconds, int borrowTimeoutSeconds,
+                          Function<String, BrowserSession> launcher) {
+        this.launcher = launcher;
+        this.maxSize = Math.max(1, maxSize);
+        this.minSize = Math.max(0, Math.min(minSize, this.maxSize));
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(Math.max(1, idleTimeoutSeconds));
+        this.borrowTimeoutSeconds = borrowTimeoutSeconds;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "browser-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+
+        TestLogger.LOGGER.info("Создан пул браузеров: minSize={}, maxSize={}, idleTimeout={}с",
+                this.minSize, this.maxSize, idleTimeoutSeconds);
+    }
+
+    /**
+     * Получает экземпляр пула браузеров (Singleton) с настройками из PlaywrightConfig.
+     *
+     * @return экземпляр PlaywrightBrowserPool
+     */
+    public static synchronized PlaywrightBrowserPool getInstance() {
+        int maxSize = PlaywrightConfig.getInstance().getBrowserPoolMaxSize();
+        return getInstance(maxSize > 0 ? maxSize : defaultMaxSize);
     }
 
     /**
      * Получает экземпляр пула браузеров (Singleton).
-     * Если экземпляр еще не создан, создает его с указанным размером пула.
+     * Если экземпляр еще не создан, создает его с указанным максимальным размером пула.
      *
-     * @param poolSize размер пула браузеров
+     * @param poolSize максимальный размер пула для каждого типа браузера
      * @return экземпляр PlaywrightBrowserPool
      */
     public static synchronized PlaywrightBrowserPool getInstance(int poolSize) {
         if (instance == null) {
-            instance = new PlaywrightBrowserPool(poolSize);
+            PlaywrightConfig config = PlaywrightConfig.getInstance();
+            instance = new PlaywrightBrowserPool(
+                    config.getBrowserPoolMinSize(),
+                    poolSize,
+                    config.getBrowserPoolIdleTimeoutSeconds(),
+                    config.getBrowserPoolBorrowTimeoutSeconds());
         }
         return instance;
     }
 
     /**
-     * Получает браузер из пула.
-     * Если все браузеры заняты, метод блокируется до освобождения
-     * или до истечения таймаута (30 секунд).
+     * Устанавливает максимальный размер пула по умолчанию.
+     * Используется, если browser.pool.maxSize не задан в конфигурации;
+     * действует на пул, который будет создан после вызова.
+     *
+     * @param maxSize максимальный размер пула (обычно число потоков набора тестов)
+     */
+    public static void setDefaultMaxSize(int maxSize) {
+        defaultMaxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * Закрывает текущий экземпляр пула, если он был создан.
+     * Следующий вызов {@link #getInstance()} создаст новый пул.
+     */
+    public static synchronized void shutdownInstance() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    /**
+     * Получает браузер из пула для типа браузера из конфигурации.
+     *
+     * @return сессия с браузером
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public BrowserSession borrow() throws InterruptedException {
+        return borrow(PlaywrightConfig.getInstance().getBrowser());
+    }
+
+    /**
+     * Получает браузер указанного типа из пула.
+     * <p>
+     * Возвращает свободный исправный браузер, а если такого нет - запускает новый,
+     * пока не достигнут максимальный размер пула. Если все браузеры заняты,
+     * метод блокируется до освобождения или до истечения таймаута
+     * (browser.pool.borrowTimeoutSeconds).
+     *
+     * @param browserName тип браузера (chromium, firefox, webkit)
+     * @return сессия с браузером
+     * @throws InterruptedException  если поток был прерван во время ожидания
+     * @throws IllegalStateException если пул закрыт или превышен таймаут ожидания
+     */
+    public BrowserSession borrow(String browserName) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Пул браузеров закрыт");
+        }
+
+        Keyspace keyspace = keyspaces.computeIfAbsent(browserName.toLowerCase(), Keyspace::new);
+        if (!keyspace.permits.tryAcquire(borrowTimeoutSeconds, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Нет свободного браузера " + browserName +
+                    " в пуле за " + borrowTimeoutSeconds + " секунд (maxSize=" + maxSize + ")");
+        }
+
+        try {
+            BrowserSession session = keyspace.pollHealthy();
+            if (session != null) {
+                reused.incrementAndGet();
+            } else {
+                TestLogger.LOGGER.info("Запуск нового браузера {} в пуле", browserName);
+                session = launcher.apply(keyspace.browserName);
+                launched.incrementAndGet();
+            }
+            session.bindToCurrentThread();
+            borrowed.put(session, keyspace);
+            return session;
+        } catch (RuntimeException e) {
+            keyspace.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Возвращает сессию в пул. Упавший браузер закрывается,
+     * при следующей выдаче вместо него будет запущен новый.
+     *
+     * @param session сессия, полученная через {@link #borrow(String)}
+     */
+    public void release(BrowserSession session) {
+        if (session == null) {
+            return;
+        }
+        Keyspace keyspace = borrowed.remove(session);
+        if (keyspace == null) {
+            TestLogger.LOGGER.warn("Попытка вернуть в пул сессию, которая не была из него выдана");
+            return;
+        }
+
+        try {
+            if (closed || !session.isAlive()) {
+                session.close();
+            } else {
+                keyspace.offer(session);
+            }
+        } finally {
+            keyspace.permits.release();
+        }
+    }
+
+    /**
+     * Закрывает выданную сессию вместо возврата в пул.
+     * При следующей выдаче вместо неё будет запущен новый браузер.
      *
-     * @return экземпляр Browser или null, если превышен таймаут
+     * @param session сессия, полученная через {@link #borrow(String)}
+     */
+    public void invalidate(BrowserSession session) {
+        if (session == null) {
+            return;
+        }
+        Keyspace keyspace = borrowed.remove(session);
+        if (keyspace == null) {
+            TestLogger.LOGGER.warn("Попытка закрыть сессию, которая не была выдана из пула");
+            return;
+        }
+
+        try {
+            session.close();
+        } finally {
+            keyspace.permits.release();
+        }
+    }
+
+    /**
+     * Получает браузер из пула (для типа браузера из конфигурации).
+     *
+     * @return экземпляр Browser
      * @throws InterruptedException если поток был прерван во время ожидания
      */
     public Browser borrowBrowser() throws InterruptedException {
-        return browserPool.poll(30, TimeUnit.SECONDS);
+        return borrow().getBrowser();
     }
 
     /**
@@ -123,18 +334,179 @@ public class PlaywrightBrowserPool {
      * @param browser экземпляр Browser для возврата в пул
      */
     public void returnBrowser(Browser browser) {
-        browserPool.offer(browser);
+        release(findBorrowed(browser));
     }
 
     /**
-     * Закрывает все браузеры в пуле и освобождает ресурсы Playwright.
-     * Должен вызываться в конце всех тестов.
+     * Находит выданную сессию, которой принадлежит браузер.
+     *
+     * @param browser экземпляр Browser
+     * @return сессия или null, если браузер не выдан из пула
+     */
+    public BrowserSession findBorrowed(Browser browser) {
+        for (BrowserSession session : borrowed.keySet()) {
+            if (session.getBrowser() == browser) {
+                return session;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Находит выданную сессию, которой принадлежит экземпляр Playwright.
+     *
+     * @param playwright экземпляр Playwright
+     * @return сессия или null, если экземпляр не выдан из пула
+     */
+    public BrowserSession findBorrowed(Playwright playwright) {
+        for (BrowserSession session : borrowed.keySet()) {
+            if (session.getPlaywright() == playwright) {
+                return session;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Закрывает все свободные браузеры. Выданные браузеры закрываются
+     * при возврате в пул. Должен вызываться в конце всех тестов.
      */
     public void shutdown() {
-        Browser browser;
-        while ((browser = browserPool.poll()) != null) {
-            browser.close();
+        closed = true;
+        evictor.shutdownNow();
+        for (Keyspace keyspace : keyspaces.values()) {
+            keyspace.closeAll();
+        }
+        TestLogger.LOGGER.info("Пул браузеров закрыт: запущено {}, переиспользовано {}, заменено {}",
+                launched.get(), reused.get(), replaced.get());
+    }
+
+    /**
+     * Закрывает браузеры, простаивающие дольше browser.pool.idleTimeoutSeconds,
+     * оставляя не меньше browser.pool.minSize браузеров каждого типа.
+     */
+    void evictIdle() {
+        long deadline = System.currentTimeMillis() - idleTimeoutMillis;
+        for (Keyspace keyspace : keyspaces.values()) {
+            keyspace.evictOlderThan(deadline);
+        }
+    }
+
+    /**
+     * Свободная сессия и время её возврата в пул.
+     */
+    private static final class IdleSession {
+        private final BrowserSession session;
+        private final long returnedAt;
+
+        private IdleSession(BrowserSession session) {
+            this.session = session;
+            this.returnedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Пространство ключей пула для одного типа браузера.
+     */
+    private final class Keyspace {
+        /**
+         * Тип браузера.
+         */
+        private final String browserName;
+
+        /**
+         * Разрешения на выдачу: не больше maxSize одновременно выданных сессий.
+         */
+        private final Semaphore permits = new Semaphore(maxSize, true);
+
+        /**
+         * Свободные сессии; последняя возвращенная выдается первой,
+         * чтобы редко используемые браузеры успевали закрыться при простое.
+         */
+        private final Deque<IdleSession> idle = new ArrayDeque<>();
+
+        private Keyspace(String browserName) {
+            this.browserName = browserName;
+        }
+
+        /**
+         * Извлекает свободную исправную сессию, закрывая упавшие.
+         *
+         * @return сессия или null, если свободных исправных сессий нет
+         */
+        private BrowserSession pollHealthy() {
+            while (true) {
+                IdleSession candidate;
+                synchronized (idle) {
+                    candidate = idle.pollFirst();
+                }
+                if (candidate == null) {
+                    return null;
+                }
+                if (candidate.session.isAlive()) {
+                    return candidate.session;
+                }
+                TestLogger.LOGGER.warn("Браузер {} в пуле отключен и будет заменен", browserName);
+                replaced.incrementAndGet();
+                candidate.session.close();
+            }
+        }
+
+        /**
+         * Возвращает сессию в число свободных.
+         *
+         * @param session исправная сессия
+         */
+        private void offer(BrowserSession session) {
+            synchronized (idle) {
+                idle.addFirst(new IdleSession(session));
+            }
+        }
+
+        /**
+         * Закрывает свободные сессии, возвращенные раньше указанного момента.
+         *
+         * @param deadline момент времени в миллисекундах
+         */
+        private void evictOlderThan(long deadline) {
+            Deque<BrowserSession> toClose = new ArrayDeque<>();
+            synchronized (idle) {
+                int keep = Math.max(0, minSize - borrowedCount());
+                int index = 0;
+                Iterator<IdleSession> iterator = idle.iterator();
+                while (iterator.hasNext()) {
+                    IdleSession candidate = iterator.next();
+                    if (index++ >= keep && candidate.returnedAt < deadline) {
+                        iterator.remove();
+                        toClose.add(candidate.session);
+                    }
+                }
+            }
+            for (BrowserSession session : toClose) {
+                TestLogger.LOGGER.debug("Закрытие простаивающего браузера {}", browserName);
+                session.close();
+            }
+        }
+
+        /**
+         * Считает сессии этого типа, выданные в данный момент.
+         *
+         * @return количество выданных сессий
+         */
+        private int borrowedCount() {
+            return (int) borrowed.values().stream().filter(k -> k == this).count();
+        }
+
+        /**
+         * Закрывает все свободные сессии.
+         */
+        private void closeAll() {
+            synchronized (idle) {
+                for (IdleSession candidate : idle) {
+                    candidate.session.close();
+                }
+                idle.clear();
+            }
         }
-        playwright.close();
     }
-}
\ No newline at end of file
+}
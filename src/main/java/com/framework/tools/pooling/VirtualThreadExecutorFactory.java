@@ -0,0 +1,79 @@
+package com.framework.tools.pooling;
+
+import com.framework.api.config.PlaywrightConfig;
+import com.framework.internal.logging.TestLogger;
+import org.testng.IExecutorServiceFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фабрика пулов потоков TestNG, выполняющая тесты в виртуальных потоках.
+ * <p>
+ * Вызовы Playwright блокируют поток до ответа драйвера, поэтому потоки TestNG
+ * большую часть времени ждут. Виртуальный поток при ожидании не занимает поток ОС,
+ * и thread-count в testng.xml можно поднять до сотен без сотен потоков ОС.
+ * <p>
+ * Особенности:
+ * - Включается параметром executor.virtualThreads=true (или системным свойством);
+ * без него создается обычный пул, как в TestNG по умолчанию
+ * - Пул сохраняет семантику TestNG: число одновременно выполняемых тестов
+ * по-прежнему ограничено thread-count, а виртуальные потоки переиспользуются,
+ * поэтому ресурсы потока (ThreadResourceRegistry) работают как прежде
+ * - Объекты Playwright привязаны к потоку, поэтому каждый виртуальный поток
+ * получает собственные контекст и страницу, а браузер берет из пула на время
+ * тестового класса; число браузеров ограничено browser.pool.maxSize
+ * (по умолчанию - числом процессоров), остальные потоки ждут свободный браузер
+ * <p>
+ * Подключение - только через командную строку TestNG
+ * (surefire передает TestNG лишь часть параметров и эту фабрику игнорирует):
+ * {@code java org.testng.TestNG -threadpoolfactoryclass com.framework.tools.pooling.VirtualThreadExecutorFactory testng.xml}
+ * <p>
+ * В Maven такой запуск выполняет профиль virtual-threads:
+ * {@code mvn test -Pvirtual-threads}
+ */
+public class VirtualThreadExecutorFactory implements IExecutorServiceFactory {
+
+    private static volatile boolean installed;
+
+    /**
+     * Создает фабрику; TestNG создает ее при разборе командной строки, до старта наборов тестов.
+     */
+    public VirtualThreadExecutorFactory() {
+        installed = true;
+    }
+
+    /**
+     * Проверяет, подключена ли фабрика к TestNG в текущем запуске.
+     *
+     * @return true, если экземпляр фабрики создан
+     */
+    public static boolean isInstalled() {
+        return installed;
+    }
+
+    /**
+     * Создает пул потоков для выполнения тестов.
+     *
+     * @param corePoolSize    число постоянных потоков
+     * @param maximumPoolSize максимальное число потоков
+     * @param keepAliveTime   время жизни простаивающего потока
+     * @param unit            единица измерения времени жизни
+     * @param workQueue       очередь задач
+     * @param threadFactory   фабрика потоков TestNG
+     * @return пул потоков
+     */
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        if (!PlaywrightConfig.getInstance().isVirtualThreads()) {
+            return new ThreadPoolExecutor(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory);
+        }
+        TestLogger.LOGGER.info("Тесты выполняются в виртуальных потоках, одновременно не более {}", maximumPoolSize);
+        return new ThreadPoolExecutor(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue,
+                Thread.ofVirtual().name("TestNG-virtual-", 1).factory());
+    }
+}
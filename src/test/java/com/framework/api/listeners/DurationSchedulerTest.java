@@ -0,0 +1,239 @@
+package com.framework.api.listeners;
+
+import com.framework.extentions.history.TestHistory;
+import org.testng.IMethodInstance;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Модульные тесты упорядочивания по длительности (LPT) и разбиения набора на части.
+ * Методы TestNG заменены заглушками, история задается в тесте.
+ */
+public class DurationSchedulerTest {
+
+    /**
+     * Тестовые классы, длительности которых задаются в истории.
+     */
+    static class Login {
+    }
+
+    static class Search {
+    }
+
+    static class Cart {
+    }
+
+    static class Profile {
+    }
+
+    @Test
+    public void testLongestClassesRunFirst() {
+        List<IMethodInstance> methods = List.of(
+                method(Login.class, "open"), method(Login.class, "submit"),
+                method(Search.class, "query"),
+                method(Cart.class, "add"));
+        Map<String, TestHistory.Stats> history = history(
+                Login.class, "open", 100, Login.class, "submit", 100,
+                Search.class, "query", 500,
+                Cart.class, "add", 300);
+
+        List<String> order = names(DurationScheduler.orderByDuration("unit", methods, history, 100, false, 2));
+
+        assertEquals(order, List.of("Search#query", "Cart#add", "Login#open", "Login#submit"),
+                "Классы упорядочиваются по убыванию длительности, методы класса - в порядке объявления");
+    }
+
+    @Test
+    public void testDependentBlocksStayTogether() {
+        List<IMethodInstance> methods = List.of(
+                method(Login.class, "open"),
+                method(Search.class, "query"),
+                method(Cart.class, "add", Login.class.getName() + ".open"));
+        Map<String, TestHistory.Stats> history = history(
+                Login.class, "open", 200,
+                Search.class, "query", 400,
+                Cart.class, "add", 300);
+
+        List<String> order = names(DurationScheduler.orderByDuration("unit", methods, history, 100, true, 2));
+
+        assertEquals(order, List.of("Login#open", "Cart#add", "Search#query"),
+                "Связанные зависимостью методы образуют один блок длительностью 500");
+    }
+
+    @Test
+    public void testUnknownTestsUseFallback() {
+        List<IMethodInstance> methods = List.of(method(Login.class, "open"), method(Search.class, "query"));
+        Map<String, TestHistory.Stats> history = history(Login.class, "open", 100);
+
+        List<String> order = names(DurationScheduler.orderByDuration("unit", methods, history, 1000, false, 1));
+
+        assertEquals(order, List.of("Search#query", "Login#open"));
+    }
+
+    @Test
+    public void testEstimateMakespan() {
+        assertEquals(DurationScheduler.estimateMakespan(new long[]{500, 400, 300, 200}, 2), 700);
+        assertEquals(DurationScheduler.estimateMakespan(new long[]{500, 400, 300, 200}, 1), 1400);
+        assertEquals(DurationScheduler.estimateMakespan(new long[]{500}, 4), 500);
+    }
+
+    @Test
+    public void testShardsAreBalancedByDuration() {
+        List<IMethodInstance> methods = List.of(
+                method(Login.class, "open"), method(Search.class, "query"),
+                method(Cart.class, "add"), method(Profile.class, "edit"));
+        Map<String, TestHistory.Stats> history = history(
+                Login.class, "open", 200,
+                Search.class, "query", 500,
+                Cart.class, "add", 300,
+                Profile.class, "edit", 400);
+
+        List<String> first = names(DurationScheduler.selectShard("unit", methods, history, 100, 0, 2));
+        List<String> second = names(DurationScheduler.selectShard("unit", methods, history, 100, 1, 2));
+
+        assertEquals(first, List.of("Login#open", "Search#query"), "500 + 200 в первой части");
+        assertEquals(second, List.of("Cart#add", "Profile#edit"), "400 + 300 во второй части");
+    }
+
+    @Test
+    public void testShardsKeepClassesWhole() {
+        List<IMethodInstance> methods = List.of(
+                method(Login.class, "open"), method(Search.class, "query"),
+                method(Login.class, "submit"), method(Cart.class, "add"));
+        Map<String, TestHistory.Stats> history = history(
+                Login.class, "open", 100, Login.class, "submit", 100,
+                Search.class, "query", 150,
+                Cart.class, "add", 150);
+
+        List<String> all = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            List<String> names = names(DurationScheduler.selectShard("unit", methods, history, 100, shard, 3));
+            if (names.contains("Login#open")) {
+                assertEquals(names, List.of("Login#open", "Login#submit"), "Класс целиком попадает в одну часть");
+            }
+            all.addAll(names);
+        }
+        assertEquals(all.size(), methods.size(), "Каждый метод попадает ровно в одну часть");
+    }
+
+    @Test
+    public void testShardsWithoutHistoryUseClassNameHash() {
+        List<IMethodInstance> methods = List.of(
+                method(Login.class, "open"), method(Search.class, "query"),
+                method(Login.class, "submit"), method(Cart.class, "add"), method(Profile.class, "edit"));
+
+        List<String> all = new ArrayList<>();
+        for (int shard = 0; shard < 2; shard++) {
+            List<String> names = names(DurationScheduler.selectShard("unit", methods, Map.of(), 100, shard, 2));
+            for (IMethodInstance method : methods) {
+                Class<?> type = method.getMethod().getRealClass();
+                boolean expected = Math.floorMod(type.getName().hashCode(), 2) == shard;
+                assertEquals(names.contains(method.toString()), expected,
+                        "Часть класса определяется только хэшем его имени: " + method);
+            }
+            all.addAll(names);
+        }
+        assertEquals(all.size(), methods.size(), "Каждый метод попадает ровно в одну часть");
+    }
+
+    @Test
+    public void testRepeatedInterceptDoesNotSplitAgain() {
+        List<IMethodInstance> methods = List.of(
+                method(Login.class, "open"), method(Search.class, "query"),
+                method(Cart.class, "add"), method(Profile.class, "edit"));
+        ITestContext context = context();
+        System.setProperty("shard.index", "0");
+        System.setProperty("shard.total", "2");
+        try {
+            DurationScheduler scheduler = new DurationScheduler();
+            List<IMethodInstance> first = scheduler.intercept(methods, context);
+            List<IMethodInstance> second = new DurationScheduler().intercept(first, context);
+
+            assertSame(second, first, "Повторно зарегистрированный перехватчик не должен делить часть еще раз");
+        } finally {
+            System.clearProperty("shard.index");
+            System.clearProperty("shard.total");
+        }
+    }
+
+    /**
+     * Создает заглушку контекста теста с атрибутами.
+     *
+     * @return контекст теста
+     */
+    private static ITestContext context() {
+        Map<String, Object> attributes = new HashMap<>();
+        XmlTest xmlTest = new XmlTest(new XmlSuite());
+        return (ITestContext) Proxy.newProxyInstance(DurationSchedulerTest.class.getClassLoader(),
+                new Class<?>[]{ITestContext.class}, (proxy, invoked, args) -> switch (invoked.getName()) {
+                    case "getName" -> "unit";
+                    case "getCurrentXmlTest" -> xmlTest;
+                    case "getAttribute" -> attributes.get((String) args[0]);
+                    case "setAttribute" -> attributes.put((String) args[0], args[1]);
+                    default -> throw new UnsupportedOperationException(invoked.getName());
+                });
+    }
+
+    /**
+     * Создает заглушку метода TestNG.
+     *
+     * @param type      класс теста
+     * @param name      имя метода
+     * @param dependsOn полные имена методов, от которых зависит метод
+     * @return экземпляр метода
+     */
+    private static IMethodInstance method(Class<?> type, String name, String... dependsOn) {
+        ITestNGMethod method = (ITestNGMethod) Proxy.newProxyInstance(DurationSchedulerTest.class.getClassLoader(),
+                new Class<?>[]{ITestNGMethod.class}, (proxy, invoked, args) -> switch (invoked.getName()) {
+                    case "getRealClass" -> type;
+                    case "getMethodName" -> name;
+                    case "getQualifiedName" -> type.getName() + "." + name;
+                    case "getGroups", "getGroupsDependedUpon" -> new String[0];
+                    case "getMethodsDependedUpon" -> dependsOn;
+                    case "getInvocationCount" -> 1;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + "#" + name;
+                    default -> throw new UnsupportedOperationException(invoked.getName());
+                });
+        return (IMethodInstance) Proxy.newProxyInstance(DurationSchedulerTest.class.getClassLoader(),
+                new Class<?>[]{IMethodInstance.class}, (proxy, invoked, args) -> switch (invoked.getName()) {
+                    case "getMethod" -> method;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> method.toString();
+                    default -> throw new UnsupportedOperationException(invoked.getName());
+                });
+    }
+
+    /**
+     * Строит историю из троек: класс, метод, средняя длительность.
+     *
+     * @param entries класс, имя метода и длительность для каждого теста
+     * @return сводки истории
+     */
+    private static Map<String, TestHistory.Stats> history(Object... entries) {
+        Map<String, TestHistory.Stats> history = new HashMap<>();
+        for (int i = 0; i < entries.length; i += 3) {
+            String id = ((Class<?>) entries[i]).getName() + "#" + entries[i + 1];
+            history.put(id, new TestHistory.Stats(1, 0, 0, 0, ((Number) entries[i + 2]).longValue()));
+        }
+        return history;
+    }
+
+    private static List<String> names(List<IMethodInstance> methods) {
+        return methods.stream().map(Object::toString).toList();
+    }
+}
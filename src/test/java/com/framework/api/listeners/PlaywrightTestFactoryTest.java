@@ -0,0 +1,94 @@
+package com.framework.api.listeners;
+
+import com.framework.api.annotations.Retry;
+import com.microsoft.playwright.TimeoutError;
+import org.testng.TestNG;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Модульные тесты регистрации анализатора повторов: TestNG запускается программно
+ * с PlaywrightTestFactory, число вызовов показывает, применилась ли {@link Retry}.
+ * Тесты падают с таймаутом Playwright, который считается нестабильной ошибкой.
+ * Вложенные классы не публичные, чтобы внешний запуск TestNG не выполнял их сам.
+ */
+public class PlaywrightTestFactoryTest {
+
+    static class MethodRetryTests {
+        static final AtomicInteger invocations = new AtomicInteger();
+
+        @Test
+        @Retry(maxRetries = 2)
+        public void flaky() {
+            invocations.incrementAndGet();
+            throw new TimeoutError("Timeout 30000ms exceeded");
+        }
+    }
+
+    @Test
+    @Retry(maxRetries = 1)
+    static class ClassRetryTests {
+        static final AtomicInteger invocations = new AtomicInteger();
+
+        public void flaky() {
+            invocations.incrementAndGet();
+            throw new TimeoutError("Timeout 30000ms exceeded");
+        }
+    }
+
+    static class PlainTests {
+        static final AtomicInteger invocations = new AtomicInteger();
+
+        @Test
+        public void flaky() {
+            invocations.incrementAndGet();
+            throw new TimeoutError("Timeout 30000ms exceeded");
+        }
+    }
+
+    @BeforeMethod
+    public void resetInvocations() {
+        MethodRetryTests.invocations.set(0);
+        ClassRetryTests.invocations.set(0);
+        PlainTests.invocations.set(0);
+    }
+
+    @Test
+    public void testMethodRetryIsApplied() {
+        run(MethodRetryTests.class);
+
+        assertEquals(MethodRetryTests.invocations.get(), 3, "Первый запуск и два повтора из @Retry метода");
+    }
+
+    @Test
+    public void testClassLevelTestAnnotationGetsAnalyzer() {
+        run(ClassRetryTests.class);
+
+        assertEquals(ClassRetryTests.invocations.get(), 2, "@Test и @Retry только на классе должны давать повтор");
+    }
+
+    @Test
+    public void testTestsWithoutRetryRunOnce() {
+        run(PlainTests.class);
+
+        assertEquals(PlainTests.invocations.get(), 1);
+    }
+
+    /**
+     * Запускает тестовый класс в отдельном экземпляре TestNG с PlaywrightTestFactory.
+     *
+     * @param testClass тестовый класс
+     */
+    private static void run(Class<?> testClass) {
+        TestNG testng = new TestNG(false);
+        testng.setUseDefaultListeners(false);
+        testng.setVerbose(0);
+        testng.setTestClasses(new Class<?>[]{testClass});
+        testng.addListener(new PlaywrightTestFactory());
+        testng.run();
+    }
+}
@@ -0,0 +1,146 @@
+package com.framework.extentions.data;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Модульные тесты кэша данных: устаревание записей при изменении файла
+ * и вытеснение давно не используемых записей при превышении веса.
+ */
+public class DataCacheTest {
+
+    @Test
+    public void testRepeatedGetIsServedFromCache() throws IOException {
+        DataCache cache = new DataCache(1024);
+        Path file = write("alpha");
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("text", file, path -> {
+            loads.incrementAndGet();
+            return Files.readString(path);
+        });
+        String value = cache.get("text", file, path -> {
+            loads.incrementAndGet();
+            return Files.readString(path);
+        });
+
+        assertEquals(value, "alpha");
+        assertEquals(loads.get(), 1, "Файл должен читаться один раз");
+        DataCache.Stats stats = cache.stats();
+        assertEquals(stats.hits(), 1);
+        assertEquals(stats.misses(), 1);
+        assertEquals(stats.weight(), 5, "Вес записи равен размеру файла");
+    }
+
+    @Test
+    public void testChangedFileIsReloaded() throws IOException {
+        DataCache cache = new DataCache(1024);
+        Path file = write("alpha");
+        cache.get("text", file, Files::readString);
+
+        Files.writeString(file, "alpha-changed");
+        String value = cache.get("text", file, Files::readString);
+
+        assertEquals(value, "alpha-changed", "Изменение файла должно сбрасывать запись");
+        DataCache.Stats stats = cache.stats();
+        assertEquals(stats.invalidations(), 1);
+        assertEquals(stats.size(), 1);
+        assertEquals(stats.weight(), 13, "Вес устаревшей записи не должен учитываться");
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() throws IOException {
+        DataCache cache = new DataCache(25);
+        Path first = write("1111111111");
+        Path second = write("2222222222");
+        Path third = write("3333333333");
+        cache.get("text", first, Files::readString);
+        cache.get("text", second, Files::readString);
+        // Первая запись используется позже второй
+        cache.get("text", first, Files::readString);
+
+        cache.get("text", third, Files::readString);
+
+        DataCache.Stats stats = cache.stats();
+        assertEquals(stats.evictions(), 1);
+        assertEquals(stats.size(), 2);
+        assertEquals(stats.weight(), 20);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("text", first, path -> {
+            loads.incrementAndGet();
+            return Files.readString(path);
+        });
+        assertEquals(loads.get(), 0, "Недавно использованная запись должна остаться в кэше");
+        cache.get("text", second, path -> {
+            loads.incrementAndGet();
+            return Files.readString(path);
+        });
+        assertEquals(loads.get(), 1, "Давно не использованная запись должна быть вытеснена");
+    }
+
+    @Test
+    public void testWaitingForAnotherLoadIsMiss() throws Exception {
+        DataCache cache = new DataCache(1024);
+        Path file = write("alpha");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        DataCache.Loader<String> loader = path -> {
+            loads.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Files.readString(path);
+        };
+
+        Thread first = new Thread(() -> cache.get("text", file, loader));
+        first.start();
+        started.await();
+        AtomicReference<String> joined = new AtomicReference<>();
+        Thread second = new Thread(() -> joined.set(cache.get("text", file, loader)));
+        second.start();
+        // Второй поток ждет результата загрузки первого
+        while (second.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        first.join();
+        second.join();
+
+        assertEquals(joined.get(), "alpha");
+        assertEquals(loads.get(), 1, "Файл должен читаться один раз");
+        DataCache.Stats stats = cache.stats();
+        assertEquals(stats.hits(), 0, "Ожидание чужой загрузки не является попаданием");
+        assertEquals(stats.misses(), 2);
+    }
+
+    @Test
+    public void testClearResetsWeight() throws IOException {
+        DataCache cache = new DataCache(1024);
+        cache.get("text", write("alpha"), Files::readString);
+        cache.get("bytes", write("beta"), Files::readAllBytes);
+
+        cache.clear();
+
+        DataCache.Stats stats = cache.stats();
+        assertEquals(stats.size(), 0);
+        assertEquals(stats.weight(), 0);
+    }
+
+    private static Path write(String content) throws IOException {
+        Path file = Files.createTempFile("cache", ".txt");
+        file.toFile().deleteOnExit();
+        return Files.writeString(file, content);
+    }
+}
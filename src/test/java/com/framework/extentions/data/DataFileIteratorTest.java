@@ -0,0 +1,172 @@
+package com.framework.extentions.data;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Модульные тесты потокового чтения файлов данных.
+ * <p>
+ * Параметры, которые заполняются из файла, берутся из сигнатур вспомогательных
+ * методов этого класса; сопоставление по имени требует компиляции с флагом -parameters.
+ */
+public class DataFileIteratorTest {
+
+    /**
+     * Пользователь для проверки привязки строки JSONL к record.
+     *
+     * @param username имя пользователя
+     * @param age      возраст
+     */
+    public record User(String username, int age) {
+    }
+
+    @Test
+    public void testCsvColumnsMatchedByName() throws IOException {
+        Path file = write(".csv", """
+                active,username,age
+                true,alice,30
+
+                false,"smith, john",41
+                """);
+
+        List<Object[]> rows = readAll(file, "user");
+
+        assertEquals(rows.size(), 2, "Пустые строки CSV должны пропускаться");
+        assertEquals(rows.get(0), new Object[]{"alice", 30, true});
+        assertEquals(rows.get(1), new Object[]{"smith, john", 41, false},
+                "Запятая внутри кавычек не должна разделять значения");
+    }
+
+    @Test
+    public void testCsvEscapedQuotes() throws IOException {
+        Path file = write(".csv", "username,age,active\n\"say \"\"hi\"\"\",7,true\n");
+
+        assertEquals(readAll(file, "user").get(0), new Object[]{"say \"hi\"", 7, true});
+    }
+
+    @Test
+    public void testCsvInvalidValueReportsLine() throws IOException {
+        Path file = write(".csv", """
+                username,age,active
+                alice,thirty,true
+                """);
+
+        try (DataFileIterator iterator = DataFileIterator.open(file.toString(), parametersOf("user"))) {
+            IllegalArgumentException error = expectThrows(IllegalArgumentException.class, iterator::next);
+            assertTrue(error.getMessage().contains("строке 2"),
+                    "Сообщение должно содержать номер строки: " + error.getMessage());
+        }
+    }
+
+    @Test
+    public void testCsvMissingColumnIsReported() throws IOException {
+        Path file = write(".csv", """
+                login,age,active
+                alice,30,true
+                """);
+
+        IllegalArgumentException error = expectThrows(IllegalArgumentException.class,
+                () -> DataFileIterator.open(file.toString(), parametersOf("user")));
+        assertTrue(error.getMessage().contains("'username'"),
+                "Сообщение должно содержать имя колонки: " + error.getMessage());
+    }
+
+    @Test
+    public void testJsonlMissingFieldIsReported() throws IOException {
+        Path file = write(".jsonl", """
+                {"login": "alice", "age": 30, "active": true}
+                """);
+
+        try (DataFileIterator iterator = DataFileIterator.open(file.toString(), parametersOf("user"))) {
+            IllegalArgumentException error = expectThrows(IllegalArgumentException.class, iterator::next);
+            assertTrue(error.getMessage().contains("'username'") && error.getMessage().contains("строке 1"),
+                    "Сообщение должно содержать имя поля и номер строки: " + error.getMessage());
+        }
+    }
+
+    @Test
+    public void testJsonlObjectsAndArrays() throws IOException {
+        Path file = write(".jsonl", """
+                {"age": 30, "username": "alice", "active": true}
+                ["bob", 25, false]
+                """);
+
+        List<Object[]> rows = readAll(file, "user");
+
+        assertEquals(rows.size(), 2);
+        assertEquals(rows.get(0), new Object[]{"alice", 30, true}, "Поля объекта сопоставляются по имени");
+        assertEquals(rows.get(1), new Object[]{"bob", 25, false}, "Элементы массива сопоставляются по порядку");
+    }
+
+    @Test
+    public void testJsonlRecordParameter() throws IOException {
+        Path file = write(".jsonl", """
+                {"username": "alice", "age": 30}
+                """);
+
+        assertEquals(readAll(file, "record").get(0), new Object[]{new User("alice", 30)},
+                "Параметр-record должен получить весь объект");
+    }
+
+    @Test
+    public void testIteratorIsExhausted() throws IOException {
+        Path file = write(".jsonl", "[\"alice\", 30, true]\n");
+
+        try (DataFileIterator iterator = DataFileIterator.open(file.toString(), parametersOf("user"))) {
+            iterator.next();
+            assertFalse(iterator.hasNext());
+            assertThrows(NoSuchElementException.class, iterator::next);
+        }
+    }
+
+    /**
+     * Сигнатура для строк с пользователем.
+     */
+    @SuppressWarnings("unused")
+    private void user(String username, int age, boolean active) {
+    }
+
+    /**
+     * Сигнатура для строк, привязываемых к record.
+     */
+    @SuppressWarnings("unused")
+    private void record(User user) {
+    }
+
+    private static Parameter[] parametersOf(String methodName) {
+        for (Method method : DataFileIteratorTest.class.getDeclaredMethods()) {
+            if (method.getName().equals(methodName)) {
+                return method.getParameters();
+            }
+        }
+        throw new IllegalArgumentException("Нет метода " + methodName);
+    }
+
+    private static List<Object[]> readAll(Path file, String methodName) {
+        List<Object[]> rows = new ArrayList<>();
+        try (DataFileIterator iterator = DataFileIterator.open(file.toString(), parametersOf(methodName))) {
+            iterator.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+
+    private static Path write(String suffix, String content) throws IOException {
+        Path file = Files.createTempFile("data", suffix);
+        file.toFile().deleteOnExit();
+        return Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,105 @@
+package com.framework.extentions.data;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertThrows;
+
+/**
+ * Модульные тесты привязки JSON файлов к типизированным record и классам данных.
+ */
+public class DataManagerTest {
+
+    /**
+     * Адрес пользователя.
+     *
+     * @param city город
+     */
+    public record Address(String city) {
+    }
+
+    /**
+     * Пользователь с вложенным record и списком.
+     *
+     * @param email   адрес почты
+     * @param age     возраст
+     * @param address адрес
+     * @param roles   роли
+     */
+    public record User(String email, int age, Address address, List<String> roles) {
+    }
+
+    /**
+     * Изменяемый класс данных.
+     */
+    public static class Settings {
+        String locale;
+    }
+
+    @Test
+    public void testLoadRecord() throws IOException {
+        Path file = write("""
+                {"email": "alice@example.com", "age": 30, "address": {"city": "Москва"}, "roles": ["admin"]}
+                """);
+
+        User user = DataManager.load(file.toString(), User.class);
+
+        assertEquals(user, new User("alice@example.com", 30, new Address("Москва"), List.of("admin")));
+    }
+
+    @Test
+    public void testLoadArrayOfRecords() throws IOException {
+        Path file = write("""
+                [
+                  {"email": "alice@example.com", "age": 30},
+                  {"email": "bob@example.com", "age": 25, "roles": []}
+                ]
+                """);
+
+        List<User> users = DataManager.loadArray(file.toString(), User.class);
+
+        assertEquals(users.size(), 2);
+        assertEquals(users.get(0).email(), "alice@example.com");
+        assertEquals(users.get(1).age(), 25);
+        assertEquals(users.get(1).roles(), List.of());
+        assertThrows(UnsupportedOperationException.class, () -> users.add(users.get(0)));
+    }
+
+    @Test
+    public void testLoadArrayRejectsObjectRoot() throws IOException {
+        Path file = write("{\"email\": \"alice@example.com\"}");
+
+        assertThrows(IllegalStateException.class, () -> DataManager.loadArray(file.toString(), User.class));
+    }
+
+    @Test
+    public void testMalformedJsonIsReported() throws IOException {
+        Path file = write("{\"email\": ");
+
+        assertThrows(RuntimeException.class, () -> DataManager.load(file.toString(), User.class));
+    }
+
+    @Test
+    public void testMutableObjectsAreNotShared() throws IOException {
+        Path file = write("{\"locale\": \"ru-RU\"}");
+
+        Settings first = DataManager.load(file.toString(), Settings.class);
+        first.locale = "en-US";
+        Settings second = DataManager.load(file.toString(), Settings.class);
+
+        assertNotSame(second, first, "Каждый вызов создает новый объект");
+        assertEquals(second.locale, "ru-RU", "Изменение одного объекта не влияет на следующие загрузки");
+    }
+
+    private static Path write(String content) throws IOException {
+        Path file = Files.createTempFile("data", ".json");
+        file.toFile().deleteOnExit();
+        return Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,95 @@
+package com.framework.extentions.data;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Модульные тесты бинарного снимка JSON: значения после записи и чтения снимка
+ * совпадают с результатом разбора исходного файла.
+ */
+public class JsonSnapshotTest {
+
+    @Test
+    public void testArrayRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("snapshot");
+        Path source = write(dir, "users.json", """
+                [
+                  {"name": "alice", "age": 30, "admin": true, "tags": ["a", "б"], "manager": null},
+                  {"name": "bob", "age": 2.5, "admin": false, "address": {"city": "Москва"}}
+                ]
+                """);
+
+        List<Map<String, Object>> users = JsonSnapshot.loadArray(source, dir.resolve("snapshots"));
+
+        assertEquals(users.size(), 2);
+        Map<String, Object> alice = users.get(0);
+        assertEquals(alice.get("name"), "alice");
+        assertEquals(alice.get("age"), 30.0, "Числа декодируются в Double, как в Gson");
+        assertEquals(alice.get("admin"), Boolean.TRUE);
+        assertEquals(alice.get("tags"), List.of("a", "б"));
+        assertTrue(alice.containsKey("manager") && alice.get("manager") == null);
+        assertEquals(users.get(1).get("address"), Map.of("city", "Москва"));
+        assertEquals(List.copyOf(alice.keySet()), List.of("name", "age", "admin", "tags", "manager"),
+                "Порядок полей должен сохраняться");
+    }
+
+    @Test
+    public void testSnapshotIsReusedAndRebuiltOnChange() throws IOException {
+        Path dir = Files.createTempDirectory("snapshot");
+        Path snapshots = dir.resolve("snapshots");
+        Path source = write(dir, "items.json", "[{\"id\": 1}]");
+
+        JsonSnapshot.loadArray(source, snapshots);
+        assertEquals(JsonSnapshot.loadArray(source, snapshots).get(0), Map.of("id", 1.0));
+        try (var files = Files.list(snapshots)) {
+            assertEquals(files.count(), 1L, "Снимок должен создаваться один раз");
+        }
+
+        Files.writeString(source, "[{\"id\": 1}, {\"id\": 2}]");
+        assertEquals(JsonSnapshot.loadArray(source, snapshots).size(), 2, "Снимок должен пересоздаваться");
+    }
+
+    @Test
+    public void testObjectRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("snapshot");
+        Path source = write(dir, "config.json", "{\"url\": \"https://example.com\", \"retries\": [1, 2]}");
+
+        Map<String, Object> config = JsonSnapshot.loadObject(source, dir.resolve("snapshots"));
+
+        assertEquals(config, Map.of("url", "https://example.com", "retries", Arrays.asList(1.0, 2.0)));
+    }
+
+    @Test
+    public void testRootTypeMismatch() throws IOException {
+        Path dir = Files.createTempDirectory("snapshot");
+        Path array = write(dir, "array.json", "[{\"id\": 1}]");
+        Path object = write(dir, "object.json", "{\"id\": 1}");
+
+        assertThrows(IllegalStateException.class, () -> JsonSnapshot.loadObject(array, dir.resolve("snapshots")));
+        assertThrows(IllegalStateException.class, () -> JsonSnapshot.loadArray(object, dir.resolve("snapshots")));
+    }
+
+    @Test
+    public void testDecodedValuesAreImmutable() throws IOException {
+        Path dir = Files.createTempDirectory("snapshot");
+        Path source = write(dir, "users.json", "[{\"name\": \"alice\"}]");
+
+        List<Map<String, Object>> users = JsonSnapshot.loadArray(source, dir.resolve("snapshots"));
+
+        assertThrows(UnsupportedOperationException.class, () -> users.get(0).put("name", "bob"));
+    }
+
+    private static Path write(Path dir, String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content);
+    }
+}
@@ -0,0 +1,71 @@
+package com.framework.extentions.retry;
+
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.TimeoutError;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.FileNotFoundException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Модульные тесты классификации ошибок тестов для повторного запуска.
+ */
+public class FailureClassifierTest {
+
+    @DataProvider
+    public Object[][] errors() {
+        return new Object[][]{
+                {new TimeoutError("Timeout 30000ms exceeded"), true},
+                {new PlaywrightException("net::ERR_CONNECTION_RESET at https://example.com"), true},
+                {new PlaywrightException("Target page, context or browser has been closed"), true},
+                {new RuntimeException("wrapper", new UncheckedIOException(new SocketException("reset"))), true},
+                {new ConnectException("Connection refused"), true},
+                {new UncheckedIOException(new SocketTimeoutException("Read timed out")), true},
+                {new HttpTimeoutException("request timed out"), true},
+                {new UncheckedIOException(new NoSuchFileException("users.csv")), false},
+                {new RuntimeException(new FileNotFoundException("data.json")), false},
+                {new PlaywrightException("Element is not visible"), false},
+                {new IllegalStateException("Неверное состояние"), false},
+                {new AssertionError("expected [1] but found [2]"), false},
+                {new AssertionError("timeout", new TimeoutError("Timeout")), false},
+                {null, false},
+        };
+    }
+
+    @Test(dataProvider = "errors")
+    public void testIsTransient(Throwable error, boolean expected) {
+        assertEquals(FailureClassifier.isTransient(error), expected, String.valueOf(error));
+    }
+
+    @Test
+    public void testExtraTypesAreTransient() {
+        IllegalStateException error = new IllegalStateException("Данные еще не готовы");
+
+        assertFalse(FailureClassifier.isTransient(error));
+        assertTrue(FailureClassifier.isTransient(new RuntimeException(error), List.of(IllegalStateException.class)),
+                "Дополнительный тип учитывается в цепочке причин");
+    }
+
+    @Test
+    public void testSelfReferencingCauseTerminates() {
+        RuntimeException error = new RuntimeException("loop") {
+            @Override
+            public synchronized Throwable getCause() {
+                return this;
+            }
+        };
+
+        assertFalse(FailureClassifier.isTransient(error));
+    }
+}
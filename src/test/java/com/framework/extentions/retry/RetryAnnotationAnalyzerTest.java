@@ -0,0 +1,91 @@
+package com.framework.extentions.retry;
+
+import com.framework.api.annotations.Retry;
+import org.testng.IClass;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+import org.testng.internal.ConstructorOrMethod;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Модульные тесты поиска аннотации {@link Retry}: аннотация класса ищется
+ * от фактического класса теста, поэтому унаследованные методы тоже повторяются.
+ */
+public class RetryAnnotationAnalyzerTest {
+
+    static class BaseTests {
+        public void inherited() {
+        }
+    }
+
+    @Retry(maxRetries = 3)
+    static class RetriedTests extends BaseTests {
+    }
+
+    static class PlainTests extends BaseTests {
+        @Retry(maxRetries = 5)
+        public void annotated() {
+        }
+    }
+
+    @Test
+    public void testInheritedMethodUsesRealClassAnnotation() throws NoSuchMethodException {
+        ITestResult result = result(RetriedTests.class, BaseTests.class.getMethod("inherited"));
+
+        Retry retry = TestRetryAnalyzer.findRetry(result);
+
+        assertNotNull(retry, "Метод базового класса должен получить @Retry наследника");
+        assertEquals(retry.maxRetries(), 3);
+    }
+
+    @Test
+    public void testMethodAnnotationHasPriority() throws NoSuchMethodException {
+        Retry retry = TestRetryAnalyzer.findRetry(result(PlainTests.class, PlainTests.class.getMethod("annotated")));
+
+        assertNotNull(retry);
+        assertEquals(retry.maxRetries(), 5);
+    }
+
+    @Test
+    public void testTestsWithoutRetryAreNotRetried() throws NoSuchMethodException {
+        ITestResult result = result(PlainTests.class, BaseTests.class.getMethod("inherited"));
+
+        assertNull(TestRetryAnalyzer.findRetry(result));
+        assertFalse(new RetryAnnotationAnalyzer().retry(result));
+    }
+
+    /**
+     * Создает заглушку результата теста.
+     *
+     * @param realClass фактический класс теста
+     * @param method    тестовый метод
+     * @return результат теста
+     */
+    private static ITestResult result(Class<?> realClass, Method method) {
+        ClassLoader loader = RetryAnnotationAnalyzerTest.class.getClassLoader();
+        IClass testClass = (IClass) Proxy.newProxyInstance(loader, new Class<?>[]{IClass.class},
+                (proxy, invoked, args) -> switch (invoked.getName()) {
+                    case "getRealClass" -> realClass;
+                    default -> throw new UnsupportedOperationException(invoked.getName());
+                });
+        ITestNGMethod testMethod = (ITestNGMethod) Proxy.newProxyInstance(loader, new Class<?>[]{ITestNGMethod.class},
+                (proxy, invoked, args) -> switch (invoked.getName()) {
+                    case "getConstructorOrMethod" -> new ConstructorOrMethod(method);
+                    default -> throw new UnsupportedOperationException(invoked.getName());
+                });
+        return (ITestResult) Proxy.newProxyInstance(loader, new Class<?>[]{ITestResult.class},
+                (proxy, invoked, args) -> switch (invoked.getName()) {
+                    case "getMethod" -> testMethod;
+                    case "getTestClass" -> testClass;
+                    default -> throw new UnsupportedOperationException(invoked.getName());
+                });
+    }
+}
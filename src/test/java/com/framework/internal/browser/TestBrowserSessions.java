@@ -0,0 +1,48 @@
+package com.framework.internal.browser;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.Playwright;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Сессии браузера для модульных тестов без запуска Playwright.
+ * Браузер сессии - заглушка, подключение которой задается в тесте.
+ */
+public final class TestBrowserSessions {
+
+    private TestBrowserSessions() {
+    }
+
+    /**
+     * Создает сессию с браузером-заглушкой.
+     *
+     * @param browserName тип браузера
+     * @param connected   признак подключения браузера; close() сбрасывает его
+     * @return сессия браузера
+     */
+    public static BrowserSession create(String browserName, AtomicBoolean connected) {
+        Browser browser = (Browser) Proxy.newProxyInstance(TestBrowserSessions.class.getClassLoader(),
+                new Class<?>[]{Browser.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "isConnected" -> connected.get();
+                    case "close" -> {
+                        connected.set(false);
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "Browser(" + browserName + ")";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        Playwright playwright = (Playwright) Proxy.newProxyInstance(TestBrowserSessions.class.getClassLoader(),
+                new Class<?>[]{Playwright.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> null;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "Playwright";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return new BrowserSession(playwright, browser, browserName);
+    }
+}
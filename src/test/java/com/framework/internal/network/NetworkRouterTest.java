@@ -0,0 +1,34 @@
+package com.framework.internal.network;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Модульные тесты преобразования glob-шаблонов URL из @BlockResources и network.block.urls.
+ */
+public class NetworkRouterTest {
+
+    @DataProvider
+    public Object[][] globs() {
+        return new Object[][]{
+                {"**/analytics/**", "https://example.com/analytics/collect?v=1", true},
+                {"**/analytics/**", "https://example.com/static/app.js", false},
+                {"https://*.google.com/*", "https://www.google.com/search", true},
+                {"https://*.google.com/*", "https://www.google.com/maps/place", false},
+                {"https://*.google.com/*", "https://evil.com/x.google.com/y", false},
+                {"**.png", "https://cdn.example.com/img/logo.png", true},
+                {"**.png", "https://cdn.example.com/img/logo.png?size=2", false},
+                {"https://example.com/a+b(1).js", "https://example.com/a+b(1).js", true},
+                {"https://example.com/a.js", "https://example.com/abjs", false},
+                {"https://example.com/page", "https://example.com/page", true},
+        };
+    }
+
+    @Test(dataProvider = "globs")
+    public void testGlobToPattern(String glob, String url, boolean expected) {
+        assertEquals(NetworkRouter.globToPattern(glob).matcher(url).matches(), expected,
+                "Шаблон " + glob + " для " + url);
+    }
+}
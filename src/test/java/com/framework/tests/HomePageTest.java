@@ -1,10 +1,12 @@
 package com.framework.tests;
 
+import com.framework.api.annotations.MockServer;
 import com.framework.api.annotations.PageParam;
 import com.framework.api.annotations.UsePage;
 import com.framework.api.pages.GooglePage;
 import com.framework.api.pages.HomePage;
 import com.framework.api.testing.PlaywrightBaseTest;
+import com.framework.extentions.mock.MockHttpServer;
 import com.framework.internal.factory.CustomPageFactory;
 import com.microsoft.playwright.Page;
 import io.qameta.allure.*;
@@ -13,6 +15,7 @@ import org.testng.annotations.Test;
 import static org.testng.Assert.assertTrue;
 
 @UsePage
+@MockServer
 @Epic("UI Tests")
 @Feature("Home Page")
 public class HomePageTest extends PlaywrightBaseTest {
@@ -35,7 +38,7 @@ public class HomePageTest extends PlaywrightBaseTest {
     @Severity(SeverityLevel.NORMAL)
     public void testDirectPage(Page page) {
         // Переходим на страницу напрямую
-        page.navigate("https://example.com");
+        page.navigate(MockHttpServer.get().getBaseUrl());
 
         // Проверяем заголовок страницы
         assertTrue(page.title().contains("Example Domain"), "Страница должна содержать правильный заголовок");
@@ -55,6 +58,7 @@ public class HomePageTest extends PlaywrightBaseTest {
     @Story("Google Navigation")
     @Description("Проверка навигации на страницу Google")
     @Severity(SeverityLevel.NORMAL)
+    @MockServer("/google")
     public void testWithPageFactory(GooglePage page) {
         page.navigateToHome();
     }
@@ -63,7 +67,7 @@ public class HomePageTest extends PlaywrightBaseTest {
     @Story("Annotated Page")
     @Description("Тест с аннотацией PageParam для автоматической навигации")
     @Severity(SeverityLevel.MINOR)
-    public void testAnnotatedPage(@PageParam(url = "https://example.com", navigate = true) HomePage homePage) {
+    public void testAnnotatedPage(@PageParam(url = "/", navigate = true) HomePage homePage) {
         // Страница уже открыта благодаря аннотации PageParam
         assertTrue(homePage.isLoaded(), "Домашняя страница должна быть загружена");
     }
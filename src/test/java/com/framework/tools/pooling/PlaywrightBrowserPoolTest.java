@@ -0,0 +1,151 @@
+package com.framework.tools.pooling;
+
+import com.framework.internal.browser.BrowserSession;
+import com.framework.internal.browser.TestBrowserSessions;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Модульные тесты пула браузеров: переиспользование, ограничение размера,
+ * замена отключенных и закрытие простаивающих браузеров.
+ * Браузеры заменены заглушками, поэтому Playwright не запускается.
+ */
+public class PlaywrightBrowserPoolTest {
+
+    /**
+     * Признаки подключения запущенных браузеров в порядке запуска.
+     */
+    private final List<AtomicBoolean> browsers = new ArrayList<>();
+
+    private PlaywrightBrowserPool pool;
+
+    @AfterMethod
+    public void shutdownPool() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        browsers.clear();
+    }
+
+    @Test
+    public void testReleasedBrowserIsReused() throws InterruptedException {
+        pool = pool(0, 2, 60, 1);
+
+        BrowserSession first = pool.borrow("chromium");
+        pool.release(first);
+        BrowserSession second = pool.borrow("Chromium");
+
+        assertSame(second, first, "Свободный браузер должен выдаваться повторно");
+        assertEquals(browsers.size(), 1);
+        assertSame(second.getOwner(), Thread.currentThread(), "Сессия передается потоку, получившему ее");
+    }
+
+    @Test
+    public void testBrowserTypesUseSeparateKeyspaces() throws InterruptedException {
+        pool = pool(0, 1, 60, 1);
+
+        BrowserSession chromium = pool.borrow("chromium");
+        BrowserSession firefox = pool.borrow("firefox");
+
+        assertEquals(chromium.getBrowserName(), "chromium");
+        assertEquals(firefox.getBrowserName(), "firefox", "maxSize ограничивает каждый тип браузера отдельно");
+    }
+
+    @Test
+    public void testBorrowTimesOutWhenPoolIsExhausted() throws InterruptedException {
+        pool = pool(0, 1, 60, 1);
+        BrowserSession session = pool.borrow("chromium");
+
+        long start = System.nanoTime();
+        IllegalStateException error = expectThrows(IllegalStateException.class, () -> pool.borrow("chromium"));
+
+        assertTrue(System.nanoTime() - start >= 900_000_000L, "Пул должен ждать освобождения браузера");
+        assertTrue(error.getMessage().contains("maxSize=1"), error.getMessage());
+        pool.release(session);
+        assertSame(pool.borrow("chromium"), session, "После возврата браузер снова доступен");
+    }
+
+    @Test
+    public void testDisconnectedBrowserIsReplaced() throws InterruptedException {
+        pool = pool(0, 1, 60, 1);
+        BrowserSession first = pool.borrow("chromium");
+        pool.release(first);
+
+        browsers.get(0).set(false);
+        BrowserSession second = pool.borrow("chromium");
+
+        assertNotSame(second, first, "Отключенный браузер должен быть заменен новым");
+        assertFalse(first.isAlive());
+        assertEquals(browsers.size(), 2);
+    }
+
+    @Test
+    public void testDisconnectedBrowserIsClosedOnRelease() throws InterruptedException {
+        pool = pool(0, 1, 60, 1);
+        BrowserSession first = pool.borrow("chromium");
+        browsers.get(0).set(false);
+
+        pool.release(first);
+
+        assertNotSame(pool.borrow("chromium"), first, "Упавший браузер не возвращается в число свободных");
+    }
+
+    @Test
+    public void testInvalidatedBrowserIsClosedAndReplaced() throws InterruptedException {
+        pool = pool(0, 1, 60, 1);
+        BrowserSession first = pool.borrow("chromium");
+
+        pool.invalidate(first);
+
+        assertFalse(first.isAlive(), "Сессия закрывается вместо возврата в пул");
+        BrowserSession second = pool.borrow("chromium");
+        assertNotSame(second, first, "Место в пуле освобождается для нового браузера");
+        assertEquals(browsers.size(), 2);
+    }
+
+    @Test
+    public void testIdleBrowsersAboveMinSizeAreEvicted() throws InterruptedException {
+        pool = pool(1, 3, 1, 1);
+        BrowserSession first = pool.borrow("chromium");
+        BrowserSession second = pool.borrow("chromium");
+        pool.release(first);
+        pool.release(second);
+
+        Thread.sleep(1100);
+        pool.evictIdle();
+
+        assertTrue(second.isAlive(), "Последний возвращенный браузер остается в пределах minSize");
+        assertFalse(first.isAlive(), "Браузер сверх minSize закрывается после простоя");
+        assertSame(pool.borrow("chromium"), second);
+    }
+
+    @Test
+    public void testBorrowAfterShutdownFails() {
+        pool = pool(0, 1, 60, 1);
+        pool.shutdown();
+
+        expectThrows(IllegalStateException.class, () -> pool.borrow("chromium"));
+    }
+
+    /**
+     * Создает пул, запускающий браузеры-заглушки.
+     */
+    private PlaywrightBrowserPool pool(int minSize, int maxSize, int idleTimeoutSeconds, int borrowTimeoutSeconds) {
+        return new PlaywrightBrowserPool(minSize, maxSize, idleTimeoutSeconds, borrowTimeoutSeconds, name -> {
+            AtomicBoolean connected = new AtomicBoolean(true);
+            browsers.add(connected);
+            return TestBrowserSessions.create(name, connected);
+        });
+    }
+}